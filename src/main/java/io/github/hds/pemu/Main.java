@@ -1,17 +1,29 @@
 package io.github.hds.pemu;
 
 import io.github.hds.pemu.app.Application;
+import io.github.hds.pemu.batch.BatchJob;
+import io.github.hds.pemu.batch.BatchResult;
+import io.github.hds.pemu.batch.BatchRunner;
 import io.github.hds.pemu.console.Console;
+import io.github.hds.pemu.instructions.Instructions;
 import io.github.hds.pemu.localization.TranslationManager;
+import io.github.hds.pemu.memory.MemoryType;
 import io.github.hds.pemu.plugins.BasePlugin;
 import io.github.hds.pemu.config.ConfigManager;
 import io.github.hds.pemu.arguments.ArgumentsParser;
 import io.github.hds.pemu.plugins.PluginManager;
+import io.github.hds.pemu.processor.ExecutionEngine;
 import io.github.hds.pemu.processor.ProcessorConfig;
+import io.github.hds.pemu.processor.ProcessorScheduler;
+import io.github.hds.pemu.processor.TimeSourceType;
 import io.github.hds.pemu.utils.StringUtils;
+import org.jetbrains.annotations.NotNull;
 
 import javax.swing.*;
 import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Scanner;
 import java.util.regex.Pattern;
 
@@ -30,10 +42,22 @@ public final class Main {
               .defineFlag("--command-line", "-cl")
               .defineFlag("--skip-warning", "-sw")
               .defineFlag("--no-config-auto-save", "-ncas")
+              .defineFlag("--fast-forward-idle", "-ffi")
+              .defineFlag("--batch-compare-engines", "-bce")
               .defineRangedInt("--bits", "-b", ProcessorConfig.DEFAULT_BITS, ProcessorConfig.MIN_BITS, ProcessorConfig.MAX_BITS)
               .defineRangedInt("--memory-size", "-ms", ProcessorConfig.DEFAULT_MEMORY_SIZE, ProcessorConfig.MIN_MEMORY_SIZE, ProcessorConfig.MAX_MEMORY_SIZE)
-              .defineRangedInt("--clock-frequency", "-cf", ProcessorConfig.DEFAULT_FREQUENCY, ProcessorConfig.MIN_FREQUENCY, ProcessorConfig.MAX_FREQUENCY)
+              .defineRangedInt("--clock-frequency", "-cf", ProcessorConfig.DEFAULT_FREQUENCY, ProcessorConfig.UNLIMITED_FREQUENCY, ProcessorConfig.MAX_FREQUENCY)
+              .defineRangedInt("--undo-journal-size", "-ujs", ProcessorConfig.DEFAULT_UNDO_JOURNAL_SIZE, ProcessorConfig.MIN_UNDO_JOURNAL_SIZE, ProcessorConfig.MAX_UNDO_JOURNAL_SIZE)
+              .defineRangedInt("--cores", "-c", ProcessorConfig.DEFAULT_CORES, ProcessorConfig.MIN_CORES, ProcessorConfig.MAX_CORES)
+              .defineRangedInt("--batch-timeout", "-bto", 10000, 0, Integer.MAX_VALUE)
+              .defineRangedInt("--batch-quantum", "-bq", ProcessorScheduler.DEFAULT_QUANTUM, 1, Integer.MAX_VALUE)
+              .defineStr("--memory-type", "-mt", ProcessorConfig.DEFAULT_MEMORY_TYPE.name())
+              .defineStr("--memory-file", "-mf", "")
+              .defineStr("--execution-engine", "-ee", ProcessorConfig.DEFAULT_EXECUTION_ENGINE.name())
+              .defineStr("--time-source", "-ts", ProcessorConfig.DEFAULT_TIME_SOURCE.name())
               .defineStr("--program", "-p", "")
+              .defineStr("--batch", "-bt", "")
+              .defineStr("--batch-results", "-br", "")
               .defineStr("--plugin", "-pl", "")
               .defineStr("--language", "-lang", "");
         // Parse Arguments
@@ -48,6 +72,12 @@ public final class Main {
             return;
         }
 
+        // Batch mode doesn't create the Application, so it can run where there's no display
+        if (parser.isSpecified("--batch")) {
+            runBatch(parser);
+            return;
+        }
+
         boolean isCommandLine = parser.isSpecified("--command-line");
         boolean runOnStart = parser.isSpecified("--run");
         boolean verifyOnStart = parser.isSpecified("--verify");
@@ -124,12 +154,7 @@ public final class Main {
         // Console Arguments override config settings
         // Setting App's ProcessorConfig based on the specified arguments
         ProcessorConfig processorConfig = app.getProcessorConfig();
-        if (parser.isSpecified("--bits"))
-            processorConfig.setBits((int) parser.getOption("--bits").getValue());
-        if (parser.isSpecified("--memory-size"))
-            processorConfig.setMemorySize((int) parser.getOption("--memory-size").getValue());
-        if (parser.isSpecified("--clock-frequency"))
-            processorConfig.setClockFrequency((int) parser.getOption("--clock-frequency").getValue());
+        applyProcessorArguments(parser, processorConfig);
 
         if (parser.isSpecified("--language")) {
             TranslationManager.setCurrentTranslation(
@@ -169,5 +194,97 @@ public final class Main {
         if (closeApplication) app.close(null);
     }
 
-}
+    private static void applyProcessorArguments(@NotNull ArgumentsParser parser, @NotNull ProcessorConfig processorConfig) {
+        if (parser.isSpecified("--bits"))
+            processorConfig.setBits((int) parser.getOption("--bits").getValue());
+        if (parser.isSpecified("--memory-size"))
+            processorConfig.setMemorySize((int) parser.getOption("--memory-size").getValue());
+        if (parser.isSpecified("--clock-frequency"))
+            processorConfig.setClockFrequency((int) parser.getOption("--clock-frequency").getValue());
+        if (parser.isSpecified("--memory-type")) {
+            String memoryType = (String) parser.getOption("--memory-type").getValue();
+            try {
+                processorConfig.setMemoryType(MemoryType.valueOf(memoryType.toUpperCase()));
+            } catch (IllegalArgumentException err) {
+                System.err.println("Invalid Memory type \"" + memoryType + "\", valid types are: " + Arrays.toString(MemoryType.values()));
+            }
+        }
+        if (parser.isSpecified("--memory-file"))
+            processorConfig.setMemoryFile((String) parser.getOption("--memory-file").getValue());
+        if (parser.isSpecified("--execution-engine")) {
+            String executionEngine = (String) parser.getOption("--execution-engine").getValue();
+            try {
+                processorConfig.setExecutionEngine(ExecutionEngine.valueOf(executionEngine.toUpperCase()));
+            } catch (IllegalArgumentException err) {
+                System.err.println("Invalid Execution Engine \"" + executionEngine + "\", valid engines are: " + Arrays.toString(ExecutionEngine.values()));
+            }
+        }
+        if (parser.isSpecified("--time-source")) {
+            String timeSource = (String) parser.getOption("--time-source").getValue();
+            try {
+                processorConfig.setTimeSource(TimeSourceType.valueOf(timeSource.toUpperCase()));
+            } catch (IllegalArgumentException err) {
+                System.err.println("Invalid Time Source \"" + timeSource + "\", valid sources are: " + Arrays.toString(TimeSourceType.values()));
+            }
+        }
+
+        if (parser.isSpecified("--fast-forward-idle"))
+            processorConfig.setFastForwardIdle(true);
+        if (parser.isSpecified("--undo-journal-size"))
+            processorConfig.setUndoJournalSize((int) parser.getOption("--undo-journal-size").getValue());
+        if (parser.isSpecified("--cores"))
+            processorConfig.setCores((int) parser.getOption("--cores").getValue());
+    }
 
+    private static void runBatch(@NotNull ArgumentsParser parser) {
+        // Debug messages (e.g. breakpoints) of all programs go to stderr, their output is captured
+        Console.usePrintStream(System.err);
+
+        // Programs run as fast as they can unless a frequency is specified
+        ProcessorConfig processorConfig = new ProcessorConfig(Instructions.SET)
+                .setClockFrequency(ProcessorConfig.UNLIMITED_FREQUENCY);
+        applyProcessorArguments(parser, processorConfig);
+
+        File batchFile = new File((String) parser.getOption("--batch").getValue());
+        String resultsPath = (String) parser.getOption("--batch-results").getValue();
+        File resultsFile = new File(resultsPath.isEmpty() ? "batch-results.tsv" : resultsPath);
+        long timeout = (int) parser.getOption("--batch-timeout").getValue();
+        int quantum = (int) parser.getOption("--batch-quantum").getValue();
+
+        try {
+            List<BatchJob> jobs = BatchRunner.readJobs(batchFile, processorConfig, timeout);
+            BatchRunner runner = new BatchRunner(Runtime.getRuntime().availableProcessors(), quantum);
+
+            if (parser.isSpecified("--batch-compare-engines")) {
+                // The JIT is checked unless another engine is specified
+                ExecutionEngine engine = parser.isSpecified("--execution-engine") ? processorConfig.getExecutionEngine() : ExecutionEngine.JIT;
+                List<String> differences = runner.compareEngines(jobs, ExecutionEngine.INTERPRETER, engine);
+                for (String difference : differences) System.out.println(difference);
+                System.out.println(StringUtils.format(
+                        "Compared {0} programs on the {1} and {2} engines: {3} differ",
+                        jobs.size(), ExecutionEngine.INTERPRETER.name(), engine.name(), differences.size()
+                ));
+                return;
+            }
+
+            long startTime = System.currentTimeMillis();
+            List<BatchResult> results = runner.run(jobs);
+            long elapsedTime = System.currentTimeMillis() - startTime;
+            BatchRunner.writeResults(resultsFile, results);
+
+            int[] stateCounts = new int[BatchResult.State.values().length];
+            for (BatchResult result : results) stateCounts[result.getState().ordinal()]++;
+
+            StringBuilder summary = new StringBuilder(StringUtils.format(
+                    "Ran {0} programs on {1} threads in {2}ms:", results.size(), runner.getParallelism(), elapsedTime
+            ));
+            for (BatchResult.State state : BatchResult.State.values())
+                summary.append(' ').append(state.name()).append('=').append(stateCounts[state.ordinal()]);
+            System.out.println(summary);
+            System.out.println("Results were written to \"" + resultsFile.getPath() + "\"");
+        } catch (IOException err) {
+            System.err.println("Couldn't run batch: " + err.getMessage());
+        }
+    }
+
+}
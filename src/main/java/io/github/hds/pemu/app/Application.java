@@ -12,11 +12,14 @@ import io.github.hds.pemu.files.FileUtils;
 import io.github.hds.pemu.localization.ITranslatable;
 import io.github.hds.pemu.localization.Translation;
 import io.github.hds.pemu.localization.TranslationManager;
+import io.github.hds.pemu.memory.MemoryType;
 import io.github.hds.pemu.plugins.IPlugin;
 import io.github.hds.pemu.plugins.PluginManager;
 import io.github.hds.pemu.processor.Clock;
+import io.github.hds.pemu.processor.ExecutionEngine;
 import io.github.hds.pemu.processor.IProcessor;
 import io.github.hds.pemu.processor.ProcessorConfig;
+import io.github.hds.pemu.processor.TimeSourceType;
 import io.github.hds.pemu.utils.*;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -194,6 +197,23 @@ public final class Application extends JFrame implements KeyListener, ITranslata
             processorConfig.setBits(e.config.get(Integer.class, "processorConfig.bits"));
             processorConfig.setMemorySize(e.config.get(Integer.class, "processorConfig.memorySize"));
             processorConfig.setClockFrequency(e.config.get(Integer.class, "processorConfig.clockFrequency"));
+            // These were added later, so older configs may not have them
+            processorConfig.setMemoryType(MemoryType.valueOf(
+                    e.config.getOrDefault(String.class, "processorConfig.memoryType", ProcessorConfig.DEFAULT_MEMORY_TYPE.name())
+            ));
+            processorConfig.setMemoryFile(e.config.getOrDefault(String.class, "processorConfig.memoryFile", ""));
+            processorConfig.setExecutionEngine(ExecutionEngine.valueOf(
+                    e.config.getOrDefault(String.class, "processorConfig.executionEngine", ProcessorConfig.DEFAULT_EXECUTION_ENGINE.name())
+            ));
+            processorConfig.setTimeSource(TimeSourceType.valueOf(
+                    e.config.getOrDefault(String.class, "processorConfig.timeSource", ProcessorConfig.DEFAULT_TIME_SOURCE.name())
+            ));
+            processorConfig.setUndoJournalSize(
+                    e.config.getOrDefault(Integer.class, "processorConfig.undoJournalSize", ProcessorConfig.DEFAULT_UNDO_JOURNAL_SIZE)
+            );
+            processorConfig.setCores(
+                    e.config.getOrDefault(Integer.class, "processorConfig.cores", ProcessorConfig.DEFAULT_CORES)
+            );
         }
     }
 
@@ -202,6 +222,13 @@ public final class Application extends JFrame implements KeyListener, ITranslata
         e.config.put("processorConfig.bits", processorConfig.getBits());
         e.config.put("processorConfig.memorySize", processorConfig.getMemorySize());
         e.config.put("processorConfig.clockFrequency", processorConfig.getClockFrequency());
+        e.config.put("processorConfig.memoryType", processorConfig.getMemoryType().name());
+        String memoryFile = processorConfig.getMemoryFile();
+        e.config.put("processorConfig.memoryFile", memoryFile == null ? "" : memoryFile);
+        e.config.put("processorConfig.executionEngine", processorConfig.getExecutionEngine().name());
+        e.config.put("processorConfig.timeSource", processorConfig.getTimeSource().name());
+        e.config.put("processorConfig.undoJournalSize", processorConfig.getUndoJournalSize());
+        e.config.put("processorConfig.cores", processorConfig.getCores());
     }
 
     @Override
@@ -210,6 +237,12 @@ public final class Application extends JFrame implements KeyListener, ITranslata
         e.config.put("processorConfig.bits", ProcessorConfig.DEFAULT_BITS);
         e.config.put("processorConfig.memorySize", ProcessorConfig.DEFAULT_MEMORY_SIZE);
         e.config.put("processorConfig.clockFrequency", ProcessorConfig.DEFAULT_FREQUENCY);
+        e.config.put("processorConfig.memoryType", ProcessorConfig.DEFAULT_MEMORY_TYPE.name());
+        e.config.put("processorConfig.memoryFile", "");
+        e.config.put("processorConfig.executionEngine", ProcessorConfig.DEFAULT_EXECUTION_ENGINE.name());
+        e.config.put("processorConfig.timeSource", ProcessorConfig.DEFAULT_TIME_SOURCE.name());
+        e.config.put("processorConfig.undoJournalSize", ProcessorConfig.DEFAULT_UNDO_JOURNAL_SIZE);
+        e.config.put("processorConfig.cores", ProcessorConfig.DEFAULT_CORES);
     }
 
     public void updateTitle() {
@@ -322,6 +355,9 @@ public final class Application extends JFrame implements KeyListener, ITranslata
     public void keyPressed(KeyEvent e) {
         if (currentProcessor == null) return;
         currentProcessor.setKeyPressed(e.getKeyCode());
+
+        char typed = e.getKeyChar();
+        currentProcessor.queueKeyEvent(e.getKeyCode(), typed == KeyEvent.CHAR_UNDEFINED ? '\0' : typed);
     }
 
     @Override
@@ -566,6 +602,16 @@ public final class Application extends JFrame implements KeyListener, ITranslata
         Console.Debug.println();
     }
 
+    public void stepProcessorBack(ActionEvent e) {
+        if (currentProcessor == null || !currentProcessor.isRunning()) {
+            Console.Debug.println(currentTranslation.getOrDefault("messages.processorStepNotRunning"));
+        } else if (currentProcessor.stepBack(1) > 0) {
+            Console.Debug.println(currentTranslation.getOrDefault("messages.processorSteppedBack"));
+        } else Console.Debug.println(currentTranslation.getOrDefault("messages.processorStepBackUnavailable"));
+
+        Console.Debug.println();
+    }
+
     @Override
     public void setVisible(boolean b) {
         if (allowVisibilityChange) super.setVisible(b);
@@ -7,16 +7,20 @@ import io.github.hds.pemu.instructions.InstructionHistory;
 import io.github.hds.pemu.localization.ITranslatable;
 import io.github.hds.pemu.localization.Translation;
 import io.github.hds.pemu.localization.TranslationManager;
+import io.github.hds.pemu.memory.IMemory;
 import io.github.hds.pemu.memory.flags.IFlag;
 import io.github.hds.pemu.memory.registers.IRegister;
 import io.github.hds.pemu.processor.IProcessor;
+import io.github.hds.pemu.processor.ProcessorSnapshot;
 import io.github.hds.pemu.utils.*;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.*;
+import java.util.concurrent.CompletableFuture;
 
 public final class MemoryView extends JFrame implements ITranslatable, IConfigurable {
 
@@ -38,6 +42,9 @@ public final class MemoryView extends JFrame implements ITranslatable, IConfigur
     private final JCheckBox SHOW_POINTERS;
     private final JLabel RF_VALUES;
 
+    // The last snapshot that was requested, it's only shown if no other one was requested after it
+    private @Nullable CompletableFuture<ProcessorSnapshot> pendingSnapshot = null;
+
     protected MemoryView(@NotNull Application parentApp) {
         super();
         app = parentApp;
@@ -144,6 +151,41 @@ public final class MemoryView extends JFrame implements ITranslatable, IConfigur
             return;
         }
 
+        // Only one snapshot is requested at a time, if the processor didn't take the last one yet this update is skipped
+        if (pendingSnapshot != null && !pendingSnapshot.isDone()) return;
+
+        // Making the table large enough to fit all the processor's memory
+        int memSize = processor.getMemory().getSize();
+        int cols = (int) COLS_SPINNER.getValue();
+        int rows = (int) Math.ceil(memSize / (float) cols);
+
+        if (model.getColumnCount() != cols)
+            model.setColumnCount(cols);
+
+        if (model.getRowCount() != rows)
+            model.setRowCount(rows);
+
+        // Only the rows that can be seen are copied from the processor's memory
+        Rectangle visibleRect = MEMORY_TABLE.getVisibleRect();
+        int firstRow = MEMORY_TABLE.rowAtPoint(visibleRect.getLocation());
+        int lastRow = MEMORY_TABLE.rowAtPoint(new Point(visibleRect.x, visibleRect.y + visibleRect.height - 1));
+        if (firstRow < 0) firstRow = 0;
+        if (lastRow < 0) lastRow = rows - 1;
+
+        // Getting a consistent copy of the processor's state, memory can't be read directly while it's running.
+        //  The snapshot is shown once the processor takes it, so this Thread never waits for the processor
+        CompletableFuture<ProcessorSnapshot> request = processor.requestSnapshot(firstRow * cols, (lastRow - firstRow + 1) * cols);
+        pendingSnapshot = request;
+        request.thenAccept(snapshot -> SwingUtilities.invokeLater(() -> {
+            // The processor may have changed while the snapshot was being taken
+            if (pendingSnapshot == request && app.currentProcessor == processor)
+                showSnapshot(processor, snapshot);
+        }));
+    }
+
+    private void showSnapshot(@NotNull IProcessor processor, @NotNull ProcessorSnapshot snapshot) {
+        DefaultTableModel model = (DefaultTableModel) MEMORY_TABLE.getModel();
+
         // Getting the history of executed processor instructions
         InstructionHistory history = processor.getInstructionHistory();
 
@@ -151,9 +193,12 @@ public final class MemoryView extends JFrame implements ITranslatable, IConfigur
         Integer IPValue = null;
         Integer SPValue = null;
 
+        IMemory memory = snapshot.getMemory();
+        int memStart = snapshot.getMemoryStart();
+
         // Getting all registers and flags
-        IRegister[] processorRegisters = processor.getRegisters();
-        IFlag[] processorFlags = processor.getFlags();
+        IRegister[] processorRegisters = snapshot.getRegisters();
+        IFlag[] processorFlags = snapshot.getFlags();
 
         // Create a new table
         HTMLTableBuilder registersTable = new HTMLTableBuilder(
@@ -181,36 +226,31 @@ public final class MemoryView extends JFrame implements ITranslatable, IConfigur
 
         RF_VALUES.setText(registersTable.toString(true));
 
-        // Making the table large enough to fit all the processor's memory
-        int memSize = processor.getMemory().getSize();
-        int cols = (int) COLS_SPINNER.getValue();
-        int rows = (int) Math.ceil(memSize / (float) cols);
-
-        if (model.getColumnCount() != cols)
-            model.setColumnCount(cols);
-
-        if (model.getRowCount() != rows)
-            model.setRowCount(rows);
+        // The columns may have changed since the snapshot was requested
+        int cols = model.getColumnCount();
+        int rows = model.getRowCount();
 
         // Getting the currently selected column and row
         int selectedRow = MEMORY_TABLE.getSelectedRow();
         int selectedCol = MEMORY_TABLE.getSelectedColumn();
 
         // If the cell pointed by the currently selected one needs to be
-        //  highlighted we do that
+        //  highlighted we do that (Only if the selected one was copied)
         boolean enablePointedCellFeature = SHOW_SELECTED_CELL_POINTER.isSelected();
         MEMORY_TABLE.setPointedCellEnabled(enablePointedCellFeature);
         if (enablePointedCellFeature)
             MEMORY_TABLE.clearPointedCell();
 
-        // For each memory address
-        for (int i = 0; i < memSize; i++) {
+        // For each copied memory address
+        for (int j = 0; j < memory.getSize(); j++) {
+            int i = memStart + j;
             // We get its position on the table
             int x = i % cols;
             int y = i / cols;
+            if (y >= rows) break;
 
-            // We get the currently stored value at that address
-            int valueAtCurrentIndex = processor.getMemory().getValueAt(i);
+            // We get the value that was stored at that address
+            int valueAtCurrentIndex = memory.getValueAt(j);
             // Highlighting pointed cell if necessary
             if (enablePointedCellFeature && y == selectedRow && x == selectedCol)
                 MEMORY_TABLE.setPointedCell(valueAtCurrentIndex / cols, valueAtCurrentIndex % cols);
@@ -15,10 +15,15 @@ public final class ProcessorConfigPanel extends JPanel implements ITranslatable
     private final @NotNull JLabel BITS_LABEL;
     private final @NotNull JLabel MEMORY_LABEL;
     private final @NotNull JLabel CLOCK_LABEL;
+    private final @NotNull JLabel UNLIMITED_CLOCK_LABEL;
 
     private final @NotNull JSpinner BITS_SPINNER;
     private final @NotNull JSpinner MEMORY_SPINNER;
     private final @NotNull JSpinner CLOCK_SPINNER;
+    private final @NotNull JCheckBox UNLIMITED_CLOCK_CHECKBOX;
+
+    // Holds the settings that can't be changed from this panel
+    private @NotNull ProcessorConfig baseConfig = new ProcessorConfig(Instructions.SET);
 
     protected ProcessorConfigPanel() {
         super();
@@ -46,21 +51,30 @@ public final class ProcessorConfigPanel extends JPanel implements ITranslatable
         SpinnerNumberModel clockModel = new SpinnerNumberModel(ProcessorConfig.DEFAULT_FREQUENCY, ProcessorConfig.MIN_FREQUENCY, ProcessorConfig.MAX_FREQUENCY, 1);
         CLOCK_SPINNER = new JSpinner(clockModel);
         add(CLOCK_SPINNER);
+
+        UNLIMITED_CLOCK_LABEL = new JLabel("Unlimited Clock: ");
+        add(UNLIMITED_CLOCK_LABEL);
+        UNLIMITED_CLOCK_CHECKBOX = new JCheckBox();
+        UNLIMITED_CLOCK_CHECKBOX.addItemListener(e -> CLOCK_SPINNER.setEnabled(!UNLIMITED_CLOCK_CHECKBOX.isSelected()));
+        add(UNLIMITED_CLOCK_CHECKBOX);
     }
 
     public void setConfig(@NotNull ProcessorConfig config) {
+        baseConfig = new ProcessorConfig(config);
         BITS_SPINNER.setValue(config.getBits());
         MEMORY_SPINNER.setValue(config.getMemorySize());
-        CLOCK_SPINNER.setValue(config.getClockFrequency());
+        UNLIMITED_CLOCK_CHECKBOX.setSelected(config.isClockUnlimited());
+        // The Spinner keeps its last value if the Clock is unlimited
+        if (!config.isClockUnlimited())
+            CLOCK_SPINNER.setValue(config.getClockFrequency());
     }
 
     public @NotNull ProcessorConfig getConfig() {
-        return new ProcessorConfig(
-                Instructions.SET,
-                (int) BITS_SPINNER.getValue(),
-                (int) MEMORY_SPINNER.getValue(),
-                (int) CLOCK_SPINNER.getValue()
-        );
+        return new ProcessorConfig(baseConfig)
+                .setInstructionSet(Instructions.SET)
+                .setBits((int) BITS_SPINNER.getValue())
+                .setMemorySize((int) MEMORY_SPINNER.getValue())
+                .setClockFrequency(UNLIMITED_CLOCK_CHECKBOX.isSelected() ? ProcessorConfig.UNLIMITED_FREQUENCY : (int) CLOCK_SPINNER.getValue());
     }
 
     @Override
@@ -68,5 +82,6 @@ public final class ProcessorConfigPanel extends JPanel implements ITranslatable
         translation.translateComponent("processorConfigPanel.bitsLabel", BITS_LABEL);
         translation.translateComponent("processorConfigPanel.memoryLabel", MEMORY_LABEL);
         translation.translateComponent("processorConfigPanel.clockLabel", CLOCK_LABEL);
+        translation.translateComponent("processorConfigPanel.unlimitedClockLabel", UNLIMITED_CLOCK_LABEL);
     }
 }
@@ -20,6 +20,7 @@ public final class ProcessorMenu extends JMenu implements ITranslatable {
     private final TJMenuItem OPEN_MEMORY_VIEW;
     private final TJMenuItem PAUSE_RESUME;
     private final TJMenuItem STEP;
+    private final TJMenuItem STEP_BACK;
 
     private final ImageIcon ICON_RUN;
     private final ImageIcon ICON_STOP;
@@ -87,6 +88,12 @@ public final class ProcessorMenu extends JMenu implements ITranslatable {
         STEP.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_S, KeyEvent.SHIFT_DOWN_MASK));
         STEP.addActionListener(app::stepProcessor);
         add(STEP);
+
+        STEP_BACK = new TJMenuItem(i -> app.currentProcessor != null && app.currentProcessor.isRunning() &&  app.currentProcessor.isPaused());
+        STEP_BACK.setIcon(ICON_STEP);
+        STEP_BACK.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_B, KeyEvent.SHIFT_DOWN_MASK));
+        STEP_BACK.addActionListener(app::stepProcessorBack);
+        add(STEP_BACK);
     }
 
     @Override
@@ -98,6 +105,7 @@ public final class ProcessorMenu extends JMenu implements ITranslatable {
         translation.translateComponent("processorMenu.openMemoryView", OPEN_MEMORY_VIEW);
         translation.translateComponent("processorMenu.pauseResume", PAUSE_RESUME);
         translation.translateComponent("processorMenu.step", STEP);
+        translation.translateComponent("processorMenu.stepBack", STEP_BACK);
         localeConfigPanelTitle = translation.getOrDefault("processorMenu.configPanelTitle");
     }
 
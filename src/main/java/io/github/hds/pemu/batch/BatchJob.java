@@ -0,0 +1,49 @@
+package io.github.hds.pemu.batch;
+
+import io.github.hds.pemu.processor.ProcessorConfig;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+
+/**
+ * A program that is run by a {@link BatchRunner} on its own Processor
+ */
+public final class BatchJob {
+
+    private final @NotNull File PROGRAM;
+    private final @NotNull ProcessorConfig CONFIG;
+    private final @Nullable File INPUT;
+    private final long TIMEOUT;
+
+    /**
+     * @param program The program to compile and run
+     * @param config The config of the Processor that runs the program
+     * @param input The file whose characters are typed into the Processor before it starts or null if there's none
+     * @param timeout How many milliseconds the program can run for, 0 means forever
+     */
+    public BatchJob(@NotNull File program, @NotNull ProcessorConfig config, @Nullable File input, long timeout) {
+        if (timeout < 0) throw new IllegalArgumentException("Batch Job timeout can't be negative!");
+        PROGRAM = program;
+        CONFIG = config;
+        INPUT = input;
+        TIMEOUT = timeout;
+    }
+
+    public @NotNull File getProgram() {
+        return PROGRAM;
+    }
+
+    public @NotNull ProcessorConfig getConfig() {
+        return CONFIG;
+    }
+
+    public @Nullable File getInput() {
+        return INPUT;
+    }
+
+    public long getTimeout() {
+        return TIMEOUT;
+    }
+
+}
@@ -0,0 +1,94 @@
+package io.github.hds.pemu.batch;
+
+import io.github.hds.pemu.processor.Checkpoint;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The outcome of a {@link BatchJob}
+ */
+public final class BatchResult {
+
+    public enum State {
+        // The program stopped by itself (e.g. it executed HLT)
+        HALTED,
+        // The program was stopped because it ran for longer than its timeout
+        TIMEOUT,
+        // The program couldn't be compiled or loaded
+        COMPILE_ERROR,
+        // The input of the program couldn't be read
+        INPUT_ERROR,
+        // The program failed while running
+        ERROR
+    }
+
+    private final @NotNull BatchJob JOB;
+    private final @NotNull State STATE;
+    private final @NotNull String OUTPUT;
+    private final long INSTRUCTIONS;
+    private final long TIME;
+    private final @Nullable String ERROR;
+    private final @Nullable Checkpoint CHECKPOINT;
+
+    protected BatchResult(
+            @NotNull BatchJob job, @NotNull State state, @NotNull String output,
+            long instructions, long time, @Nullable String error, @Nullable Checkpoint checkpoint
+    ) {
+        JOB = job;
+        STATE = state;
+        OUTPUT = output;
+        INSTRUCTIONS = instructions;
+        TIME = time;
+        ERROR = error;
+        CHECKPOINT = checkpoint;
+    }
+
+    public @NotNull BatchJob getJob() {
+        return JOB;
+    }
+
+    public @NotNull State getState() {
+        return STATE;
+    }
+
+    /**
+     * Returns what the program printed while running
+     * @return What the program printed while running
+     */
+    public @NotNull String getOutput() {
+        return OUTPUT;
+    }
+
+    /**
+     * Returns how many Instructions the program executed
+     * @return How many Instructions the program executed
+     */
+    public long getInstructions() {
+        return INSTRUCTIONS;
+    }
+
+    /**
+     * Returns how many milliseconds it took to compile and run the program
+     * @return How many milliseconds it took to compile and run the program
+     */
+    public long getTime() {
+        return TIME;
+    }
+
+    /**
+     * Returns the error that stopped the program
+     * @return The error that stopped the program or null if there was none
+     */
+    public @Nullable String getError() {
+        return ERROR;
+    }
+
+    /**
+     * Returns the state of the Processor after the program stopped
+     * @return The state of the Processor after the program stopped or null if it wasn't run or it had more than one core
+     */
+    public @Nullable Checkpoint getCheckpoint() {
+        return CHECKPOINT;
+    }
+
+}
@@ -0,0 +1,395 @@
+package io.github.hds.pemu.batch;
+
+import io.github.hds.pemu.compiler.CompiledProgram;
+import io.github.hds.pemu.compiler.Compiler;
+import io.github.hds.pemu.console.ConsolePrintStream;
+import io.github.hds.pemu.memory.MemoryType;
+import io.github.hds.pemu.processor.*;
+import io.github.hds.pemu.utils.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.event.KeyEvent;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs many programs at once without the Application, each one on its own {@link Processor}.
+ * Programs are compiled inside a {@link ForkJoinPool} and run by a {@link ProcessorScheduler} with as many carrier Threads,
+ * so programs that wait for input or time don't take a Thread ({@link MultiCoreProcessor}s run on their own Threads).
+ * Programs are listed by a manifest or are all the ones in a directory (See {@link #readJobs(File, ProcessorConfig, long)})
+ */
+public final class BatchRunner {
+
+    public static final String PROGRAM_EXTENSION = ".pemu";
+    // The input of programs in a directory is read from the file with the same name and this extension
+    public static final String INPUT_EXTENSION = ".input";
+
+    // How often (in ms) input that didn't fit in the key event queue is queued again
+    private static final long INPUT_FEED_PERIOD = 1;
+
+    // A manifest line is a program followed by options, values with spaces can be quoted
+    private static final Pattern MANIFEST_TOKEN = Pattern.compile("\"([^\"]*)\"|(\\S+)");
+
+    private final int PARALLELISM;
+    private final int QUANTUM;
+
+    /**
+     * Creates a BatchRunner which uses as many Threads as there are available processors
+     */
+    public BatchRunner() {
+        this(Runtime.getRuntime().availableProcessors(), ProcessorScheduler.DEFAULT_QUANTUM);
+    }
+
+    /**
+     * @param parallelism How many Threads compile and run programs
+     * @param quantum How many Instructions a program executes before letting the next one run (See {@link ProcessorScheduler})
+     */
+    public BatchRunner(int parallelism, int quantum) {
+        if (parallelism <= 0) throw new IllegalArgumentException("Batch Runner parallelism must be positive!");
+        if (quantum <= 0) throw new IllegalArgumentException("Batch Runner quantum must be positive!");
+        PARALLELISM = parallelism;
+        QUANTUM = quantum;
+    }
+
+    /**
+     * Reads the jobs to run from the specified file. If it's a directory then all programs in it are run with
+     * the default config, their input is read from the file with the same name and {@link #INPUT_EXTENSION}.
+     * Otherwise it's a manifest where each line contains a program followed by options that override the default config
+     * (e.g. {@code tests/count.pemu bits=24 clock-frequency=0 input=tests/count.txt timeout=1000}),
+     * paths are relative to the manifest and lines starting with ';' are ignored
+     * @param file The directory or manifest to read
+     * @param defaultConfig The config of programs that don't override it, it's copied
+     * @param defaultTimeout The timeout of programs that don't override it (See {@link BatchJob#getTimeout()})
+     * @return The jobs to run, in the order they're listed
+     * @throws IOException If the file couldn't be read or the manifest isn't valid
+     */
+    public static @NotNull List<BatchJob> readJobs(@NotNull File file, @NotNull ProcessorConfig defaultConfig, long defaultTimeout) throws IOException {
+        List<BatchJob> jobs = new ArrayList<>();
+
+        if (file.isDirectory()) {
+            File[] programs = file.listFiles((dir, name) -> name.endsWith(PROGRAM_EXTENSION));
+            if (programs == null) throw new IOException("Couldn't list programs in '" + file.getPath() + "'.");
+            Arrays.sort(programs);
+
+            for (File program : programs) {
+                String name = program.getName();
+                File input = new File(file, name.substring(0, name.length() - PROGRAM_EXTENSION.length()) + INPUT_EXTENSION);
+                jobs.add(new BatchJob(program, new ProcessorConfig(defaultConfig), input.isFile() ? input : null, defaultTimeout));
+            }
+            return jobs;
+        }
+
+        File directory = file.getAbsoluteFile().getParentFile();
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith(";")) continue;
+
+            List<String> tokens = new ArrayList<>();
+            Matcher matcher = MANIFEST_TOKEN.matcher(line);
+            while (matcher.find()) tokens.add(matcher.group(1) != null ? matcher.group(1) : matcher.group(2));
+
+            try {
+                jobs.add(parseJob(directory, tokens, defaultConfig, defaultTimeout));
+            } catch (IllegalArgumentException err) {
+                throw new IOException("'" + file.getName() + "' (" + (i + 1) + "): " + err.getMessage());
+            }
+        }
+        return jobs;
+    }
+
+    private static @NotNull BatchJob parseJob(@NotNull File directory, @NotNull List<String> tokens, @NotNull ProcessorConfig defaultConfig, long defaultTimeout) {
+        File program = resolve(directory, tokens.get(0));
+        ProcessorConfig config = new ProcessorConfig(defaultConfig);
+        File input = null;
+        long timeout = defaultTimeout;
+
+        for (int i = 1; i < tokens.size(); i++) {
+            String[] option = tokens.get(i).split("=", 2);
+            if (option.length != 2) throw new IllegalArgumentException("Option \"" + tokens.get(i) + "\" must be in the form name=value.");
+
+            String value = option[1];
+            switch (option[0]) {
+                case "bits": config.setBits(StringUtils.parseInt(value)); break;
+                case "memory-size": config.setMemorySize(StringUtils.parseInt(value)); break;
+                case "clock-frequency": config.setClockFrequency(StringUtils.parseInt(value)); break;
+                case "memory-type": config.setMemoryType(MemoryType.valueOf(value.toUpperCase())); break;
+                case "memory-file": config.setMemoryFile(resolve(directory, value).getPath()); break;
+                case "execution-engine": config.setExecutionEngine(ExecutionEngine.valueOf(value.toUpperCase())); break;
+                case "time-source": config.setTimeSource(TimeSourceType.valueOf(value.toUpperCase())); break;
+                case "fast-forward-idle": config.setFastForwardIdle(Boolean.parseBoolean(value)); break;
+                case "undo-journal-size": config.setUndoJournalSize(StringUtils.parseInt(value)); break;
+                case "cores": config.setCores(StringUtils.parseInt(value)); break;
+                case "input": input = resolve(directory, value); break;
+                case "timeout": timeout = StringUtils.parseLong(value); break;
+                default: throw new IllegalArgumentException("Unknown option \"" + option[0] + "\".");
+            }
+        }
+
+        return new BatchJob(program, config, input, timeout);
+    }
+
+    private static @NotNull File resolve(@NotNull File directory, @NotNull String path) {
+        File file = new File(path);
+        return file.isAbsolute() ? file : new File(directory, path);
+    }
+
+    /**
+     * Runs the specified jobs, all at once. Each one gets its own {@link Processor} and its output is captured,
+     * so programs don't interfere with each other
+     * @param jobs The jobs to run
+     * @return The result of each job, in the same order
+     */
+    public @NotNull List<BatchResult> run(@NotNull List<BatchJob> jobs) {
+        ForkJoinPool pool = new ForkJoinPool(PARALLELISM);
+        ProcessorScheduler scheduler = new ProcessorScheduler(PARALLELISM, QUANTUM);
+        // Stops Processors that run for too long
+        ScheduledExecutorService timeouts = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "PEMU Batch Timeouts");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<ForkJoinTask<CompletableFuture<BatchResult>>> tasks = new ArrayList<>(jobs.size());
+            for (BatchJob job : jobs) tasks.add(pool.submit(() -> startJob(job, scheduler, timeouts)));
+
+            List<BatchResult> results = new ArrayList<>(jobs.size());
+            for (ForkJoinTask<CompletableFuture<BatchResult>> task : tasks) results.add(task.join().join());
+            return results;
+        } finally {
+            pool.shutdownNow();
+            scheduler.stop();
+            timeouts.shutdownNow();
+        }
+    }
+
+    // Compiles and loads the program of the specified job and starts running it, the returned future completes when it stops
+    private static @NotNull CompletableFuture<BatchResult> startJob(
+            @NotNull BatchJob job, @NotNull ProcessorScheduler scheduler, @NotNull ScheduledExecutorService timeouts
+    ) {
+        long startTime = System.currentTimeMillis();
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PrintStream outputStream;
+        try {
+            outputStream = new PrintStream(output, true, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException err) {
+            throw new UncheckedIOException(err);
+        }
+
+        IProcessor processor;
+        try {
+            ProcessorConfig config = new ProcessorConfig(job.getConfig())
+                    .setProgramOutput(new ConsolePrintStream(outputStream))
+                    .setQueuedPolling(true);
+            processor = config.getCores() > 1 ? new MultiCoreProcessor(config) : new Processor(config);
+            CompiledProgram compiledProgram = Compiler.compileFile(job.getProgram(), processor);
+            String loadError = processor.loadProgram(compiledProgram.getProgram());
+            if (loadError != null) throw new IllegalStateException(loadError);
+        } catch (Exception err) {
+            return CompletableFuture.completedFuture(
+                    new BatchResult(job, BatchResult.State.COMPILE_ERROR, "", 0, System.currentTimeMillis() - startTime, err.getMessage(), null)
+            );
+        }
+
+        InputFeeder inputFeeder = null;
+        if (job.getInput() != null) {
+            try {
+                inputFeeder = new InputFeeder(processor, job.getInput());
+            } catch (IOException err) {
+                return CompletableFuture.completedFuture(
+                        new BatchResult(job, BatchResult.State.INPUT_ERROR, "", 0, System.currentTimeMillis() - startTime, err.getMessage(), null)
+                );
+            }
+            inputFeeder.run();
+        }
+
+        // Multi-core Processors can't be scheduled, since their cores must run at the same time
+        CompletableFuture<Void> run = processor instanceof Processor ?
+                scheduler.submit((Processor) processor) :
+                CompletableFuture.runAsync(processor, runnable -> new Thread(runnable, "PEMU Batch Multi-Core").start());
+
+        AtomicBoolean timedOut = new AtomicBoolean(false);
+        ScheduledFuture<?> timeout = job.getTimeout() == 0 ? null : timeouts.schedule(() -> {
+            timedOut.set(true);
+            processor.stop();
+        }, job.getTimeout(), TimeUnit.MILLISECONDS);
+
+        // The rest of the input is queued as the program reads it
+        ScheduledFuture<?> inputFeed = inputFeeder == null || inputFeeder.isDone() ? null :
+                timeouts.scheduleWithFixedDelay(inputFeeder, INPUT_FEED_PERIOD, INPUT_FEED_PERIOD, TimeUnit.MILLISECONDS);
+
+        return run.handle((result, err) -> {
+            if (timeout != null) timeout.cancel(false);
+            if (inputFeed != null) inputFeed.cancel(false);
+
+            BatchResult.State state = BatchResult.State.HALTED;
+            String error = null;
+            if (err != null) {
+                processor.stop();
+                state = BatchResult.State.ERROR;
+                error = (err instanceof CompletionException && err.getCause() != null ? err.getCause() : err).getMessage();
+            } else if (timedOut.get()) state = BatchResult.State.TIMEOUT;
+
+            return new BatchResult(
+                    job, state, new String(output.toByteArray(), StandardCharsets.UTF_8),
+                    processor.getExecutedInstructions(), System.currentTimeMillis() - startTime, error, processor.getCheckpoint()
+            );
+        });
+    }
+
+    /**
+     * Runs the specified jobs with two {@link ExecutionEngine}s and compares their results, so that an engine can be
+     * checked against the one it should behave like (e.g. JIT against INTERPRETER). How programs stopped, their output,
+     * how many Instructions they executed and their Memory, Registers and Flags must be the same.
+     * Programs run with VIRTUAL time, so the ones that read the time or wait for it execute the same Instructions with both engines
+     * @param jobs The jobs to run, their configs are copied
+     * @param reference The engine whose results are expected
+     * @param engine The engine that is checked
+     * @return What's different for each job whose results differ (or that couldn't be compared), in the same order as the jobs
+     */
+    public @NotNull List<String> compareEngines(@NotNull List<BatchJob> jobs, @NotNull ExecutionEngine reference, @NotNull ExecutionEngine engine) {
+        // The engines run one after the other, so that they don't slow each other down and make programs time out
+        List<BatchResult> expected = run(withEngine(jobs, reference));
+        List<BatchResult> actual = run(withEngine(jobs, engine));
+
+        List<String> differences = new ArrayList<>();
+        for (int i = 0; i < jobs.size(); i++) {
+            String difference = compareResults(expected.get(i), actual.get(i));
+            if (difference != null) differences.add(jobs.get(i).getProgram().getPath() + ": " + difference);
+        }
+        return differences;
+    }
+
+    private static @NotNull List<BatchJob> withEngine(@NotNull List<BatchJob> jobs, @NotNull ExecutionEngine engine) {
+        List<BatchJob> engineJobs = new ArrayList<>(jobs.size());
+        for (BatchJob job : jobs) {
+            ProcessorConfig config = new ProcessorConfig(job.getConfig())
+                    .setExecutionEngine(engine)
+                    .setTimeSource(TimeSourceType.VIRTUAL);
+            engineJobs.add(new BatchJob(job.getProgram(), config, job.getInput(), job.getTimeout()));
+        }
+        return engineJobs;
+    }
+
+    // Returns the first difference between the specified results or null if there's none
+    private static @Nullable String compareResults(@NotNull BatchResult expected, @NotNull BatchResult actual) {
+        if (expected.getState() != actual.getState())
+            return StringUtils.format("stopped with {0} instead of {1}", actual.getState().name(), expected.getState().name());
+        // Programs that didn't run until the end can't be compared
+        if (expected.getState() != BatchResult.State.HALTED && expected.getState() != BatchResult.State.ERROR)
+            return StringUtils.format("couldn't be compared ({0})", expected.getState().name());
+        if (!expected.getOutput().equals(actual.getOutput()))
+            return StringUtils.format(
+                    "printed \"{0}\" instead of \"{1}\"",
+                    StringUtils.SpecialCharacters.escapeAll(actual.getOutput()), StringUtils.SpecialCharacters.escapeAll(expected.getOutput())
+            );
+        if (!Objects.equals(expected.getError(), actual.getError()))
+            return StringUtils.format("failed with \"{0}\" instead of \"{1}\"", actual.getError(), expected.getError());
+        if (expected.getInstructions() != actual.getInstructions())
+            return StringUtils.format("executed {0} Instructions instead of {1}", actual.getInstructions(), expected.getInstructions());
+
+        // Processors with more than one core don't have checkpoints
+        Checkpoint expectedState = expected.getCheckpoint();
+        Checkpoint actualState = actual.getCheckpoint();
+        if (expectedState == null || actualState == null) return null;
+
+        int register = firstDifference(expectedState.getRegisters(), actualState.getRegisters());
+        if (register >= 0)
+            return StringUtils.format("Register {0} is {1} instead of {2}", register, actualState.getRegisters()[register], expectedState.getRegisters()[register]);
+        if (!Arrays.equals(expectedState.getFlags(), actualState.getFlags()))
+            return StringUtils.format("Flags are {0} instead of {1}", Arrays.toString(actualState.getFlags()), Arrays.toString(expectedState.getFlags()));
+        int address = firstDifference(expectedState.getMemory(), actualState.getMemory());
+        if (address >= 0)
+            return StringUtils.format("Memory at {0} is {1} instead of {2}", address, actualState.getMemory()[address], expectedState.getMemory()[address]);
+        return null;
+    }
+
+    // Both results come from the same config, so their arrays have the same length
+    private static int firstDifference(int[] expected, int[] actual) {
+        for (int i = 0; i < expected.length; i++)
+            if (expected[i] != actual[i]) return i;
+        return -1;
+    }
+
+    // Types the input into the Processor's key event queue, so it's read by WAIT, WAITC, GETK, GETC and GETI
+    //  (Batch jobs enable queued polling, otherwise GETK, GETC and GETI would only read the pressed key).
+    //  Input that doesn't fit in the queue is typed each time this is run, until the queue is full again
+    private static final class InputFeeder implements Runnable {
+
+        private final @NotNull IProcessor PROCESSOR;
+        private final @NotNull String TEXT;
+        private int next = 0;
+
+        private InputFeeder(@NotNull IProcessor processor, @NotNull File input) throws IOException {
+            PROCESSOR = processor;
+            try {
+                TEXT = new String(Files.readAllBytes(input.toPath()), StandardCharsets.UTF_8).replace("\r", "");
+            } catch (IOException err) {
+                throw new IOException("Couldn't read input '" + input.getName() + "': " + err.getMessage(), err);
+            }
+        }
+
+        @Override
+        public synchronized void run() {
+            while (next < TEXT.length()) {
+                char ch = TEXT.charAt(next);
+                if (!PROCESSOR.queueKeyEvent(ch == '\n' ? KeyEvent.VK_ENTER : KeyEvent.getExtendedKeyCodeForChar(ch), ch)) return;
+                next++;
+            }
+        }
+
+        public synchronized boolean isDone() {
+            return next >= TEXT.length();
+        }
+    }
+
+    /**
+     * Writes the specified results to a file, one tab-separated line for each program with its path, its state,
+     * how many Instructions it executed, how many milliseconds it took, its output and its error.
+     * Special characters in outputs and errors are escaped, so each result stays on its line
+     * @param file The file to write to, it's overwritten if it exists
+     * @param results The results to write
+     * @throws IOException If the file couldn't be written
+     */
+    public static void writeResults(@NotNull File file, @NotNull List<BatchResult> results) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            writer.println("program\tstate\tinstructions\ttime\toutput\terror");
+            for (BatchResult result : results) {
+                writer.print(result.getJob().getProgram().getPath());
+                writer.print('\t');
+                writer.print(result.getState().name());
+                writer.print('\t');
+                writer.print(result.getInstructions());
+                writer.print('\t');
+                writer.print(result.getTime());
+                writer.print('\t');
+                writer.print(StringUtils.SpecialCharacters.escapeAll(result.getOutput()));
+                writer.print('\t');
+                String error = result.getError();
+                writer.println(error == null ? "" : StringUtils.SpecialCharacters.escapeAll(error));
+            }
+            if (writer.checkError()) throw new IOException("Couldn't write results to '" + file.getPath() + "'.");
+        }
+    }
+
+    public int getParallelism() {
+        return PARALLELISM;
+    }
+
+    public int getQuantum() {
+        return QUANTUM;
+    }
+
+}
@@ -1,5 +1,6 @@
 package io.github.hds.pemu.compiler;
 
+import io.github.hds.pemu.processor.InterruptController;
 import org.jetbrains.annotations.NotNull;
 
 import java.awt.event.KeyEvent;
@@ -18,6 +19,10 @@ public final class Constants {
                     CONSTANTS.put(fieldName, field.getInt(null));
                 } catch (Exception ignored) { }
         }
+
+        // Interrupts that can be given to IVEC
+        CONSTANTS.put("INT_TIMER", InterruptController.TIMER);
+        CONSTANTS.put("INT_KEYBOARD", InterruptController.KEYBOARD);
     }
 
     public static @NotNull HashMap<String, Constant> getDefaultConstants() {
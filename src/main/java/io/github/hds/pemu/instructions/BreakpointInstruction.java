@@ -0,0 +1,47 @@
+package io.github.hds.pemu.instructions;
+
+import io.github.hds.pemu.processor.IProcessor;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Wraps the {@link Instruction} at an address with a breakpoint, the {@link DecodeCache} decodes it instead of
+ * the original one so that addresses without breakpoints don't need to be checked. The Processor asks
+ * {@link #shouldBreak(IProcessor)} before executing it, so that breaking doesn't count as executing the Instruction
+ */
+public final class BreakpointInstruction extends Instruction {
+
+    private final @NotNull Instruction ORIGINAL;
+    private final int ADDRESS;
+    private final @NotNull IBreakpointHandler HANDLER;
+
+    public BreakpointInstruction(@NotNull Instruction original, int address, @NotNull IBreakpointHandler handler) {
+        super(original.getKeyword(), original.getArgumentsCount());
+        ORIGINAL = original;
+        ADDRESS = address;
+        HANDLER = handler;
+    }
+
+    public @NotNull Instruction getOriginal() {
+        return ORIGINAL;
+    }
+
+    public int getAddress() {
+        return ADDRESS;
+    }
+
+    /**
+     * Asks the {@link IBreakpointHandler} whether or not the specified {@link IProcessor} should break,
+     * it must be called before the Instruction is executed (while the Instruction Pointer is still at its address)
+     * @param p The {@link IProcessor} that is about to execute this {@link Instruction}
+     * @return Whether or not the {@link IProcessor} should stop before executing this {@link Instruction}
+     */
+    public boolean shouldBreak(@NotNull IProcessor p) {
+        return HANDLER.shouldBreak(p, ADDRESS);
+    }
+
+    @Override
+    public void execute(@NotNull IProcessor p, int[] args) {
+        ORIGINAL.execute(p, args);
+    }
+
+}
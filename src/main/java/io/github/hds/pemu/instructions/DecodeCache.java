@@ -0,0 +1,267 @@
+package io.github.hds.pemu.instructions;
+
+import io.github.hds.pemu.memory.CoreMemory;
+import io.github.hds.pemu.memory.IMemory;
+import io.github.hds.pemu.memory.IMemoryListener;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.BitSet;
+
+/**
+ * A cache that maps addresses of an {@link IMemory} to their {@link DecodedInstruction}.
+ * It must be registered as the {@link IMemoryListener} of the {@link IMemory} it decodes from,
+ * so that entries which overlap a written address are thrown away (self-modifying programs keep working)
+ */
+public final class DecodeCache implements IMemoryListener {
+
+    // Entries are stored in pages which are only allocated when an instruction
+    //  is decoded in them, so big memories don't need a big cache
+    private static final int PAGE_BITS = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private final @NotNull IMemory MEMORY;
+    private final @NotNull InstructionSet INSTRUCTIONSET;
+    private final DecodedInstruction[][] PAGES;
+    // Addresses that may be part of a cached entry, most writes are to data so they can be skipped quickly
+    private final BitSet DECODED_ADDRESSES = new BitSet();
+    // Instructions at these addresses are wrapped into a BreakpointInstruction when they're decoded
+    private final BitSet BREAKPOINTS = new BitSet();
+    private @Nullable IBreakpointHandler breakpointHandler = null;
+
+    // The max number of words after an address that an Instruction can occupy,
+    //  used to know how far back a write can invalidate an entry
+    private final int MAX_ARGUMENTS;
+    // The lowest address that FusedInstructions and IdleLoops can access
+    private final int LOWEST_ADDRESS;
+
+    /**
+     * Creates a DecodeCache which doesn't fuse Instructions nor detect idle loops
+     * @param memory The {@link IMemory} to decode Instructions from
+     * @param instructionSet The {@link InstructionSet} used to decode Instructions
+     */
+    public DecodeCache(@NotNull IMemory memory, @NotNull InstructionSet instructionSet) {
+        this(memory, instructionSet, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param memory The {@link IMemory} to decode Instructions from
+     * @param instructionSet The {@link InstructionSet} used to decode Instructions
+     * @param lowestAddress The lowest address that Instructions fused into a {@link FusedInstruction} or part of an
+     *                      {@link IdleLoop} can access, words before it (e.g. registers and flags) change between Instructions
+     */
+    public DecodeCache(@NotNull IMemory memory, @NotNull InstructionSet instructionSet, int lowestAddress) {
+        MEMORY = memory;
+        LOWEST_ADDRESS = lowestAddress;
+        INSTRUCTIONSET = instructionSet;
+        PAGES = new DecodedInstruction[(memory.getSize() + PAGE_MASK) >> PAGE_BITS][];
+
+        int maxArguments = 0;
+        for (int i = 0; i < instructionSet.getSize(); i++) {
+            Instruction instruction = instructionSet.getInstruction(i);
+            if (instruction != null) maxArguments = Math.max(maxArguments, instruction.getArgumentsCount());
+        }
+        MAX_ARGUMENTS = maxArguments;
+    }
+
+    /**
+     * Returns the {@link DecodedInstruction} at the specified address, decoding it if it isn't cached
+     * @param address The address of the {@link Instruction}
+     * @return The {@link DecodedInstruction} at the specified address or null if the Instruction is unknown
+     * @throws InstructionError If the arguments of the {@link Instruction} couldn't be read
+     */
+    public @Nullable DecodedInstruction get(int address) {
+        DecodedInstruction[] page = PAGES[address >> PAGE_BITS];
+        if (page != null) {
+            DecodedInstruction decoded = page[address & PAGE_MASK];
+            if (decoded != null) return decoded;
+        }
+        return decode(address);
+    }
+
+    private @Nullable DecodedInstruction decode(int address) {
+        // Other cores only pass on their writes to words that were marked as code before being read
+        if (MEMORY instanceof CoreMemory) ((CoreMemory) MEMORY).markCode(address, address + 1 + MAX_ARGUMENTS);
+        // Fetching isn't an access done by the program, so it's read like arguments are (without triggering watchpoints)
+        int keyCode = MEMORY.getValuesAt(address, 1)[0];
+        Instruction instruction = INSTRUCTIONSET.getInstruction(keyCode);
+        if (instruction == null) return null;
+        if (breakpointHandler != null && BREAKPOINTS.get(address))
+            instruction = new BreakpointInstruction(instruction, address, breakpointHandler);
+
+        int[] arguments;
+        try {
+            // Here we check instruction.ARGUMENTS == 0 because Memory#getValuesAt always throws if the address is out of bounds
+            arguments = instruction.getArgumentsCount() == 0 ? new int[0] : MEMORY.getValuesAt(address + 1, instruction.getArgumentsCount());
+        } catch (Exception err) {
+            throw new InstructionError(instruction.getKeyword(), err.getMessage(), address);
+        }
+
+        DecodedInstruction decoded = new DecodedInstruction(instruction, address, keyCode, arguments);
+
+        int pageIndex = address >> PAGE_BITS;
+        DecodedInstruction[] page = PAGES[pageIndex];
+        if (page == null) {
+            page = new DecodedInstruction[PAGE_SIZE];
+            PAGES[pageIndex] = page;
+        }
+        page[address & PAGE_MASK] = decoded;
+        DECODED_ADDRESSES.set(address, address + decoded.getWords());
+
+        if (LOWEST_ADDRESS != Integer.MAX_VALUE) decoded.fused = fuse(decoded);
+
+        return decoded;
+    }
+
+    // Decodes the Instruction at the specified address, if it can't be decoded null is returned
+    //  because it may be data that's never executed
+    private @Nullable DecodedInstruction peek(int address) {
+        if (!MEMORY.isAddressValid(address)) return null;
+        try {
+            return get(address);
+        } catch (InstructionError err) {
+            return null;
+        }
+    }
+
+    private @Nullable FusedInstruction fuse(@NotNull DecodedInstruction decoded) {
+        Instruction instruction = decoded.getInstruction();
+        if (instruction == Instructions.CMP) {
+            DecodedInstruction jump = peek(decoded.getEnd());
+            if (jump == null) return null;
+            return FusedInstruction.fuse(new DecodedInstruction[] { decoded, jump }, MEMORY, LOWEST_ADDRESS);
+        } else if (instruction == Instructions.INC || instruction == Instructions.DEC) {
+            DecodedInstruction compare = peek(decoded.getEnd());
+            if (compare == null) return null;
+
+            // The CMP was fused with its jump when it was decoded, if it wasn't then this can't be fused either
+            FusedInstruction compareAndJump = compare.getFused();
+            if (compareAndJump == null || compareAndJump.getLength() != 2) return null;
+            return FusedInstruction.fuse(new DecodedInstruction[] { decoded, compare, compareAndJump.getLast() }, MEMORY, LOWEST_ADDRESS);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the {@link IdleLoop} between the specified addresses if it's idle, the result of
+     * the check is cached in the first Instruction of the loop until the loop is written
+     * @param start The address of the first Instruction of the loop
+     * @param end The address after the conditional jump of the loop
+     * @return The {@link IdleLoop} between the specified addresses or null if it isn't idle
+     */
+    public @Nullable IdleLoop getIdleLoop(int start, int end) {
+        if (LOWEST_ADDRESS == Integer.MAX_VALUE) return null;
+
+        DecodedInstruction head = peek(start);
+        if (head == null) return null;
+
+        IdleLoop idleLoop = head.idleLoop;
+        if (idleLoop == null || idleLoop.getEnd() != end || !idleLoop.isValid()) {
+            idleLoop = IdleLoop.analyze(this, MEMORY, head, end, LOWEST_ADDRESS);
+            head.idleLoop = idleLoop;
+        }
+        return idleLoop.isIdle() ? idleLoop : null;
+    }
+
+    /**
+     * Returns the {@link DecodedInstruction} that follows the specified one, following the link between
+     * them if it's still valid or decoding it and linking it to the specified one if it isn't
+     * @param decoded The {@link DecodedInstruction} to get the next one of
+     * @return The {@link DecodedInstruction} that follows the specified one or null if it's unknown
+     * @throws InstructionError If the arguments of the next {@link Instruction} couldn't be read
+     */
+    public @Nullable DecodedInstruction getNext(@NotNull DecodedInstruction decoded) {
+        DecodedInstruction next = decoded.next;
+        if (next != null && next.isValid()) return next;
+
+        next = get(decoded.getEnd());
+        if (decoded.isValid()) decoded.next = next;
+        return next;
+    }
+
+    public @NotNull InstructionSet getInstructionSet() {
+        return INSTRUCTIONSET;
+    }
+
+    /**
+     * Sets the {@link IBreakpointHandler} that is asked whether or not to break at addresses with a breakpoint
+     * @param handler The new handler or null to ignore all breakpoints
+     */
+    public void setBreakpointHandler(@Nullable IBreakpointHandler handler) {
+        breakpointHandler = handler;
+        for (int address = BREAKPOINTS.nextSetBit(0); address >= 0; address = BREAKPOINTS.nextSetBit(address + 1))
+            invalidateBreakpoint(address);
+    }
+
+    /**
+     * Sets or removes a breakpoint at the specified address, the entry at that address is thrown away so that
+     * it's wrapped into (or unwrapped from) a {@link BreakpointInstruction} the next time it's decoded.
+     * Addresses without a breakpoint aren't checked, so they don't slow down execution
+     * @param address The address of the Instruction to break at
+     * @param isSet Whether to set or to remove the breakpoint
+     */
+    public void setBreakpoint(int address, boolean isSet) {
+        if (BREAKPOINTS.get(address) == isSet) return;
+        BREAKPOINTS.set(address, isSet);
+        invalidateBreakpoint(address);
+    }
+
+    public boolean hasBreakpoint(int address) {
+        return BREAKPOINTS.get(address);
+    }
+
+    // Entries before the address are removed too, because they may have been fused with (or linked to) the Instruction at it
+    private void invalidateBreakpoint(int address) {
+        for (int i = Math.max(0, address - 2 * (MAX_ARGUMENTS + 1)); i <= address; i++)
+            invalidate(i);
+    }
+
+    /**
+     * Removes the entry at the specified address
+     * @param address The address of the entry to remove
+     */
+    public void invalidate(int address) {
+        DecodedInstruction[] page = PAGES[address >> PAGE_BITS];
+        if (page == null) return;
+
+        DecodedInstruction decoded = page[address & PAGE_MASK];
+        if (decoded == null) return;
+
+        decoded.invalidate();
+        page[address & PAGE_MASK] = null;
+    }
+
+    /**
+     * Removes all cached entries, breakpoints are kept
+     */
+    public void clear() {
+        for (int i = 0; i < PAGES.length; i++) {
+            DecodedInstruction[] page = PAGES[i];
+            if (page == null) continue;
+
+            for (DecodedInstruction decoded : page)
+                if (decoded != null) decoded.invalidate();
+            PAGES[i] = null;
+        }
+        DECODED_ADDRESSES.clear();
+    }
+
+    @Override
+    public void onValueWritten(int address) {
+        if (!DECODED_ADDRESSES.get(address)) return;
+
+        // Removing all entries that contain the written address
+        for (int i = Math.max(0, address - MAX_ARGUMENTS); i <= address; i++) {
+            DecodedInstruction[] page = PAGES[i >> PAGE_BITS];
+            if (page == null) continue;
+
+            DecodedInstruction decoded = page[i & PAGE_MASK];
+            if (decoded != null && decoded.getEnd() > address) {
+                decoded.invalidate();
+                page[i & PAGE_MASK] = null;
+            }
+        }
+    }
+
+}
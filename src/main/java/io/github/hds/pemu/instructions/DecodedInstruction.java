@@ -0,0 +1,124 @@
+package io.github.hds.pemu.instructions;
+
+import io.github.hds.pemu.processor.IProcessor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An {@link Instruction} that was read from memory together with its arguments,
+ * so that it can be executed again without having to fetch it another time.
+ * It can also be linked to the {@link DecodedInstruction} that follows it (See {@link DecodeCache#getNext(DecodedInstruction)})
+ * and be the start of a {@link FusedInstruction} or of an {@link IdleLoop}
+ */
+public final class DecodedInstruction {
+
+    private final @NotNull Instruction INSTRUCTION;
+    private final int ADDRESS;
+    private final int KEY_CODE;
+    private final int[] ARGUMENTS;
+    private final boolean IS_FIXED_ARITY;
+
+    // The DecodedInstruction at getEnd(), it's only followed if it's still valid
+    protected @Nullable DecodedInstruction next = null;
+    // The superinstruction that starts with this Instruction, if it could be fused with the ones after it
+    protected @Nullable FusedInstruction fused = null;
+    // Whether or not the last loop that started with this Instruction was idle (See DecodeCache#getIdleLoop)
+    protected @Nullable IdleLoop idleLoop = null;
+    // Set to false when the words of this Instruction are written
+    private boolean isValid = true;
+
+    public DecodedInstruction(@NotNull Instruction instruction, int address, int keyCode, int[] arguments) {
+        INSTRUCTION = instruction;
+        ADDRESS = address;
+        KEY_CODE = keyCode;
+        ARGUMENTS = arguments;
+        IS_FIXED_ARITY = instruction instanceof FixedArityInstruction;
+    }
+
+    public @NotNull Instruction getInstruction() {
+        return INSTRUCTION;
+    }
+
+    /**
+     * Returns the key code the {@link Instruction} was decoded from
+     * @return The key code the {@link Instruction} was decoded from
+     */
+    public int getKeyCode() {
+        return KEY_CODE;
+    }
+
+    public int[] getArguments() {
+        return ARGUMENTS;
+    }
+
+    public int getWords() {
+        return INSTRUCTION.getWords();
+    }
+
+    /**
+     * Returns the address this {@link Instruction} was decoded from
+     * @return The address this {@link Instruction} was decoded from
+     */
+    public int getAddress() {
+        return ADDRESS;
+    }
+
+    /**
+     * Returns the address after the last word of this {@link Instruction}
+     * @return The address after the last word of this {@link Instruction}
+     */
+    public int getEnd() {
+        return ADDRESS + INSTRUCTION.getWords();
+    }
+
+    /**
+     * Returns whether or not the words this {@link Instruction} was decoded from weren't written since
+     * @return Whether or not this {@link DecodedInstruction} is still valid
+     */
+    public boolean isValid() {
+        return isValid;
+    }
+
+    /**
+     * Returns the {@link FusedInstruction} that starts with this {@link Instruction}
+     * @return The {@link FusedInstruction} that starts with this Instruction or null if it wasn't fused or isn't valid anymore
+     */
+    public @Nullable FusedInstruction getFused() {
+        FusedInstruction fused = this.fused;
+        return fused != null && fused.isValid() ? fused : null;
+    }
+
+    protected void invalidate() {
+        isValid = false;
+        next = null;
+        fused = null;
+        idleLoop = null;
+    }
+
+    /**
+     * Executes the decoded {@link Instruction} on the specified {@link IProcessor}
+     * @param p The {@link IProcessor} to execute the {@link Instruction} on
+     */
+    public void execute(@NotNull IProcessor p) {
+        // Legacy Instructions get the cached arguments array, so neither path allocates
+        if (!IS_FIXED_ARITY) {
+            INSTRUCTION.execute(p, ARGUMENTS);
+            return;
+        }
+
+        switch (ARGUMENTS.length) {
+            case 0:
+                INSTRUCTION.execute(p);
+                break;
+            case 1:
+                INSTRUCTION.execute(p, ARGUMENTS[0]);
+                break;
+            case 2:
+                INSTRUCTION.execute(p, ARGUMENTS[0], ARGUMENTS[1]);
+                break;
+            default:
+                INSTRUCTION.execute(p, ARGUMENTS[0], ARGUMENTS[1], ARGUMENTS[2]);
+        }
+    }
+
+}
@@ -0,0 +1,52 @@
+package io.github.hds.pemu.instructions;
+
+import io.github.hds.pemu.processor.IProcessor;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An {@link Instruction} that implements the fixed-arity execute methods instead of
+ * {@link Instruction#execute(IProcessor, int[])}, so that no array is needed to pass its arguments.
+ * Calling {@link Instruction#execute(IProcessor, int[])} still works and is dispatched to the right method
+ */
+public abstract class FixedArityInstruction extends Instruction {
+
+    public static final int MAX_ARGUMENTS = 3;
+
+    public FixedArityInstruction(@NotNull String keyword, int arguments) {
+        super(keyword, arguments);
+        if (arguments < 0 || arguments > MAX_ARGUMENTS)
+            throw new IllegalArgumentException("Fixed-arity Instructions can't have more than " + MAX_ARGUMENTS + " arguments.");
+    }
+
+    @Override
+    public void execute(@NotNull IProcessor p, int[] args) {
+        switch (getArgumentsCount()) {
+            case 0:
+                execute(p);
+                break;
+            case 1:
+                execute(p, args[0]);
+                break;
+            case 2:
+                execute(p, args[0], args[1]);
+                break;
+            case 3:
+                execute(p, args[0], args[1], args[2]);
+                break;
+        }
+    }
+
+    // The default implementations would call execute(IProcessor, int[]) which calls them back
+    @Override
+    public void execute(@NotNull IProcessor p) { }
+
+    @Override
+    public void execute(@NotNull IProcessor p, int arg0) { }
+
+    @Override
+    public void execute(@NotNull IProcessor p, int arg0, int arg1) { }
+
+    @Override
+    public void execute(@NotNull IProcessor p, int arg0, int arg1, int arg2) { }
+
+}
@@ -0,0 +1,220 @@
+package io.github.hds.pemu.instructions;
+
+import io.github.hds.pemu.memory.IMemory;
+import io.github.hds.pemu.memory.flags.FlagHandle;
+import io.github.hds.pemu.memory.flags.IFlag;
+import io.github.hds.pemu.memory.registers.IRegister;
+import io.github.hds.pemu.memory.registers.RegisterHandle;
+import io.github.hds.pemu.processor.IProcessor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.IdentityHashMap;
+
+/**
+ * A superinstruction made of a CMP followed by a conditional jump, optionally preceded by an INC or a DEC.
+ * It's executed with a single dispatch, the flags are only computed once and read back from locals.
+ * The state of the Processor after executing it is the same as after executing all of its Instructions
+ * (The flags written by INC and DEC are always overwritten by CMP, so they're not written)
+ */
+public final class FusedInstruction {
+
+    private static final RegisterHandle INSTRUCTION_POINTER = RegisterHandle.getHandle("IP");
+    private static final FlagHandle ZERO_FLAG = FlagHandle.getHandle("ZF");
+    private static final FlagHandle CARRY_FLAG = FlagHandle.getHandle("CF");
+
+    /**
+     * The condition a jump checks on the Zero and Carry flags
+     */
+    private enum Condition {
+        ZERO, NOT_ZERO, CARRY, NOT_CARRY, ZERO_OR_CARRY, NOT_ZERO_OR_CARRY;
+
+        private boolean test(boolean zero, boolean carry) {
+            switch (this) {
+                case ZERO:
+                    return zero;
+                case NOT_ZERO:
+                    return !zero;
+                case CARRY:
+                    return carry;
+                case NOT_CARRY:
+                    return !carry;
+                case ZERO_OR_CARRY:
+                    return zero || carry;
+                default:
+                    return !(zero || carry);
+            }
+        }
+    }
+
+    private static final IdentityHashMap<Instruction, Condition> CONDITIONS = new IdentityHashMap<>();
+
+    static {
+        CONDITIONS.put(Instructions.JZ  , Condition.ZERO);
+        CONDITIONS.put(Instructions.JE  , Condition.ZERO);
+        CONDITIONS.put(Instructions.JNZ , Condition.NOT_ZERO);
+        CONDITIONS.put(Instructions.JNE , Condition.NOT_ZERO);
+        CONDITIONS.put(Instructions.JC  , Condition.CARRY);
+        CONDITIONS.put(Instructions.JB  , Condition.CARRY);
+        CONDITIONS.put(Instructions.JNAE, Condition.CARRY);
+        CONDITIONS.put(Instructions.JNC , Condition.NOT_CARRY);
+        CONDITIONS.put(Instructions.JNB , Condition.NOT_CARRY);
+        CONDITIONS.put(Instructions.JAE , Condition.NOT_CARRY);
+        CONDITIONS.put(Instructions.JBE , Condition.ZERO_OR_CARRY);
+        CONDITIONS.put(Instructions.JNA , Condition.ZERO_OR_CARRY);
+        CONDITIONS.put(Instructions.JNBE, Condition.NOT_ZERO_OR_CARRY);
+        CONDITIONS.put(Instructions.JA  , Condition.NOT_ZERO_OR_CARRY);
+    }
+
+    private final @NotNull String KEYWORD;
+    private final DecodedInstruction[] PARTS;
+
+    // The address changed by INC or DEC and by how much, the delta is 0 if there's none
+    private final int STEP_ADDRESS;
+    private final int STEP_DELTA;
+    private final int LEFT_ADDRESS;
+    private final int RIGHT_ADDRESS;
+    private final @NotNull Condition CONDITION;
+    private final int TARGET;
+
+    private FusedInstruction(DecodedInstruction[] parts, int stepAddress, int stepDelta, @NotNull Condition condition) {
+        PARTS = parts;
+        STEP_ADDRESS = stepAddress;
+        STEP_DELTA = stepDelta;
+        CONDITION = condition;
+
+        int[] compareArgs = parts[parts.length - 2].getArguments();
+        LEFT_ADDRESS = compareArgs[0];
+        RIGHT_ADDRESS = compareArgs[1];
+        TARGET = parts[parts.length - 1].getArguments()[0];
+
+        StringBuilder keyword = new StringBuilder();
+        for (DecodedInstruction part : parts) {
+            if (keyword.length() > 0) keyword.append('+');
+            keyword.append(part.getInstruction().getKeyword());
+        }
+        KEYWORD = keyword.toString();
+    }
+
+    /**
+     * Tries to fuse the specified {@link DecodedInstruction}s, which must be contiguous in memory.
+     * Instructions whose operands are before the specified address or inside the fused Instructions
+     * aren't fused, because registers and flags (or the Instructions themselves) would change between them
+     * @param parts Either CMP and a conditional jump or INC/DEC, CMP and a conditional jump
+     * @param memory The {@link IMemory} the Instructions were decoded from
+     * @param lowestAddress The lowest address the operands can refer to
+     * @return The {@link FusedInstruction} or null if the Instructions can't be fused
+     */
+    public static @Nullable FusedInstruction fuse(@NotNull DecodedInstruction[] parts, @NotNull IMemory memory, int lowestAddress) {
+        if (parts.length < 2 || parts.length > 3) return null;
+
+        DecodedInstruction compare = parts[parts.length - 2];
+        DecodedInstruction jump = parts[parts.length - 1];
+        if (compare.getInstruction() != Instructions.CMP) return null;
+
+        Condition condition = CONDITIONS.get(jump.getInstruction());
+        if (condition == null) return null;
+
+        int start = parts[0].getAddress();
+        int end = jump.getEnd();
+        for (int i = 1; i < parts.length; i++)
+            if (parts[i].getAddress() != parts[i - 1].getEnd()) return null;
+
+        int[] compareArgs = compare.getArguments();
+        for (int address : compareArgs)
+            if (address < lowestAddress || !memory.isAddressValid(address)) return null;
+
+        if (parts.length == 2) return new FusedInstruction(parts, 0, 0, condition);
+
+        Instruction step = parts[0].getInstruction();
+        int stepDelta;
+        if (step == Instructions.INC) stepDelta = 1;
+        else if (step == Instructions.DEC) stepDelta = -1;
+        else return null;
+
+        int stepAddress = parts[0].getArguments()[0];
+        if (stepAddress < lowestAddress || !memory.isAddressValid(stepAddress)) return null;
+        if (stepAddress >= start && stepAddress < end) return null;
+
+        return new FusedInstruction(parts, stepAddress, stepDelta, condition);
+    }
+
+    /**
+     * Returns the keywords of the fused Instructions joined by '+' (e.g. "CMP+JE")
+     * @return The keywords of the fused Instructions
+     */
+    public @NotNull String getKeyword() {
+        return KEYWORD;
+    }
+
+    /**
+     * Returns how many Instructions were fused
+     * @return How many Instructions were fused
+     */
+    public int getLength() {
+        return PARTS.length;
+    }
+
+    /**
+     * Returns the last fused {@link DecodedInstruction} (The conditional jump)
+     * @return The last fused {@link DecodedInstruction}
+     */
+    public @NotNull DecodedInstruction getLast() {
+        return PARTS[PARTS.length - 1];
+    }
+
+    /**
+     * Returns the address after the last word of the fused Instructions
+     * @return The address after the last word of the fused Instructions
+     */
+    public int getEnd() {
+        return getLast().getEnd();
+    }
+
+    /**
+     * Returns whether or not none of the fused Instructions was written since they were decoded
+     * @return Whether or not this {@link FusedInstruction} can still be executed
+     */
+    public boolean isValid() {
+        for (DecodedInstruction part : PARTS)
+            if (!part.isValid()) return false;
+        return true;
+    }
+
+    /**
+     * Records all fused Instructions into the specified {@link InstructionHistory}
+     * @param history The {@link InstructionHistory} to record the Instructions into
+     */
+    public void recordHistory(@NotNull InstructionHistory history) {
+        for (DecodedInstruction part : PARTS)
+            history.record(part.getAddress(), part.getKeyCode());
+    }
+
+    /**
+     * Executes all fused Instructions, the Instruction Pointer must already point to {@link #getEnd()}
+     * @param p The {@link IProcessor} to execute the Instructions on
+     */
+    public void execute(@NotNull IProcessor p) {
+        IFlag ZF = p.getFlag(ZERO_FLAG);
+        IFlag CF = p.getFlag(CARRY_FLAG);
+        if (ZF == null) throw new NullPointerException("Zero Flag isn't present on the Processor.");
+        if (CF == null) throw new NullPointerException("Carry Flag isn't present on the Processor.");
+
+        IMemory memory = p.getMemory();
+        if (STEP_DELTA != 0) memory.setValueAt(STEP_ADDRESS, memory.getValueAt(STEP_ADDRESS) + STEP_DELTA);
+
+        int left = memory.getValueAt(LEFT_ADDRESS);
+        int right = memory.getValueAt(RIGHT_ADDRESS);
+        boolean zero = left == right;
+        boolean carry = left < right;
+        ZF.setValue(zero);
+        CF.setValue(carry);
+
+        if (CONDITION.test(zero, carry)) {
+            IRegister IP = p.getRegister(INSTRUCTION_POINTER);
+            if (IP == null) throw new NullPointerException("Instruction Pointer Register isn't present on the Processor.");
+            IP.setValue(TARGET);
+        }
+    }
+
+}
@@ -0,0 +1,17 @@
+package io.github.hds.pemu.instructions;
+
+import io.github.hds.pemu.processor.IProcessor;
+import org.jetbrains.annotations.NotNull;
+
+public interface IBreakpointHandler {
+
+    /**
+     * Called before the {@link Instruction} at an address with a breakpoint is executed
+     * (See {@link DecodeCache#setBreakpoint(int, boolean)})
+     * @param p The processor that is executing the Instruction
+     * @param address The address of the Instruction
+     * @return Whether or not the processor should stop before executing the Instruction
+     */
+    boolean shouldBreak(@NotNull IProcessor p, int address);
+
+}
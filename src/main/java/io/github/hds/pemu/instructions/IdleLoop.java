@@ -0,0 +1,263 @@
+package io.github.hds.pemu.instructions;
+
+import io.github.hds.pemu.memory.IMemory;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+
+/**
+ * The result of checking whether a loop is idle: a short loop without jumps inside it which only reads
+ * time or input, whose every iteration computes the same values if time and input didn't change.
+ * When an iteration of an idle loop ends, nothing can change until time passes or input arrives,
+ * so the Processor can wait for that instead of executing the loop again
+ * (e.g. a loop that waits for some time with TMS, SUB, CMP and JB)
+ */
+public final class IdleLoop {
+
+    // The max number of Instructions and words an idle loop can be made of
+    public static final int MAX_INSTRUCTIONS = 16;
+    public static final int MAX_WORDS = 48;
+
+    private static final int NO_TIME = -1;
+
+    /**
+     * What an {@link Instruction} reads and writes, arguments are addresses
+     */
+    private static final class Footprint {
+        private final int[] READS;
+        private final int[] WRITES;
+        private final boolean WRITES_ZERO;
+        private final boolean WRITES_CARRY;
+        // The resolution (in ms) of the time read by this Instruction or NO_TIME
+        private final int TIME_RESOLUTION;
+        private final boolean READS_INPUT;
+
+        private Footprint(int[] reads, int[] writes, boolean writesZero, boolean writesCarry, int timeResolution, boolean readsInput) {
+            READS = reads;
+            WRITES = writes;
+            WRITES_ZERO = writesZero;
+            WRITES_CARRY = writesCarry;
+            TIME_RESOLUTION = timeResolution;
+            READS_INPUT = readsInput;
+        }
+    }
+
+    /**
+     * Which flags a conditional jump reads
+     */
+    private static final class Condition {
+        private final boolean READS_ZERO;
+        private final boolean READS_CARRY;
+
+        private Condition(boolean readsZero, boolean readsCarry) {
+            READS_ZERO = readsZero;
+            READS_CARRY = readsCarry;
+        }
+    }
+
+    private static final IdentityHashMap<Instruction, Footprint> FOOTPRINTS = new IdentityHashMap<>();
+    private static final IdentityHashMap<Instruction, Condition> CONDITIONS = new IdentityHashMap<>();
+
+    static {
+        final int[] NONE = new int[0];
+        final int[] FIRST = new int[] { 0 };
+        final int[] SECOND = new int[] { 1 };
+        final int[] BOTH = new int[] { 0, 1 };
+
+        FOOTPRINTS.put(Instructions.TS  , new Footprint(NONE, FIRST, false, false, 1000, false));
+        FOOTPRINTS.put(Instructions.TMS , new Footprint(NONE, FIRST, false, false, 1, false));
+        for (Instruction instruction : new Instruction[] { Instructions.GETI, Instructions.GETC, Instructions.GETK })
+            FOOTPRINTS.put(instruction, new Footprint(NONE, FIRST, false, false, NO_TIME, true));
+
+        FOOTPRINTS.put(Instructions.DATA, new Footprint(NONE, FIRST, false, false, NO_TIME, false));
+        FOOTPRINTS.put(Instructions.MOV , new Footprint(SECOND, FIRST, false, false, NO_TIME, false));
+        FOOTPRINTS.put(Instructions.SWP , new Footprint(BOTH, BOTH, false, false, NO_TIME, false));
+        FOOTPRINTS.put(Instructions.CMP , new Footprint(BOTH, NONE, true, true, NO_TIME, false));
+
+        for (Instruction instruction : new Instruction[] { Instructions.INC, Instructions.DEC })
+            FOOTPRINTS.put(instruction, new Footprint(FIRST, FIRST, true, true, NO_TIME, false));
+        FOOTPRINTS.put(Instructions.NOT , new Footprint(FIRST, FIRST, true, false, NO_TIME, false));
+
+        // DIV and MOD aren't here because they can throw
+        for (Instruction instruction : new Instruction[] { Instructions.ADD, Instructions.SUB, Instructions.MUL })
+            FOOTPRINTS.put(instruction, new Footprint(BOTH, FIRST, true, true, NO_TIME, false));
+        for (Instruction instruction : new Instruction[] { Instructions.AND, Instructions.OR, Instructions.XOR })
+            FOOTPRINTS.put(instruction, new Footprint(BOTH, FIRST, true, false, NO_TIME, false));
+
+        Condition zero = new Condition(true, false);
+        Condition carry = new Condition(false, true);
+        Condition both = new Condition(true, true);
+        for (Instruction instruction : new Instruction[] { Instructions.JZ, Instructions.JNZ, Instructions.JE, Instructions.JNE })
+            CONDITIONS.put(instruction, zero);
+        for (Instruction instruction : new Instruction[] {
+                Instructions.JC, Instructions.JNC, Instructions.JB, Instructions.JNB, Instructions.JAE, Instructions.JNAE
+        }) CONDITIONS.put(instruction, carry);
+        for (Instruction instruction : new Instruction[] { Instructions.JBE, Instructions.JNBE, Instructions.JA, Instructions.JNA })
+            CONDITIONS.put(instruction, both);
+    }
+
+    private final int START;
+    private final int END;
+    private final DecodedInstruction[] PARTS;
+    private final boolean IS_IDLE;
+    private final int TIME_RESOLUTION;
+    private final boolean READS_INPUT;
+
+    private IdleLoop(int start, int end, @NotNull DecodedInstruction[] parts, boolean isIdle, int timeResolution, boolean readsInput) {
+        START = start;
+        END = end;
+        PARTS = parts;
+        IS_IDLE = isIdle;
+        TIME_RESOLUTION = timeResolution;
+        READS_INPUT = readsInput;
+    }
+
+    /**
+     * Checks whether the loop between the specified addresses is idle, it must start with the specified
+     * {@link DecodedInstruction} and end with a conditional jump to it. All Instructions are decoded with the
+     * specified {@link DecodeCache}, so the result is only valid until they're written (See {@link #isValid()})
+     * @param decodeCache The {@link DecodeCache} used to decode the Instructions of the loop
+     * @param memory The {@link IMemory} the Instructions are decoded from
+     * @param head The first Instruction of the loop
+     * @param end The address after the conditional jump of the loop
+     * @param lowestAddress The lowest address the Instructions can access (Registers and Flags are before it)
+     * @return The result of the check, it's returned even if the loop isn't idle
+     */
+    public static @NotNull IdleLoop analyze(@NotNull DecodeCache decodeCache, @NotNull IMemory memory, @NotNull DecodedInstruction head, int end, int lowestAddress) {
+        int start = head.getAddress();
+        ArrayList<DecodedInstruction> parts = new ArrayList<>();
+        parts.add(head);
+
+        DecodedInstruction decoded = head;
+        while (decoded.getEnd() < end && parts.size() < MAX_INSTRUCTIONS) {
+            try {
+                decoded = decodeCache.get(decoded.getEnd());
+            } catch (InstructionError err) {
+                decoded = null;
+            }
+            if (decoded == null) break;
+            parts.add(decoded);
+        }
+
+        DecodedInstruction[] partsArray = parts.toArray(new DecodedInstruction[0]);
+        if (decoded == null || decoded.getEnd() != end || end - start > MAX_WORDS)
+            return new IdleLoop(start, end, partsArray, false, NO_TIME, false);
+
+        // The loop must end with a conditional jump back to its start
+        DecodedInstruction jump = partsArray[partsArray.length - 1];
+        Condition condition = CONDITIONS.get(jump.getInstruction());
+        if (condition == null || jump.getArguments()[0] != start)
+            return new IdleLoop(start, end, partsArray, false, NO_TIME, false);
+
+        HashSet<Integer> writes = new HashSet<>();
+        for (int i = 0; i < partsArray.length - 1; i++) {
+            Footprint footprint = FOOTPRINTS.get(partsArray[i].getInstruction());
+            if (footprint == null) return new IdleLoop(start, end, partsArray, false, NO_TIME, false);
+
+            int[] args = partsArray[i].getArguments();
+            for (int arg : footprint.WRITES) writes.add(args[arg]);
+        }
+
+        // Every value read by an iteration must either be written before it's read by the same iteration
+        //  or never be written by the loop, so that iterations only depend on time and input
+        HashSet<Integer> written = new HashSet<>();
+        boolean zeroWritten = false;
+        boolean carryWritten = false;
+        int timeResolution = NO_TIME;
+        boolean readsInput = false;
+
+        for (int i = 0; i < partsArray.length - 1; i++) {
+            Footprint footprint = FOOTPRINTS.get(partsArray[i].getInstruction());
+            int[] args = partsArray[i].getArguments();
+
+            for (int arg : footprint.READS) {
+                int address = args[arg];
+                if (!isAddressAccessible(memory, address, lowestAddress, start, end) || (writes.contains(address) && !written.contains(address)))
+                    return new IdleLoop(start, end, partsArray, false, NO_TIME, false);
+            }
+
+            for (int arg : footprint.WRITES) {
+                int address = args[arg];
+                if (!isAddressAccessible(memory, address, lowestAddress, start, end))
+                    return new IdleLoop(start, end, partsArray, false, NO_TIME, false);
+                written.add(address);
+            }
+
+            zeroWritten |= footprint.WRITES_ZERO;
+            carryWritten |= footprint.WRITES_CARRY;
+            if (footprint.TIME_RESOLUTION != NO_TIME)
+                timeResolution = timeResolution == NO_TIME ? footprint.TIME_RESOLUTION : Math.min(timeResolution, footprint.TIME_RESOLUTION);
+            readsInput |= footprint.READS_INPUT;
+        }
+
+        boolean isIdle =
+                (!condition.READS_ZERO || zeroWritten) && (!condition.READS_CARRY || carryWritten) &&
+                (timeResolution != NO_TIME || readsInput);
+        return new IdleLoop(start, end, partsArray, isIdle, timeResolution, readsInput);
+    }
+
+    private static boolean isAddressAccessible(@NotNull IMemory memory, int address, int lowestAddress, int start, int end) {
+        return address >= lowestAddress && memory.isAddressValid(address) && (address < start || address >= end);
+    }
+
+    /**
+     * Returns the address of the first Instruction of the loop
+     * @return The address of the first Instruction of the loop
+     */
+    public int getStart() {
+        return START;
+    }
+
+    /**
+     * Returns the address after the conditional jump of the loop
+     * @return The address after the conditional jump of the loop
+     */
+    public int getEnd() {
+        return END;
+    }
+
+    /**
+     * Returns whether or not the loop is idle
+     * @return Whether or not the loop is idle
+     */
+    public boolean isIdle() {
+        return IS_IDLE;
+    }
+
+    /**
+     * Returns whether or not the loop reads time
+     * @return Whether or not the loop reads time
+     */
+    public boolean readsTime() {
+        return TIME_RESOLUTION != NO_TIME;
+    }
+
+    /**
+     * Returns the resolution (in ms) of the time read by the loop, its value can only change once every this many ms
+     * @return The resolution of the time read by the loop
+     */
+    public int getTimeResolution() {
+        return TIME_RESOLUTION;
+    }
+
+    /**
+     * Returns whether or not the loop reads input
+     * @return Whether or not the loop reads input
+     */
+    public boolean readsInput() {
+        return READS_INPUT;
+    }
+
+    /**
+     * Returns whether or not none of the Instructions of the loop was written since it was checked
+     * @return Whether or not this result is still valid
+     */
+    public boolean isValid() {
+        for (DecodedInstruction part : PARTS)
+            if (!part.isValid()) return false;
+        return true;
+    }
+
+}
@@ -27,4 +27,42 @@ public class Instruction {
 
     public void execute(@NotNull IProcessor p, int[] args) { }
 
+    /**
+     * Executes this {@link Instruction} without arguments, by default it calls {@link #execute(IProcessor, int[])}
+     * @param p The {@link IProcessor} to execute this {@link Instruction} on
+     */
+    public void execute(@NotNull IProcessor p) {
+        execute(p, new int[0]);
+    }
+
+    /**
+     * Executes this {@link Instruction} with one argument, by default it calls {@link #execute(IProcessor, int[])}
+     * @param p The {@link IProcessor} to execute this {@link Instruction} on
+     * @param arg0 The first argument
+     */
+    public void execute(@NotNull IProcessor p, int arg0) {
+        execute(p, new int[] { arg0 });
+    }
+
+    /**
+     * Executes this {@link Instruction} with two arguments, by default it calls {@link #execute(IProcessor, int[])}
+     * @param p The {@link IProcessor} to execute this {@link Instruction} on
+     * @param arg0 The first argument
+     * @param arg1 The second argument
+     */
+    public void execute(@NotNull IProcessor p, int arg0, int arg1) {
+        execute(p, new int[] { arg0, arg1 });
+    }
+
+    /**
+     * Executes this {@link Instruction} with three arguments, by default it calls {@link #execute(IProcessor, int[])}
+     * @param p The {@link IProcessor} to execute this {@link Instruction} on
+     * @param arg0 The first argument
+     * @param arg1 The second argument
+     * @param arg2 The third argument
+     */
+    public void execute(@NotNull IProcessor p, int arg0, int arg1, int arg2) {
+        execute(p, new int[] { arg0, arg1, arg2 });
+    }
+
 }
@@ -3,39 +3,187 @@ package io.github.hds.pemu.instructions;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
 import java.util.function.BiConsumer;
 
+/**
+ * Keeps track of the {@link Instruction} executed at each address and of how many times it was executed there.
+ * Key codes are stored instead of keywords, which are only looked up when requested
+ */
 public final class InstructionHistory {
-    private final HashMap<Integer, String> MAP = new HashMap<>();
 
-    public InstructionHistory() { }
+    // Entries are stored in pages which are only allocated when an Instruction is executed in them
+    private static final int PAGE_BITS = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private final @NotNull InstructionSet INSTRUCTIONSET;
+    private final int[][] KEY_CODES;
+    private final long[][] COUNTS;
+
+    private int entries = 0;
+
+    /**
+     * Accepts an entry of an {@link InstructionHistory}
+     */
+    public interface IRecordConsumer {
+        void accept(int address, int keyCode, long count);
+    }
+
+    public InstructionHistory(@NotNull InstructionSet instructionSet, int size) {
+        INSTRUCTIONSET = instructionSet;
+        KEY_CODES = new int[(size + PAGE_MASK) >> PAGE_BITS][];
+        COUNTS = new long[KEY_CODES.length][];
+    }
+
+    /**
+     * Records that the {@link Instruction} with the specified key code was executed at the specified address
+     * @param address The address of the executed {@link Instruction}
+     * @param keyCode The key code of the executed {@link Instruction}
+     */
+    public void record(int address, int keyCode) {
+        record(address, keyCode, 1);
+    }
+
+    /**
+     * Records that the {@link Instruction} with the specified key code was executed the specified amount of times
+     * at the specified address
+     * @param address The address of the executed {@link Instruction}
+     * @param keyCode The key code of the executed {@link Instruction}
+     * @param times How many times the {@link Instruction} was executed
+     */
+    public void record(int address, int keyCode, long times) {
+        int pageIndex = address >> PAGE_BITS;
+        int[] keyCodes = KEY_CODES[pageIndex];
+        long[] counts = COUNTS[pageIndex];
+        if (keyCodes == null) {
+            keyCodes = new int[PAGE_SIZE];
+            counts = new long[PAGE_SIZE];
+            COUNTS[pageIndex] = counts;
+            KEY_CODES[pageIndex] = keyCodes;
+        }
+
+        int index = address & PAGE_MASK;
+        if (counts[index] == 0) entries++;
+        // If another Instruction is executed at the same address we start counting again
+        else if (keyCodes[index] != keyCode) counts[index] = 0;
+
+        keyCodes[index] = keyCode;
+        counts[index] += times;
+    }
+
+    /**
+     * Returns the key code of the last {@link Instruction} executed at the specified address
+     * @param address The address to get the key code of
+     * @return The key code or -1 if no {@link Instruction} was executed there
+     */
+    public int getKeyCode(int address) {
+        int pageIndex = address >> PAGE_BITS;
+        if (pageIndex < 0 || pageIndex >= KEY_CODES.length) return -1;
+
+        int[] keyCodes = KEY_CODES[pageIndex];
+        long[] counts = COUNTS[pageIndex];
+        if (keyCodes == null || counts == null || counts[address & PAGE_MASK] == 0) return -1;
+        return keyCodes[address & PAGE_MASK];
+    }
+
+    /**
+     * Returns how many times the last {@link Instruction} at the specified address was executed
+     * @param address The address to get the count of
+     * @return How many times the {@link Instruction} at the specified address was executed
+     */
+    public long getCount(int address) {
+        int pageIndex = address >> PAGE_BITS;
+        if (pageIndex < 0 || pageIndex >= COUNTS.length) return 0;
+
+        long[] counts = COUNTS[pageIndex];
+        return counts == null ? 0 : counts[address & PAGE_MASK];
+    }
+
+    /**
+     * Sets the key code of the last {@link Instruction} executed at the specified address and how many times it was
+     * @param address The address of the executed {@link Instruction}
+     * @param keyCode The key code of the executed {@link Instruction}
+     * @param count How many times it was executed, if 0 the entry is removed
+     */
+    public void setRecord(int address, int keyCode, long count) {
+        if (count <= 0) {
+            if (containsKey(address)) remove(address);
+            return;
+        }
+
+        record(address, keyCode);
+        int pageIndex = address >> PAGE_BITS;
+        KEY_CODES[pageIndex][address & PAGE_MASK] = keyCode;
+        COUNTS[pageIndex][address & PAGE_MASK] = count;
+    }
+
+    /**
+     * Calls the specified action for each entry of this history, ordered by address
+     * @param action The action to call for each entry
+     */
+    public void forEachRecord(@NotNull IRecordConsumer action) {
+        for (int pageIndex = 0; pageIndex < KEY_CODES.length; pageIndex++) {
+            int[] keyCodes = KEY_CODES[pageIndex];
+            long[] counts = COUNTS[pageIndex];
+            if (keyCodes == null) continue;
+
+            for (int i = 0; i < PAGE_SIZE; i++)
+                if (counts[i] > 0) action.accept((pageIndex << PAGE_BITS) | i, keyCodes[i], counts[i]);
+        }
+    }
+
+    /**
+     * Returns how many addresses have an entry in this history
+     * @return How many addresses have an entry
+     */
+    public int size() {
+        return entries;
+    }
 
     public boolean isEmpty() {
-        return MAP.isEmpty();
+        return entries == 0;
     }
 
     public @Nullable String get(int key) {
-        return MAP.get(key);
+        Instruction instruction = INSTRUCTIONSET.getInstruction(getKeyCode(key));
+        return instruction == null ? null : instruction.getKeyword();
     }
 
     public boolean containsKey(int key) {
-        return MAP.containsKey(key);
+        return getCount(key) > 0;
     }
 
     public @Nullable String put(int key, @NotNull String value) {
-        return MAP.put(key, value);
+        String oldValue = get(key);
+        record(key, INSTRUCTIONSET.getKeyCode(value));
+        return oldValue;
     }
 
     public @Nullable String remove(int key) {
-        return MAP.remove(key);
+        String oldValue = get(key);
+        if (oldValue == null && !containsKey(key)) return null;
+
+        COUNTS[key >> PAGE_BITS][key & PAGE_MASK] = 0;
+        entries--;
+        return oldValue;
     }
 
     public void clear() {
-        MAP.clear();
+        for (int i = 0; i < KEY_CODES.length; i++) {
+            KEY_CODES[i] = null;
+            COUNTS[i] = null;
+        }
+        entries = 0;
     }
 
     public void forEach(@NotNull BiConsumer<? super Integer, ? super String> action) {
-        MAP.forEach(action);
+        for (int pageIndex = 0; pageIndex < KEY_CODES.length; pageIndex++) {
+            if (KEY_CODES[pageIndex] == null) continue;
+
+            for (int i = 0; i < PAGE_SIZE; i++) {
+                int address = (pageIndex << PAGE_BITS) | i;
+                if (containsKey(address)) action.accept(address, get(address));
+            }
+        }
     }
 }
@@ -1,20 +1,31 @@
 package io.github.hds.pemu.instructions;
 
 import io.github.hds.pemu.console.Console;
+import io.github.hds.pemu.console.IConsole;
 import io.github.hds.pemu.localization.TranslationManager;
 import io.github.hds.pemu.memory.*;
+import io.github.hds.pemu.memory.flags.FlagHandle;
 import io.github.hds.pemu.memory.flags.IFlag;
 import io.github.hds.pemu.memory.registers.IRegister;
+import io.github.hds.pemu.memory.registers.RegisterHandle;
 import io.github.hds.pemu.processor.IProcessor;
+import io.github.hds.pemu.processor.InterruptController;
+import io.github.hds.pemu.processor.KeyEventQueue;
 import io.github.hds.pemu.utils.IClearable;
 import io.github.hds.pemu.utils.MathUtils;
 import org.jetbrains.annotations.NotNull;
 
 public final class Instructions {
 
+    private static final RegisterHandle INSTRUCTION_POINTER = RegisterHandle.getHandle("IP");
+    private static final RegisterHandle STACK_POINTER = RegisterHandle.getHandle("SP");
+    private static final FlagHandle ZERO_FLAG = FlagHandle.getHandle("ZF");
+    private static final FlagHandle CARRY_FLAG = FlagHandle.getHandle("CF");
+    private static final FlagHandle INTERRUPT_FLAG = FlagHandle.getHandle("IF");
+
     private static void updateMathFlags(@NotNull IProcessor p, int value, boolean zero, boolean carry) {
-        IFlag ZF = p.getFlag("ZF");
-        IFlag CF = p.getFlag("CF");
+        IFlag ZF = p.getFlag(ZERO_FLAG);
+        IFlag CF = p.getFlag(CARRY_FLAG);
         if (ZF == null) throw new NullPointerException("Zero Flag isn't present on the Processor.");
         if (CF == null) throw new NullPointerException("Carry Flag isn't present on the Processor.");
 
@@ -22,11 +33,43 @@ public final class Instructions {
         if (carry) CF.setValue((value & ~p.getMemory().getWord().BIT_MASK) != 0);
     }
 
+    private static @NotNull InterruptController getInterruptController(@NotNull IProcessor p) {
+        InterruptController interrupts = p.getInterruptController();
+        if (interrupts == null) throw new NullPointerException("Interrupt Controller isn't present on the Processor.");
+        return interrupts;
+    }
+
+    private static void setInterruptFlag(@NotNull IProcessor p, boolean value) {
+        IFlag IF = p.getFlag(INTERRUPT_FLAG);
+        if (IF == null) throw new NullPointerException("Interrupt Flag isn't present on the Processor.");
+        IF.setValue(value);
+    }
+
+    // Waits for a key event and puts its keycode (or char) into dst, if none was queued before the timeout 0 is put instead.
+    //  If the Processor stopped waiting early (e.g. it was paused or an interrupt must be handled)
+    //  then the Instruction is executed again when the Processor is resumed or the handler returns
+    private static void waitKeyEvent(@NotNull IProcessor p, @NotNull Instruction instruction, int dst, int timeoutAddress, boolean getChar) {
+        IMemory memory = p.getMemory();
+        KeyEventQueue.Event event = p.waitKeyEvent(memory.getValueAt(timeoutAddress));
+        if (event == null) {
+            repeatInstruction(p, instruction);
+            return;
+        }
+
+        memory.setValueAt(dst, getChar ? event.getChar() : event.getKey());
+    }
+
+    private static void repeatInstruction(@NotNull IProcessor p, @NotNull Instruction instruction) {
+        IRegister IP = p.getRegister(INSTRUCTION_POINTER);
+        if (IP == null) throw new NullPointerException("Instruction Pointer Register isn't present on the Processor.");
+        IP.setValue(IP.getValue() - instruction.getWords());
+    }
+
     public static final Instruction NULL = new Instruction("NULL", 0);
 
-    public static final Instruction BRK = new Instruction("BRK", 0) {
+    public static final Instruction BRK = new FixedArityInstruction("BRK", 0) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
+        public void execute(@NotNull IProcessor p) {
             if (!p.isPaused()) {
                 p.pause();
                 Console.Debug.println(
@@ -37,38 +80,37 @@ public final class Instructions {
         }
     };
 
-    public static final Instruction DATA = new Instruction("DATA", 2) {
+    public static final Instruction DATA = new FixedArityInstruction("DATA", 2) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
-            p.getMemory().setValueAt(args[0], args[1]);
+        public void execute(@NotNull IProcessor p, int arg0, int arg1) {
+            p.getMemory().setValueAt(arg0, arg1);
         }
     };
 
-    public static final Instruction MOV = new Instruction("MOV", 2) {
+    public static final Instruction MOV = new FixedArityInstruction("MOV", 2) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
+        public void execute(@NotNull IProcessor p, int arg0, int arg1) {
             IMemory memory = p.getMemory();
-            memory.setValueAt(args[0], memory.getValueAt(args[1]));
+            memory.setValueAt(arg0, memory.getValueAt(arg1));
         }
     };
 
-    public static final Instruction SWP = new Instruction("SWP", 2) {
+    public static final Instruction SWP = new FixedArityInstruction("SWP", 2) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
+        public void execute(@NotNull IProcessor p, int arg0, int arg1) {
             IMemory memory = p.getMemory();
-            memory.setValueAt(args[0], memory.setValueAt(args[1], memory.getValueAt(args[0])));
+            memory.setValueAt(arg0, memory.setValueAt(arg1, memory.getValueAt(arg0)));
         }
     };
 
-    public static final Instruction XMOV = new Instruction("XMOV", 3) {
+    public static final Instruction XMOV = new FixedArityInstruction("XMOV", 3) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
+        public void execute(@NotNull IProcessor p, int arg0, int arg1, int arg2) {
             IMemory memory = p.getMemory();
 
-            boolean[] options = MathUtils.getBits(args[2], new boolean[3]);
-            int firstAddress  = options[0] ? memory.getValueAt(args[0]) : args[0];
-            int secondAddress = options[1] ? memory.getValueAt(args[1]) : args[1];
-            boolean doSwap = options[2];
+            int firstAddress  = MathUtils.getBit(arg2, 0) ? memory.getValueAt(arg0) : arg0;
+            int secondAddress = MathUtils.getBit(arg2, 1) ? memory.getValueAt(arg1) : arg1;
+            boolean doSwap = MathUtils.getBit(arg2, 2);
 
             if (doSwap)
                 memory.setValueAt(firstAddress, memory.setValueAt(secondAddress, memory.getValueAt(firstAddress)));
@@ -76,375 +118,478 @@ public final class Instructions {
         }
     };
 
-    public static final Instruction OUTI = new Instruction("OUTI", 1) {
+    public static final Instruction OUTI = new FixedArityInstruction("OUTI", 1) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
-            Console.ProgramOutput.print(p.getMemory().getValueAt(args[0]));
+        public void execute(@NotNull IProcessor p, int arg0) {
+            p.getProgramOutput().print(p.getMemory().getValueAt(arg0));
         }
     };
 
-    public static final Instruction OUTC = new Instruction("OUTC", 1) {
+    public static final Instruction OUTC = new FixedArityInstruction("OUTC", 1) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
+        public void execute(@NotNull IProcessor p, int arg0) {
             IMemory memory = p.getMemory();
-            char character = (char) memory.getValueAt(args[0]);
-            if (character == '\0' && Console.ProgramOutput instanceof IClearable)
-                ((IClearable) Console.ProgramOutput).clear();
-            else Console.ProgramOutput.print((char) memory.getValueAt(args[0]));
+            IConsole output = p.getProgramOutput();
+            char character = (char) memory.getValueAt(arg0);
+            if (character == '\0' && output instanceof IClearable)
+                ((IClearable) output).clear();
+            else output.print((char) memory.getValueAt(arg0));
         }
     };
 
-    public static final Instruction GETI = new Instruction("GETI", 1) {
+    public static final Instruction GETI = new FixedArityInstruction("GETI", 1) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
-            p.getMemory().setValueAt(args[0], Math.max(Character.getNumericValue(p.getKeyPressed()), 0));
+        public void execute(@NotNull IProcessor p, int arg0) {
+            KeyEventQueue.Event event = p.readKeyEvent(this);
+            int key = event == null ? p.getKeyPressed() : event.getKey();
+            p.getMemory().setValueAt(arg0, Math.max(Character.getNumericValue(key), 0));
         }
     };
 
-    public static final Instruction GETC = new Instruction("GETC", 1) {
+    public static final Instruction GETC = new FixedArityInstruction("GETC", 1) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
-            p.getMemory().setValueAt(args[0], p.getCharPressed());
+        public void execute(@NotNull IProcessor p, int arg0) {
+            KeyEventQueue.Event event = p.readKeyEvent(this);
+            p.getMemory().setValueAt(arg0, event == null ? p.getCharPressed() : event.getChar());
         }
     };
 
-    public static final Instruction GETK = new Instruction("GETK", 1) {
+    public static final Instruction GETK = new FixedArityInstruction("GETK", 1) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
-            p.getMemory().setValueAt(args[0], p.getKeyPressed());
+        public void execute(@NotNull IProcessor p, int arg0) {
+            KeyEventQueue.Event event = p.readKeyEvent(this);
+            p.getMemory().setValueAt(arg0, event == null ? p.getKeyPressed() : event.getKey());
         }
     };
 
-    public static final Instruction TS = new Instruction("TS", 1) {
+    public static final Instruction TS = new FixedArityInstruction("TS", 1) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
+        public void execute(@NotNull IProcessor p, int arg0) {
             long timeElapsed = p.getTimeRunning();
-            p.getMemory().setValueAt(args[0], (int) (timeElapsed / 1000));
+            p.getMemory().setValueAt(arg0, (int) (timeElapsed / 1000));
         }
     };
 
-    public static final Instruction TMS = new Instruction("TMS", 1) {
+    public static final Instruction TMS = new FixedArityInstruction("TMS", 1) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
+        public void execute(@NotNull IProcessor p, int arg0) {
             long timeElapsed = p.getTimeRunning();
-            p.getMemory().setValueAt(args[0], (int) timeElapsed);
+            p.getMemory().setValueAt(arg0, (int) timeElapsed);
         }
     };
 
-    public static final Instruction INC = new Instruction("INC", 1) {
+    public static final Instruction INC = new FixedArityInstruction("INC", 1) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
+        public void execute(@NotNull IProcessor p, int arg0) {
             IMemory memory = p.getMemory();
-            int result = memory.getValueAt(args[0]) + 1;
-            memory.setValueAt(args[0], result);
+            int result = memory.getValueAt(arg0) + 1;
+            memory.setValueAt(arg0, result);
             updateMathFlags(p, result, true, true);
         }
     };
 
-    public static final Instruction DEC = new Instruction("DEC", 1) {
+    public static final Instruction DEC = new FixedArityInstruction("DEC", 1) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
+        public void execute(@NotNull IProcessor p, int arg0) {
             IMemory memory = p.getMemory();
-            int result = memory.getValueAt(args[0]) - 1;
-            memory.setValueAt(args[0], result);
+            int result = memory.getValueAt(arg0) - 1;
+            memory.setValueAt(arg0, result);
             updateMathFlags(p, result, true, true);
         }
     };
 
-    public static final Instruction ADD = new Instruction("ADD", 2) {
+    public static final Instruction ADD = new FixedArityInstruction("ADD", 2) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
+        public void execute(@NotNull IProcessor p, int arg0, int arg1) {
             IMemory memory = p.getMemory();
-            int result = memory.getValueAt(args[0]) + memory.getValueAt(args[1]);
-            memory.setValueAt(args[0], result);
+            int result = memory.getValueAt(arg0) + memory.getValueAt(arg1);
+            memory.setValueAt(arg0, result);
             updateMathFlags(p, result, true, true);
         }
     };
 
-    public static final Instruction SUB = new Instruction("SUB", 2) {
+    public static final Instruction SUB = new FixedArityInstruction("SUB", 2) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
+        public void execute(@NotNull IProcessor p, int arg0, int arg1) {
             IMemory memory = p.getMemory();
-            int result = memory.getValueAt(args[0]) - memory.getValueAt(args[1]);
-            memory.setValueAt(args[0], result);
+            int result = memory.getValueAt(arg0) - memory.getValueAt(arg1);
+            memory.setValueAt(arg0, result);
             updateMathFlags(p, result, true, true);
         }
     };
 
-    public static final Instruction MUL = new Instruction("MUL", 2) {
+    public static final Instruction MUL = new FixedArityInstruction("MUL", 2) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
+        public void execute(@NotNull IProcessor p, int arg0, int arg1) {
             IMemory memory = p.getMemory();
-            int result = memory.getValueAt(args[0]) * memory.getValueAt(args[1]);
-            memory.setValueAt(args[0], result);
+            int result = memory.getValueAt(arg0) * memory.getValueAt(arg1);
+            memory.setValueAt(arg0, result);
             updateMathFlags(p, result, true, true);
         }
     };
 
-    public static final Instruction DIV = new Instruction("DIV", 2) {
+    public static final Instruction DIV = new FixedArityInstruction("DIV", 2) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
+        public void execute(@NotNull IProcessor p, int arg0, int arg1) {
             IMemory memory = p.getMemory();
-            int result = memory.getValueAt(args[0]) / memory.getValueAt(args[1]);
-            memory.setValueAt(args[0], result);
+            int result = memory.getValueAt(arg0) / memory.getValueAt(arg1);
+            memory.setValueAt(arg0, result);
             updateMathFlags(p, result, true, true);
         }
     };
 
-    public static final Instruction MOD = new Instruction("MOD", 2) {
+    public static final Instruction MOD = new FixedArityInstruction("MOD", 2) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
+        public void execute(@NotNull IProcessor p, int arg0, int arg1) {
             IMemory memory = p.getMemory();
-            int result = memory.getValueAt(args[0]) % memory.getValueAt(args[1]);
-            memory.setValueAt(args[0], result);
+            int result = memory.getValueAt(arg0) % memory.getValueAt(arg1);
+            memory.setValueAt(arg0, result);
             updateMathFlags(p, result, true, true);
         }
     };
 
-    public static final Instruction AND = new Instruction("AND", 2) {
+    public static final Instruction AND = new FixedArityInstruction("AND", 2) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
+        public void execute(@NotNull IProcessor p, int arg0, int arg1) {
             IMemory memory = p.getMemory();
-            int res = memory.getValueAt(args[0]) & memory.getValueAt(args[1]);
-            memory.setValueAt(args[0], res);
+            int res = memory.getValueAt(arg0) & memory.getValueAt(arg1);
+            memory.setValueAt(arg0, res);
             updateMathFlags(p, res, true, false);
         }
     };
 
-    public static final Instruction OR = new Instruction("OR", 2) {
+    public static final Instruction OR = new FixedArityInstruction("OR", 2) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
+        public void execute(@NotNull IProcessor p, int arg0, int arg1) {
             IMemory memory = p.getMemory();
-            int res = memory.getValueAt(args[0]) | memory.getValueAt(args[1]);
-            memory.setValueAt(args[0], res);
+            int res = memory.getValueAt(arg0) | memory.getValueAt(arg1);
+            memory.setValueAt(arg0, res);
             updateMathFlags(p, res, true, false);
         }
     };
 
-    public static final Instruction NOT = new Instruction("NOT", 1) {
+    public static final Instruction NOT = new FixedArityInstruction("NOT", 1) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
+        public void execute(@NotNull IProcessor p, int arg0) {
             IMemory memory = p.getMemory();
-            int res = ~memory.getValueAt(args[0]);
-            memory.setValueAt(args[0], res);
+            int res = ~memory.getValueAt(arg0);
+            memory.setValueAt(arg0, res);
             updateMathFlags(p, res, true, false);
         }
     };
 
-    public static final Instruction XOR = new Instruction("XOR", 2) {
+    public static final Instruction XOR = new FixedArityInstruction("XOR", 2) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
+        public void execute(@NotNull IProcessor p, int arg0, int arg1) {
             IMemory memory = p.getMemory();
-            int res = memory.getValueAt(args[0]) ^ memory.getValueAt(args[1]);
-            memory.setValueAt(args[0], res);
+            int res = memory.getValueAt(arg0) ^ memory.getValueAt(arg1);
+            memory.setValueAt(arg0, res);
             updateMathFlags(p, res, true, false);
         }
     };
 
-    public static final Instruction CMP = new Instruction("CMP", 2) {
+    public static final Instruction CMP = new FixedArityInstruction("CMP", 2) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
+        public void execute(@NotNull IProcessor p, int arg0, int arg1) {
             IMemory memory = p.getMemory();
-            IFlag ZF = p.getFlag("ZF");
-            IFlag CF = p.getFlag("CF");
+            IFlag ZF = p.getFlag(ZERO_FLAG);
+            IFlag CF = p.getFlag(CARRY_FLAG);
             if (ZF == null) throw new NullPointerException("Zero Flag isn't present on the Processor.");
             if (CF == null) throw new NullPointerException("Carry Flag isn't present on the Processor.");
 
-            ZF.setValue(memory.getValueAt(args[0]) == memory.getValueAt(args[1]));
-            CF.setValue(memory.getValueAt(args[0]) <  memory.getValueAt(args[1]));
+            ZF.setValue(memory.getValueAt(arg0) == memory.getValueAt(arg1));
+            CF.setValue(memory.getValueAt(arg0) <  memory.getValueAt(arg1));
         }
     };
 
-    public static final Instruction JMP = new Instruction("JMP", 1) {
+    public static final Instruction JMP = new FixedArityInstruction("JMP", 1) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
-            IRegister IP = p.getRegister("IP");
+        public void execute(@NotNull IProcessor p, int arg0) {
+            IRegister IP = p.getRegister(INSTRUCTION_POINTER);
             if (IP == null) throw new NullPointerException("Instruction Pointer Register isn't present on the Processor.");
-            IP.setValue(args[0]);
+            IP.setValue(arg0);
         }
     };
 
-    public static final Instruction JC = new Instruction("JC", 1) {
+    public static final Instruction JC = new FixedArityInstruction("JC", 1) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
-            IFlag CF = p.getFlag("CF");
+        public void execute(@NotNull IProcessor p, int arg0) {
+            IFlag CF = p.getFlag(CARRY_FLAG);
             if (CF == null) throw new NullPointerException("Carry Flag isn't present on the Processor.");
-            if (CF.getValue()) JMP.execute(p, args);
+            if (CF.getValue()) JMP.execute(p, arg0);
         }
     };
 
-    public static final Instruction JNC = new Instruction("JNC", 1) {
+    public static final Instruction JNC = new FixedArityInstruction("JNC", 1) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
-            IFlag CF = p.getFlag("CF");
+        public void execute(@NotNull IProcessor p, int arg0) {
+            IFlag CF = p.getFlag(CARRY_FLAG);
             if (CF == null) throw new NullPointerException("Carry Flag isn't present on the Processor.");
-            if (!CF.getValue()) JMP.execute(p, args);
+            if (!CF.getValue()) JMP.execute(p, arg0);
         }
     };
 
-    public static final Instruction JZ = new Instruction("JZ", 1) {
+    public static final Instruction JZ = new FixedArityInstruction("JZ", 1) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
-            IFlag ZF = p.getFlag("ZF");
+        public void execute(@NotNull IProcessor p, int arg0) {
+            IFlag ZF = p.getFlag(ZERO_FLAG);
             if (ZF == null) throw new NullPointerException("Zero Flag isn't present on the Processor.");
-            if (ZF.getValue()) JMP.execute(p, args);
+            if (ZF.getValue()) JMP.execute(p, arg0);
         }
     };
 
-    public static final Instruction JNZ = new Instruction("JNZ", 1) {
+    public static final Instruction JNZ = new FixedArityInstruction("JNZ", 1) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
-            IFlag ZF = p.getFlag("ZF");
+        public void execute(@NotNull IProcessor p, int arg0) {
+            IFlag ZF = p.getFlag(ZERO_FLAG);
             if (ZF == null) throw new NullPointerException("Zero Flag isn't present on the Processor.");
-            if (!ZF.getValue()) JMP.execute(p, args);
+            if (!ZF.getValue()) JMP.execute(p, arg0);
         }
     };
 
-    public static final Instruction JE = new Instruction("JE", 1) {
+    public static final Instruction JE = new FixedArityInstruction("JE", 1) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
-            JZ.execute(p, args);
+        public void execute(@NotNull IProcessor p, int arg0) {
+            JZ.execute(p, arg0);
         }
     };
 
-    public static final Instruction JNE = new Instruction("JNE", 1) {
+    public static final Instruction JNE = new FixedArityInstruction("JNE", 1) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
-            JNZ.execute(p, args);
+        public void execute(@NotNull IProcessor p, int arg0) {
+            JNZ.execute(p, arg0);
         }
     };
 
-    public static final Instruction JB = new Instruction("JB", 1) {
+    public static final Instruction JB = new FixedArityInstruction("JB", 1) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
-            JC.execute(p, args);
+        public void execute(@NotNull IProcessor p, int arg0) {
+            JC.execute(p, arg0);
         }
     };
 
-    public static final Instruction JNB = new Instruction("JNB", 1) {
+    public static final Instruction JNB = new FixedArityInstruction("JNB", 1) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
-            JNC.execute(p, args);
+        public void execute(@NotNull IProcessor p, int arg0) {
+            JNC.execute(p, arg0);
         }
     };
 
-    public static final Instruction JBE = new Instruction("JBE", 1) {
+    public static final Instruction JBE = new FixedArityInstruction("JBE", 1) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
-            IFlag ZF = p.getFlag("ZF");
-            IFlag CF = p.getFlag("CF");
+        public void execute(@NotNull IProcessor p, int arg0) {
+            IFlag ZF = p.getFlag(ZERO_FLAG);
+            IFlag CF = p.getFlag(CARRY_FLAG);
             if (ZF == null) throw new NullPointerException("Zero Flag isn't present on the Processor.");
             if (CF == null) throw new NullPointerException("Carry Flag isn't present on the Processor.");
-            if (ZF.getValue() || CF.getValue()) JMP.execute(p, args);
+            if (ZF.getValue() || CF.getValue()) JMP.execute(p, arg0);
         }
     };
 
-    public static final Instruction JNBE = new Instruction("JNBE", 1) {
+    public static final Instruction JNBE = new FixedArityInstruction("JNBE", 1) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
-            IFlag ZF = p.getFlag("ZF");
-            IFlag CF = p.getFlag("CF");
+        public void execute(@NotNull IProcessor p, int arg0) {
+            IFlag ZF = p.getFlag(ZERO_FLAG);
+            IFlag CF = p.getFlag(CARRY_FLAG);
             if (ZF == null) throw new NullPointerException("Zero Flag isn't present on the Processor.");
             if (CF == null) throw new NullPointerException("Carry Flag isn't present on the Processor.");
-            if (!(ZF.getValue() || CF.getValue())) JMP.execute(p, args);
+            if (!(ZF.getValue() || CF.getValue())) JMP.execute(p, arg0);
         }
     };
 
-    public static final Instruction JA = new Instruction("JA", 1) {
+    public static final Instruction JA = new FixedArityInstruction("JA", 1) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
-            JNBE.execute(p, args);
+        public void execute(@NotNull IProcessor p, int arg0) {
+            JNBE.execute(p, arg0);
         }
     };
 
-    public static final Instruction JNA = new Instruction("JNA", 1) {
+    public static final Instruction JNA = new FixedArityInstruction("JNA", 1) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
-            JBE.execute(p, args);
+        public void execute(@NotNull IProcessor p, int arg0) {
+            JBE.execute(p, arg0);
         }
     };
 
-    public static final Instruction JAE = new Instruction("JAE", 1) {
+    public static final Instruction JAE = new FixedArityInstruction("JAE", 1) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
-            JNC.execute(p, args);
+        public void execute(@NotNull IProcessor p, int arg0) {
+            JNC.execute(p, arg0);
         }
     };
 
-    public static final Instruction JNAE = new Instruction("JNAE", 1) {
+    public static final Instruction JNAE = new FixedArityInstruction("JNAE", 1) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
-            JC.execute(p, args);
+        public void execute(@NotNull IProcessor p, int arg0) {
+            JC.execute(p, arg0);
         }
     };
 
-    public static final Instruction CALL = new Instruction("CALL", 1) {
+    public static final Instruction CALL = new FixedArityInstruction("CALL", 1) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
-            IRegister SP = p.getRegister("SP");
-            IRegister IP = p.getRegister("IP");
+        public void execute(@NotNull IProcessor p, int arg0) {
+            IRegister SP = p.getRegister(STACK_POINTER);
+            IRegister IP = p.getRegister(INSTRUCTION_POINTER);
             if (SP == null) throw new NullPointerException("Stack Pointer Register isn't present on the Processor.");
             if (IP == null) throw new NullPointerException("Instruction Pointer Register isn't present on the Processor.");
 
             p.getMemory().setValueAt(
                     SP.setValue(SP.getValue() - 1), IP.getValue()
             );
-            JMP.execute(p, args);
+            JMP.execute(p, arg0);
         }
     };
 
-    public static final Instruction RET = new Instruction("RET", 0) {
+    public static final Instruction RET = new FixedArityInstruction("RET", 0) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
-            IRegister SP = p.getRegister("SP");
+        public void execute(@NotNull IProcessor p) {
+            IRegister SP = p.getRegister(STACK_POINTER);
             if (SP == null) throw new NullPointerException("Stack Pointer Register isn't present on the Processor.");
 
             SP.setValue(SP.getValue() + 1);
-            JMP.execute(p, new int[] { p.getMemory().getValueAt(SP.getValue()) });
+            JMP.execute(p, p.getMemory().getValueAt(SP.getValue()));
         }
     };
 
-    public static final Instruction PUSH = new Instruction("PUSH", 1) {
+    public static final Instruction PUSH = new FixedArityInstruction("PUSH", 1) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
-            IRegister SP = p.getRegister("SP");
+        public void execute(@NotNull IProcessor p, int arg0) {
+            IRegister SP = p.getRegister(STACK_POINTER);
             if (SP == null) throw new NullPointerException("Stack Pointer Register isn't present on the Processor.");
 
             IMemory memory = p.getMemory();
-            memory.setValueAt(SP.setValue(SP.getValue() - 1), memory.getValueAt(args[0]));
+            memory.setValueAt(SP.setValue(SP.getValue() - 1), memory.getValueAt(arg0));
         }
     };
 
-    public static final Instruction POP = new Instruction("POP", 1) {
+    public static final Instruction POP = new FixedArityInstruction("POP", 1) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
-            IRegister SP = p.getRegister("SP");
+        public void execute(@NotNull IProcessor p, int arg0) {
+            IRegister SP = p.getRegister(STACK_POINTER);
             if (SP == null) throw new NullPointerException("Stack Pointer Register isn't present on the Processor.");
 
             IMemory memory = p.getMemory();
             SP.setValue(SP.getValue() + 1);
-            memory.setValueAt(args[0], memory.getValueAt(SP.getValue()));
+            memory.setValueAt(arg0, memory.getValueAt(SP.getValue()));
         }
     };
 
-    public static final Instruction LOOP = new Instruction("LOOP", 2) {
+    public static final Instruction LOOP = new FixedArityInstruction("LOOP", 2) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
+        public void execute(@NotNull IProcessor p, int arg0, int arg1) {
             IMemory memory = p.getMemory();
-            int counter = memory.getValueAt(args[1]);
-            memory.setValueAt(args[1], --counter);
+            int counter = memory.getValueAt(arg1);
+            memory.setValueAt(arg1, --counter);
 
-            if (counter != 0) JMP.execute(p, new int[] { args[0] });
+            if (counter != 0) JMP.execute(p, arg0);
         }
     };
 
-    public static final Instruction HLT = new Instruction("HLT", 0) {
+    public static final Instruction HLT = new FixedArityInstruction("HLT", 0) {
         @Override
-        public void execute(@NotNull IProcessor p, int[] args) {
+        public void execute(@NotNull IProcessor p) {
             p.stop();
         }
     };
 
+    public static final Instruction WAIT = new FixedArityInstruction("WAIT", 2) {
+        @Override
+        public void execute(@NotNull IProcessor p, int arg0, int arg1) {
+            waitKeyEvent(p, this, arg0, arg1, false);
+        }
+    };
+
+    public static final Instruction WAITC = new FixedArityInstruction("WAITC", 2) {
+        @Override
+        public void execute(@NotNull IProcessor p, int arg0, int arg1) {
+            waitKeyEvent(p, this, arg0, arg1, true);
+        }
+    };
+
+    public static final Instruction EI = new FixedArityInstruction("EI", 0) {
+        @Override
+        public void execute(@NotNull IProcessor p) {
+            setInterruptFlag(p, true);
+        }
+    };
+
+    public static final Instruction DI = new FixedArityInstruction("DI", 0) {
+        @Override
+        public void execute(@NotNull IProcessor p) {
+            setInterruptFlag(p, false);
+        }
+    };
+
+    public static final Instruction IRET = new FixedArityInstruction("IRET", 0) {
+        @Override
+        public void execute(@NotNull IProcessor p) {
+            InterruptController.leave(p);
+        }
+    };
+
+    public static final Instruction WFI = new FixedArityInstruction("WFI", 0) {
+        @Override
+        public void execute(@NotNull IProcessor p) {
+            if (!p.waitInterrupt()) repeatInstruction(p, this);
+        }
+    };
+
+    public static final Instruction IVEC = new FixedArityInstruction("IVEC", 2) {
+        @Override
+        public void execute(@NotNull IProcessor p, int arg0, int arg1) {
+            p.getMemory().setValueAt(getInterruptController(p).getVectorAddress(arg0), arg1);
+        }
+    };
+
+    public static final Instruction TMR = new FixedArityInstruction("TMR", 1) {
+        @Override
+        public void execute(@NotNull IProcessor p, int arg0) {
+            getInterruptController(p).setTimerPeriod(p.getMemory().getValueAt(arg0), p.getTimeRunning());
+        }
+    };
+
+    public static final Instruction CID = new FixedArityInstruction("CID", 1) {
+        @Override
+        public void execute(@NotNull IProcessor p, int arg0) {
+            p.getMemory().setValueAt(arg0, p.getCoreId());
+        }
+    };
+
+    public static final Instruction CORES = new FixedArityInstruction("CORES", 1) {
+        @Override
+        public void execute(@NotNull IProcessor p, int arg0) {
+            p.getMemory().setValueAt(arg0, p.getCoreCount());
+        }
+    };
+
+    // If the value at arg0 is the one at arg1 then it's atomically replaced with the one at arg2 and ZF is set,
+    //  otherwise the value at arg0 is put into arg1 and ZF is cleared
+    public static final Instruction CAS = new FixedArityInstruction("CAS", 3) {
+        @Override
+        public void execute(@NotNull IProcessor p, int arg0, int arg1, int arg2) {
+            IMemory memory = p.getMemory();
+            IFlag ZF = p.getFlag(ZERO_FLAG);
+            if (ZF == null) throw new NullPointerException("Zero Flag isn't present on the Processor.");
+
+            int expected = memory.getValueAt(arg1);
+            boolean swapped = memory.compareAndSetValueAt(arg0, expected, memory.getValueAt(arg2));
+            if (!swapped) memory.setValueAt(arg1, memory.getValueAt(arg0));
+            ZF.setValue(swapped);
+        }
+    };
+
+    // Atomically adds the value at arg1 to the one at arg0 and puts the old value at arg0 into arg1
+    public static final Instruction XADD = new FixedArityInstruction("XADD", 2) {
+        @Override
+        public void execute(@NotNull IProcessor p, int arg0, int arg1) {
+            IMemory memory = p.getMemory();
+            int delta = memory.getValueAt(arg1);
+            int oldValue = memory.getAndAddValueAt(arg0, delta);
+            memory.setValueAt(arg1, oldValue);
+            updateMathFlags(p, oldValue + delta, true, true);
+        }
+    };
+
     public static final InstructionSet SET = new InstructionSet(
             new Instruction[] {
                     NULL, BRK , DATA, MOV , SWP , XMOV, OUTI, OUTC,
@@ -452,7 +597,9 @@ public final class Instructions {
                     SUB , MUL , DIV , MOD , AND , OR  , NOT , XOR ,
                     CMP , JMP , JC  , JNC , JZ  , JNZ , JE  , JNE ,
                     JB  , JNB , JBE , JNBE, JA  , JNA , JAE , JNAE,
-                    CALL, RET , PUSH, POP , LOOP, HLT
+                    CALL, RET , PUSH, POP , LOOP, HLT , WAIT, WAITC,
+                    EI  , DI  , IRET, WFI , IVEC, TMR , CID , CORES,
+                    CAS , XADD
             }
     );
 
@@ -0,0 +1,19 @@
+package io.github.hds.pemu.jit;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The ClassLoader used to define the class generated for a block by the {@link BlockCompiler},
+ * each block has its own so that its class is unloaded when the block is thrown away
+ */
+final class BlockClassLoader extends ClassLoader {
+
+    protected BlockClassLoader() {
+        super(BlockCode.class.getClassLoader());
+    }
+
+    protected @NotNull Class<?> define(@NotNull String name, byte[] bytes) {
+        return defineClass(name, bytes, 0, bytes.length);
+    }
+
+}
@@ -0,0 +1,18 @@
+package io.github.hds.pemu.jit;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The base class of all classes generated by the {@link BlockCompiler},
+ * it must be public because they're defined by another ClassLoader
+ */
+public abstract class BlockCode {
+
+    /**
+     * Executes all Instructions of the block one after the other, reading and writing the array directly
+     * @param memory The array that stores the values of the Memory (See {@link io.github.hds.pemu.memory.Memory#getBackingArray()})
+     * @return The address of the next Instruction to execute
+     */
+    public abstract int run(@NotNull Object memory);
+
+}
@@ -0,0 +1,494 @@
+package io.github.hds.pemu.jit;
+
+import io.github.hds.pemu.instructions.*;
+import io.github.hds.pemu.memory.IMemoryListener;
+import io.github.hds.pemu.memory.Memory;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+
+/**
+ * Counts how many times the Processor reaches each address and compiles the block of Instructions
+ * starting there to JVM bytecode once it gets hot. Only built-in Instructions whose memory accesses
+ * are known from their arguments are compiled, a block ends at the first jump or at an Instruction which
+ * can't be compiled. The generated code reads and writes the backing array of the {@link Memory} directly
+ * and computes Flags without branches, so only Memories stored in an array can be compiled.
+ * It must be notified of Memory writes, so that blocks whose words are written are thrown away
+ */
+public final class BlockCompiler implements IMemoryListener {
+
+    // How many times an address must be reached before compiling the block that starts there
+    public static final int COMPILE_THRESHOLD = 64;
+    public static final int MIN_BLOCK_INSTRUCTIONS = 2;
+    public static final int MAX_BLOCK_INSTRUCTIONS = 64;
+    // How many words a block can span, a write only needs to look this far back for the blocks it modifies
+    public static final int MAX_BLOCK_WORDS = 256;
+    // How many more times an address must be reached after its block couldn't be compiled or was thrown away
+    //  before compiling it again, so that blocks which keep being modified don't keep generating classes
+    public static final int RETRY_THRESHOLD = 4096;
+
+    private static final int PAGE_BITS = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private static final String BLOCK_CODE = "io/github/hds/pemu/jit/BlockCode";
+
+    // The bits of the Zero and Carry Flags in the Flags' word
+    private static final int ZERO_FLAG_BIT = 0;
+    private static final int CARRY_FLAG_BIT = 1;
+
+    // The locals of the generated method
+    private static final int LOCAL_ARRAY = 2;
+    private static final int LOCAL_FLAGS = 3;
+    private static final int LOCAL_FIRST = 4;
+    private static final int LOCAL_SECOND = 5;
+    private static final int LOCALS = 6;
+
+    /**
+     * Which arguments of an {@link Instruction} are addresses that it reads or writes
+     */
+    private static final class Footprint {
+        private final int[] READS;
+        private final int[] WRITES;
+        private final boolean ENDS_BLOCK;
+
+        private Footprint(int[] reads, int[] writes, boolean endsBlock) {
+            READS = reads;
+            WRITES = writes;
+            ENDS_BLOCK = endsBlock;
+        }
+    }
+
+    private static final IdentityHashMap<Instruction, Footprint> FOOTPRINTS = new IdentityHashMap<>();
+
+    static {
+        final int[] NONE = new int[0];
+        final int[] FIRST = new int[] { 0 };
+        final int[] SECOND = new int[] { 1 };
+        final int[] BOTH = new int[] { 0, 1 };
+
+        FOOTPRINTS.put(Instructions.DATA, new Footprint(NONE, FIRST, false));
+        FOOTPRINTS.put(Instructions.MOV , new Footprint(SECOND, FIRST, false));
+        FOOTPRINTS.put(Instructions.SWP , new Footprint(BOTH, BOTH, false));
+        FOOTPRINTS.put(Instructions.CMP , new Footprint(BOTH, NONE, false));
+
+        for (Instruction instruction : new Instruction[] { Instructions.INC, Instructions.DEC, Instructions.NOT })
+            FOOTPRINTS.put(instruction, new Footprint(FIRST, FIRST, false));
+
+        // DIV and MOD aren't here because they can throw
+        for (Instruction instruction : new Instruction[] {
+                Instructions.ADD, Instructions.SUB, Instructions.MUL,
+                Instructions.AND, Instructions.OR , Instructions.XOR
+        }) FOOTPRINTS.put(instruction, new Footprint(BOTH, FIRST, false));
+
+        for (Instruction instruction : new Instruction[] {
+                Instructions.JMP , Instructions.JC  , Instructions.JNC , Instructions.JZ ,
+                Instructions.JNZ , Instructions.JE  , Instructions.JNE , Instructions.JB ,
+                Instructions.JNB , Instructions.JBE , Instructions.JNBE, Instructions.JA ,
+                Instructions.JNA , Instructions.JAE , Instructions.JNAE
+        }) FOOTPRINTS.put(instruction, new Footprint(NONE, NONE, true));
+
+        FOOTPRINTS.put(Instructions.LOOP, new Footprint(SECOND, SECOND, true));
+    }
+
+    private final @NotNull Memory MEMORY;
+    private final @NotNull Object MEMORY_ARRAY;
+    // The type of the elements of the backing array as a descriptor ('I', 'C' or 'B')
+    private final char ARRAY_TYPE;
+    private final int BIT_MASK;
+    // Whether or not storing into the array already masks values
+    private final boolean IS_STORE_MASKED;
+    private final @NotNull DecodeCache DECODE_CACHE;
+    private final int FLAGS_ADDRESS;
+    private final int PROGRAM_ADDRESS;
+    // Whether or not the Instruction with each key code ends the blocks it's part of (See #endsBlock(int))
+    private final boolean[] ENDS_BLOCK;
+
+    private final CompiledBlock[][] BLOCKS;
+    private final int[][] COUNTERS;
+    // Addresses that are part of at least one compiled block
+    private final BitSet COMPILED_ADDRESSES = new BitSet();
+
+    private int compiledClasses = 0;
+
+    /**
+     * @param memory The {@link Memory} Instructions are read from, it must be stored in an array (See {@link #canCompile(Memory)})
+     * @param decodeCache The {@link DecodeCache} used to decode the Instructions of a block
+     * @param flagsAddress The address of the word that holds the Zero and Carry Flags, blocks read and write
+     *                     it directly so it must be materialized before running them
+     * @param programAddress The address where the program starts, blocks can't start before it
+     * @throws IllegalArgumentException If the {@link Memory} isn't stored in an array
+     */
+    public BlockCompiler(@NotNull Memory memory, @NotNull DecodeCache decodeCache, int flagsAddress, int programAddress) {
+        Object memoryArray = memory.getBackingArray();
+        if (memoryArray == null) throw new IllegalArgumentException("Block Compiler requires a Memory stored in an array!");
+
+        MEMORY = memory;
+        MEMORY_ARRAY = memoryArray;
+        ARRAY_TYPE = memoryArray instanceof byte[] ? 'B' : memoryArray instanceof char[] ? 'C' : 'I';
+        BIT_MASK = memory.getWord().BIT_MASK;
+        IS_STORE_MASKED = (ARRAY_TYPE == 'B' && BIT_MASK == 0xFF) || (ARRAY_TYPE == 'C' && BIT_MASK == 0xFFFF);
+        DECODE_CACHE = decodeCache;
+        FLAGS_ADDRESS = flagsAddress;
+        PROGRAM_ADDRESS = programAddress;
+
+        InstructionSet instructionSet = decodeCache.getInstructionSet();
+        ENDS_BLOCK = new boolean[instructionSet.getSize()];
+        for (int i = 0; i < ENDS_BLOCK.length; i++) {
+            Footprint footprint = FOOTPRINTS.get(instructionSet.getInstruction(i));
+            ENDS_BLOCK[i] = footprint == null || footprint.ENDS_BLOCK;
+        }
+
+        int pages = (memory.getSize() + PAGE_MASK) >> PAGE_BITS;
+        BLOCKS = new CompiledBlock[pages][];
+        COUNTERS = new int[pages][];
+    }
+
+    /**
+     * Returns whether or not blocks of Instructions stored in the specified {@link Memory} can be compiled
+     * @param memory The {@link Memory} to check
+     * @return Whether or not a {@link BlockCompiler} can be created for the specified {@link Memory}
+     */
+    public static boolean canCompile(@NotNull Memory memory) {
+        Object memoryArray = memory.getBackingArray();
+        return memoryArray instanceof int[] || memoryArray instanceof char[] || memoryArray instanceof byte[];
+    }
+
+    /**
+     * Returns whether or not the Instruction with the specified key code ends the blocks it's part of
+     * (e.g. jumps, LOOP and Instructions that can't be compiled like CALL and RET), the address after it
+     * and the address it jumps to are the only ones where a block can start (See {@link #getBlock(int)})
+     * @param keyCode The key code of the Instruction
+     * @return Whether or not blocks end at the Instruction with the specified key code
+     */
+    public boolean endsBlock(int keyCode) {
+        return ENDS_BLOCK[keyCode];
+    }
+
+    /**
+     * Returns the {@link CompiledBlock} that starts at the specified address, the block is
+     * compiled if the address was reached enough times. Only the start of basic blocks should
+     * be counted (jump targets and addresses after Instructions that end blocks, See {@link #endsBlock(int)}),
+     * otherwise blocks could start in the middle of other blocks
+     * @param address The address the Processor reached
+     * @return The {@link CompiledBlock} that starts at the specified address or null if there's none
+     */
+    public @Nullable CompiledBlock getBlock(int address) {
+        int pageIndex = address >> PAGE_BITS;
+        int index = address & PAGE_MASK;
+
+        CompiledBlock[] blocks = BLOCKS[pageIndex];
+        if (blocks != null && blocks[index] != null) return blocks[index];
+
+        int[] counters = COUNTERS[pageIndex];
+        if (counters == null) {
+            counters = new int[PAGE_SIZE];
+            COUNTERS[pageIndex] = counters;
+        }
+        if (++counters[index] != COMPILE_THRESHOLD) return null;
+
+        CompiledBlock block = compile(address);
+        if (block == null) {
+            // The words after it may change (e.g. data that becomes code), so it's tried again later
+            counters[index] = COMPILE_THRESHOLD - RETRY_THRESHOLD;
+            return null;
+        }
+
+        if (blocks == null) {
+            blocks = new CompiledBlock[PAGE_SIZE];
+            BLOCKS[pageIndex] = blocks;
+        }
+        blocks[index] = block;
+        COMPILED_ADDRESSES.set(block.getStart(), block.getEnd());
+
+        return block;
+    }
+
+    private @Nullable CompiledBlock getCompiledBlock(int address) {
+        CompiledBlock[] blocks = BLOCKS[address >> PAGE_BITS];
+        return blocks == null ? null : blocks[address & PAGE_MASK];
+    }
+
+    /**
+     * Throws away all {@link CompiledBlock}s and resets all counters
+     */
+    public void clear() {
+        for (int i = 0; i < BLOCKS.length; i++) {
+            BLOCKS[i] = null;
+            COUNTERS[i] = null;
+        }
+        COMPILED_ADDRESSES.clear();
+    }
+
+    @Override
+    public void onValueWritten(int address) {
+        if (!COMPILED_ADDRESSES.get(address)) return;
+
+        // Only the blocks that contain the written address are thrown away
+        int removedStart = address;
+        int removedEnd = address + 1;
+        for (int start = Math.max(PROGRAM_ADDRESS, address - MAX_BLOCK_WORDS + 1); start <= address; start++) {
+            CompiledBlock block = getCompiledBlock(start);
+            if (block == null || block.getEnd() <= address) continue;
+
+            BLOCKS[start >> PAGE_BITS][start & PAGE_MASK] = null;
+            COUNTERS[start >> PAGE_BITS][start & PAGE_MASK] = COMPILE_THRESHOLD - RETRY_THRESHOLD;
+            removedStart = Math.min(removedStart, block.getStart());
+            removedEnd = Math.max(removedEnd, block.getEnd());
+        }
+
+        // The addresses of the removed blocks may still be part of blocks that overlap them
+        COMPILED_ADDRESSES.clear(removedStart, removedEnd);
+        for (int start = Math.max(PROGRAM_ADDRESS, removedStart - MAX_BLOCK_WORDS + 1); start < removedEnd; start++) {
+            CompiledBlock block = getCompiledBlock(start);
+            if (block != null) COMPILED_ADDRESSES.set(block.getStart(), block.getEnd());
+        }
+    }
+
+    // Registers and Flags are lazy words, they may not be stored in Memory while the block runs
+    private boolean isAddressAccessible(int address) {
+        return MEMORY.isAddressValid(address) && MEMORY.getLazyWord(address) == null;
+    }
+
+    private @Nullable CompiledBlock compile(int start) {
+        if (start < PROGRAM_ADDRESS) return null;
+
+        ArrayList<DecodedInstruction> instructions = new ArrayList<>();
+        ArrayList<Integer> addresses = new ArrayList<>();
+
+        int end = start;
+        // The lowest address inside the block that could be written by an Instruction after it,
+        //  the block can't grow past it because Instructions inside it would be modified while it runs
+        int lowestWrite = Integer.MAX_VALUE;
+
+        while (instructions.size() < MAX_BLOCK_INSTRUCTIONS && MEMORY.isAddressValid(end)) {
+            DecodedInstruction decoded;
+            try {
+                decoded = DECODE_CACHE.get(end);
+            } catch (InstructionError err) {
+                break;
+            }
+
+            if (decoded == null) break;
+            Instruction instruction = decoded.getInstruction();
+            Footprint footprint = FOOTPRINTS.get(instruction);
+            if (footprint == null) break;
+
+            int[] args = decoded.getArguments();
+            int nextEnd = end + decoded.getWords();
+
+            boolean isValid = nextEnd <= lowestWrite && nextEnd - start <= MAX_BLOCK_WORDS;
+            int instructionLowestWrite = lowestWrite;
+            for (int i = 0; isValid && i < footprint.READS.length; i++)
+                isValid = isAddressAccessible(args[footprint.READS[i]]);
+            for (int i = 0; isValid && i < footprint.WRITES.length; i++) {
+                int address = args[footprint.WRITES[i]];
+                isValid = isAddressAccessible(address) && (address < start || address >= nextEnd);
+                if (address >= start) instructionLowestWrite = Math.min(instructionLowestWrite, address);
+            }
+            if (!isValid) break;
+
+            instructions.add(decoded);
+            addresses.add(end);
+            lowestWrite = instructionLowestWrite;
+            end = nextEnd;
+
+            if (footprint.ENDS_BLOCK) break;
+        }
+
+        if (instructions.size() < MIN_BLOCK_INSTRUCTIONS) return null;
+
+        BlockCode code = generate(instructions, end);
+        if (code == null) return null;
+
+        int[] blockAddresses = new int[instructions.size()];
+        int[] keyCodes = new int[instructions.size()];
+        BitSet writes = new BitSet();
+        for (int i = 0; i < blockAddresses.length; i++) {
+            DecodedInstruction decoded = instructions.get(i);
+            blockAddresses[i] = addresses.get(i);
+            keyCodes[i] = decoded.getKeyCode();
+            for (int argument : FOOTPRINTS.get(decoded.getInstruction()).WRITES)
+                writes.set(decoded.getArguments()[argument]);
+        }
+
+        return new CompiledBlock(start, end, blockAddresses, keyCodes, writes.stream().toArray(), code, MEMORY_ARRAY);
+    }
+
+    private @Nullable BlockCode generate(@NotNull ArrayList<DecodedInstruction> instructions, int end) {
+        String className = "io/github/hds/pemu/jit/GeneratedBlock" + compiledClasses++;
+        ClassFileWriter writer = new ClassFileWriter(className, BLOCK_CODE, ClassFileWriter.ACC_PUBLIC | ClassFileWriter.ACC_FINAL);
+
+        ClassFileWriter.CodeBuilder constructor = new ClassFileWriter.CodeBuilder(1)
+                .aload(0)
+                .invokespecial(writer.methodRef(BLOCK_CODE, "<init>", "()V"), 1)
+                .vreturn();
+        writer.addMethod(ClassFileWriter.ACC_PUBLIC, "<init>", "()V", constructor);
+
+        ClassFileWriter.CodeBuilder run = new ClassFileWriter.CodeBuilder(LOCALS);
+        run.aload(1).checkcast(writer.classRef("[" + ARRAY_TYPE)).astore(LOCAL_ARRAY);
+
+        // The Flags are kept in a local while the block runs, Instructions that can't change them don't read them
+        boolean usesFlags = false;
+        for (DecodedInstruction decoded : instructions)
+            usesFlags |= decoded.getInstruction() != Instructions.DATA && decoded.getInstruction() != Instructions.MOV &&
+                         decoded.getInstruction() != Instructions.SWP  && decoded.getInstruction() != Instructions.JMP &&
+                         decoded.getInstruction() != Instructions.LOOP;
+        if (usesFlags) {
+            read(writer, run, FLAGS_ADDRESS);
+            run.istore(LOCAL_FLAGS);
+        }
+
+        boolean hasReturned = false;
+        for (DecodedInstruction decoded : instructions) {
+            if (FOOTPRINTS.get(decoded.getInstruction()).ENDS_BLOCK) {
+                // Jumps don't change the Flags, so they're stored before the jump
+                if (usesFlags) storeLocal(writer, run, FLAGS_ADDRESS, LOCAL_FLAGS);
+                generateJump(writer, run, decoded, end);
+                hasReturned = true;
+            } else generateInstruction(writer, run, decoded);
+        }
+
+        if (!hasReturned) {
+            if (usesFlags) storeLocal(writer, run, FLAGS_ADDRESS, LOCAL_FLAGS);
+            run.iconst(writer, end).ireturn();
+        }
+        writer.addMethod(ClassFileWriter.ACC_PUBLIC, "run", "(Ljava/lang/Object;)I", run);
+
+        try {
+            Class<?> blockClass = new BlockClassLoader().define(className.replace('/', '.'), writer.toByteArray());
+            return (BlockCode) blockClass.getConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError err) {
+            return null;
+        }
+    }
+
+    private void generateInstruction(@NotNull ClassFileWriter writer, @NotNull ClassFileWriter.CodeBuilder run, @NotNull DecodedInstruction decoded) {
+        Instruction instruction = decoded.getInstruction();
+        int[] args = decoded.getArguments();
+
+        if (instruction == Instructions.DATA) {
+            run.aload(LOCAL_ARRAY).iconst(writer, args[0]).iconst(writer, args[1] & BIT_MASK).arrayStore(ARRAY_TYPE);
+        } else if (instruction == Instructions.MOV) {
+            run.aload(LOCAL_ARRAY).iconst(writer, args[0]);
+            read(writer, run, args[1]);
+            run.arrayStore(ARRAY_TYPE);
+        } else if (instruction == Instructions.SWP) {
+            read(writer, run, args[0]);
+            run.istore(LOCAL_FIRST).aload(LOCAL_ARRAY).iconst(writer, args[0]);
+            read(writer, run, args[1]);
+            run.arrayStore(ARRAY_TYPE);
+            storeLocal(writer, run, args[1], LOCAL_FIRST);
+        } else if (instruction == Instructions.CMP) {
+            read(writer, run, args[0]);
+            run.istore(LOCAL_FIRST);
+            read(writer, run, args[1]);
+            run.istore(LOCAL_SECOND);
+
+            // Values are never negative, so the first one is below the second if their difference is
+            run.iload(LOCAL_FLAGS).iconst(writer, ~(1 << ZERO_FLAG_BIT | 1 << CARRY_FLAG_BIT)).iand()
+               .iload(LOCAL_FIRST).iload(LOCAL_SECOND).isub().iconst(writer, 31).iushr()
+               .iconst(writer, CARRY_FLAG_BIT).ishl().ior();
+            run.iload(LOCAL_FIRST).iload(LOCAL_SECOND).ixor().istore(LOCAL_FIRST);
+            isZero(writer, run, LOCAL_FIRST);
+            run.iconst(writer, ZERO_FLAG_BIT).ishl().ior().istore(LOCAL_FLAGS);
+        } else {
+            // Arithmetic and logic Instructions: the result isn't masked when the Flags are computed from it
+            read(writer, run, args[0]);
+            if (instruction == Instructions.INC) {
+                run.iconst(writer, 1).iadd();
+            } else if (instruction == Instructions.DEC) {
+                run.iconst(writer, 1).isub();
+            } else if (instruction == Instructions.NOT) {
+                run.iconst(writer, -1).ixor();
+            } else {
+                read(writer, run, args[1]);
+                if (instruction == Instructions.ADD) run.iadd();
+                else if (instruction == Instructions.SUB) run.isub();
+                else if (instruction == Instructions.MUL) run.imul();
+                else if (instruction == Instructions.AND) run.iand();
+                else if (instruction == Instructions.OR ) run.ior();
+                else run.ixor();
+            }
+            run.istore(LOCAL_FIRST);
+            storeLocal(writer, run, args[0], LOCAL_FIRST);
+
+            boolean setsCarry = instruction != Instructions.NOT && instruction != Instructions.AND &&
+                                instruction != Instructions.OR  && instruction != Instructions.XOR;
+            run.iload(LOCAL_FLAGS).iconst(writer, setsCarry ? ~(1 << ZERO_FLAG_BIT | 1 << CARRY_FLAG_BIT) : ~(1 << ZERO_FLAG_BIT)).iand();
+            isZero(writer, run, LOCAL_FIRST);
+            run.iconst(writer, ZERO_FLAG_BIT).ishl().ior();
+            if (setsCarry) {
+                // The Carry Flag is set if the result has bits outside of the Word
+                run.iload(LOCAL_FIRST).iconst(writer, ~BIT_MASK).iand().istore(LOCAL_SECOND);
+                isNotZero(writer, run, LOCAL_SECOND);
+                run.iconst(writer, CARRY_FLAG_BIT).ishl().ior();
+            }
+            run.istore(LOCAL_FLAGS);
+        }
+    }
+
+    // Returns the address of the next Instruction, jumps are branchless: end + condition * (target - end)
+    private void generateJump(@NotNull ClassFileWriter writer, @NotNull ClassFileWriter.CodeBuilder run, @NotNull DecodedInstruction decoded, int end) {
+        Instruction instruction = decoded.getInstruction();
+        int[] args = decoded.getArguments();
+        int target = args[0];
+
+        if (instruction == Instructions.JMP) {
+            run.iconst(writer, target).ireturn();
+            return;
+        }
+
+        if (instruction == Instructions.LOOP) {
+            read(writer, run, args[1]);
+            run.iconst(writer, 1).isub().istore(LOCAL_FIRST);
+            storeLocal(writer, run, args[1], LOCAL_FIRST);
+            isNotZero(writer, run, LOCAL_FIRST);
+        } else {
+            boolean isNegated;
+            run.iload(LOCAL_FLAGS);
+            if (instruction == Instructions.JZ || instruction == Instructions.JE || instruction == Instructions.JNZ || instruction == Instructions.JNE) {
+                run.iconst(writer, ZERO_FLAG_BIT).iushr();
+                isNegated = instruction == Instructions.JNZ || instruction == Instructions.JNE;
+            } else if (instruction == Instructions.JBE || instruction == Instructions.JNA || instruction == Instructions.JNBE || instruction == Instructions.JA) {
+                run.iload(LOCAL_FLAGS).iconst(writer, CARRY_FLAG_BIT - ZERO_FLAG_BIT).iushr().ior().iconst(writer, ZERO_FLAG_BIT).iushr();
+                isNegated = instruction == Instructions.JNBE || instruction == Instructions.JA;
+            } else {
+                run.iconst(writer, CARRY_FLAG_BIT).iushr();
+                isNegated = instruction == Instructions.JNC || instruction == Instructions.JNB || instruction == Instructions.JAE;
+            }
+            run.iconst(writer, 1).iand();
+            if (isNegated) run.iconst(writer, 1).ixor();
+        }
+
+        run.iconst(writer, target - end).imul().iconst(writer, end).iadd().ireturn();
+    }
+
+    // Pushes the value at the specified address
+    private void read(@NotNull ClassFileWriter writer, @NotNull ClassFileWriter.CodeBuilder run, int address) {
+        run.aload(LOCAL_ARRAY).iconst(writer, address).arrayLoad(ARRAY_TYPE);
+        // Bytes are signed
+        if (ARRAY_TYPE == 'B') run.iconst(writer, 0xFF).iand();
+    }
+
+    // Stores the value of the specified local at the specified address
+    private void storeLocal(@NotNull ClassFileWriter writer, @NotNull ClassFileWriter.CodeBuilder run, int address, int local) {
+        run.aload(LOCAL_ARRAY).iconst(writer, address).iload(local);
+        if (!IS_STORE_MASKED) run.iconst(writer, BIT_MASK).iand();
+        run.arrayStore(ARRAY_TYPE);
+    }
+
+    // Pushes 1 if the specified local isn't 0, otherwise 0: either the value or its negation is negative
+    private void isNotZero(@NotNull ClassFileWriter writer, @NotNull ClassFileWriter.CodeBuilder run, int local) {
+        run.iload(local).iload(local).ineg().ior().iconst(writer, 31).iushr();
+    }
+
+    private void isZero(@NotNull ClassFileWriter writer, @NotNull ClassFileWriter.CodeBuilder run, int local) {
+        isNotZero(writer, run, local);
+        run.iconst(writer, 1).ixor();
+    }
+
+}
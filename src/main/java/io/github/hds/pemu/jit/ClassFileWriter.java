@@ -0,0 +1,360 @@
+package io.github.hds.pemu.jit;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * A minimal writer of Java 5 (version 49) class files, it only supports what the {@link BlockCompiler} needs:
+ * methods without branches, exception handlers or debug information.
+ * Version 49 is used because it doesn't require StackMapTable attributes
+ */
+final class ClassFileWriter {
+
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final int MAJOR_VERSION = 49;
+
+    public static final int ACC_PUBLIC = 0x0001;
+    public static final int ACC_FINAL  = 0x0010;
+    public static final int ACC_SUPER  = 0x0020;
+
+    private static final int CONSTANT_UTF8         = 1;
+    private static final int CONSTANT_INTEGER      = 3;
+    private static final int CONSTANT_CLASS        = 7;
+    private static final int CONSTANT_METHODREF    = 10;
+    private static final int CONSTANT_NAMEANDTYPE  = 12;
+
+    private final ByteArrayOutputStream POOL_BYTES = new ByteArrayOutputStream();
+    private final DataOutputStream POOL = new DataOutputStream(POOL_BYTES);
+    private final HashMap<String, Integer> POOL_INDICES = new HashMap<>();
+    private int poolSize = 1;
+
+    private final ArrayList<byte[]> METHODS = new ArrayList<>();
+
+    private final int THIS_CLASS;
+    private final int SUPER_CLASS;
+    private final int ACCESS_FLAGS;
+
+    /**
+     * @param className The internal name of the class (e.g. "java/lang/Object")
+     * @param superName The internal name of the super class
+     * @param accessFlags The access flags of the class
+     */
+    protected ClassFileWriter(@NotNull String className, @NotNull String superName, int accessFlags) {
+        THIS_CLASS = classRef(className);
+        SUPER_CLASS = classRef(superName);
+        ACCESS_FLAGS = accessFlags | ACC_SUPER;
+    }
+
+    private interface IPoolEntryWriter {
+        void write(@NotNull DataOutputStream out) throws IOException;
+    }
+
+    private int addConstant(@NotNull String key, int slots, @NotNull IPoolEntryWriter writer) {
+        Integer index = POOL_INDICES.get(key);
+        if (index != null) return index;
+
+        try {
+            writer.write(POOL);
+        } catch (IOException err) {
+            throw new UncheckedIOException(err);
+        }
+
+        index = poolSize;
+        poolSize += slots;
+        POOL_INDICES.put(key, index);
+        return index;
+    }
+
+    public int utf8(@NotNull String value) {
+        return addConstant("U" + value, 1, out -> {
+            out.writeByte(CONSTANT_UTF8);
+            out.writeUTF(value);
+        });
+    }
+
+    public int integer(int value) {
+        return addConstant("I" + value, 1, out -> {
+            out.writeByte(CONSTANT_INTEGER);
+            out.writeInt(value);
+        });
+    }
+
+    public int classRef(@NotNull String internalName) {
+        int nameIndex = utf8(internalName);
+        return addConstant("C" + internalName, 1, out -> {
+            out.writeByte(CONSTANT_CLASS);
+            out.writeShort(nameIndex);
+        });
+    }
+
+    private int nameAndType(@NotNull String name, @NotNull String descriptor) {
+        int nameIndex = utf8(name);
+        int descriptorIndex = utf8(descriptor);
+        return addConstant("N" + name + ":" + descriptor, 1, out -> {
+            out.writeByte(CONSTANT_NAMEANDTYPE);
+            out.writeShort(nameIndex);
+            out.writeShort(descriptorIndex);
+        });
+    }
+
+    public int methodRef(@NotNull String owner, @NotNull String name, @NotNull String descriptor) {
+        int classIndex = classRef(owner);
+        int nameAndTypeIndex = nameAndType(name, descriptor);
+        return addConstant("M" + owner + "." + name + ":" + descriptor, 1, out -> {
+            out.writeByte(CONSTANT_METHODREF);
+            out.writeShort(classIndex);
+            out.writeShort(nameAndTypeIndex);
+        });
+    }
+
+    public void addMethod(int accessFlags, @NotNull String name, @NotNull String descriptor, @NotNull CodeBuilder code) {
+        byte[] codeBytes = code.toByteArray();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeShort(accessFlags);
+            out.writeShort(utf8(name));
+            out.writeShort(utf8(descriptor));
+            out.writeShort(1); // Attributes
+
+            out.writeShort(utf8("Code"));
+            // max_stack + max_locals + code_length + code + exception_table_length + attributes_count
+            out.writeInt(2 + 2 + 4 + codeBytes.length + 2 + 2);
+            out.writeShort(code.getMaxStack());
+            out.writeShort(code.getMaxLocals());
+            out.writeInt(codeBytes.length);
+            out.write(codeBytes);
+            out.writeShort(0); // Exception table
+            out.writeShort(0); // Attributes
+        } catch (IOException err) {
+            throw new UncheckedIOException(err);
+        }
+        METHODS.add(bytes.toByteArray());
+    }
+
+    public byte[] toByteArray() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeInt(MAGIC);
+            out.writeShort(0);
+            out.writeShort(MAJOR_VERSION);
+
+            out.writeShort(poolSize);
+            POOL.flush();
+            POOL_BYTES.writeTo(out);
+
+            out.writeShort(ACCESS_FLAGS);
+            out.writeShort(THIS_CLASS);
+            out.writeShort(SUPER_CLASS);
+            out.writeShort(0); // Interfaces
+
+            out.writeShort(0); // Fields
+
+            out.writeShort(METHODS.size());
+            for (byte[] method : METHODS) out.write(method);
+
+            out.writeShort(0); // Attributes
+        } catch (IOException err) {
+            throw new UncheckedIOException(err);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Builds the bytecode of a method, keeping track of how big its stack gets
+     */
+    public static final class CodeBuilder {
+
+        private static final int ICONST_0      = 0x03;
+        private static final int BIPUSH        = 0x10;
+        private static final int SIPUSH        = 0x11;
+        private static final int LDC_W         = 0x13;
+        private static final int ILOAD         = 0x15;
+        private static final int ALOAD         = 0x19;
+        private static final int IALOAD        = 0x2E;
+        private static final int BALOAD        = 0x33;
+        private static final int CALOAD        = 0x34;
+        private static final int ISTORE        = 0x36;
+        private static final int ASTORE        = 0x3A;
+        private static final int IASTORE       = 0x4F;
+        private static final int BASTORE       = 0x54;
+        private static final int CASTORE       = 0x55;
+        private static final int IADD          = 0x60;
+        private static final int ISUB          = 0x64;
+        private static final int IMUL          = 0x68;
+        private static final int INEG          = 0x74;
+        private static final int ISHL          = 0x78;
+        private static final int IUSHR         = 0x7C;
+        private static final int IAND          = 0x7E;
+        private static final int IOR           = 0x80;
+        private static final int IXOR          = 0x82;
+        private static final int IRETURN       = 0xAC;
+        private static final int RETURN        = 0xB1;
+        private static final int INVOKESPECIAL = 0xB7;
+        private static final int CHECKCAST     = 0xC0;
+
+        private final ByteArrayOutputStream CODE = new ByteArrayOutputStream();
+        private final int MAX_LOCALS;
+        private int stack = 0;
+        private int maxStack = 0;
+
+        public CodeBuilder(int maxLocals) {
+            MAX_LOCALS = maxLocals;
+        }
+
+        private void push(int slots) {
+            stack += slots;
+            maxStack = Math.max(maxStack, stack);
+        }
+
+        private void writeShort(int value) {
+            CODE.write(value >> 8);
+            CODE.write(value);
+        }
+
+        // Writes an opcode which pops the specified amount of stack slots and then pushes the other amount
+        private @NotNull CodeBuilder op(int opcode, int popped, int pushed) {
+            CODE.write(opcode);
+            stack -= popped;
+            push(pushed);
+            return this;
+        }
+
+        public @NotNull CodeBuilder aload(int local) {
+            CODE.write(ALOAD);
+            CODE.write(local);
+            push(1);
+            return this;
+        }
+
+        public @NotNull CodeBuilder astore(int local) {
+            op(ASTORE, 1, 0);
+            CODE.write(local);
+            return this;
+        }
+
+        public @NotNull CodeBuilder iload(int local) {
+            CODE.write(ILOAD);
+            CODE.write(local);
+            push(1);
+            return this;
+        }
+
+        public @NotNull CodeBuilder istore(int local) {
+            op(ISTORE, 1, 0);
+            CODE.write(local);
+            return this;
+        }
+
+        public @NotNull CodeBuilder iconst(@NotNull ClassFileWriter writer, int value) {
+            if (value >= -1 && value <= 5) {
+                CODE.write(ICONST_0 + value);
+            } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+                CODE.write(BIPUSH);
+                CODE.write(value);
+            } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+                CODE.write(SIPUSH);
+                writeShort(value);
+            } else {
+                CODE.write(LDC_W);
+                writeShort(writer.integer(value));
+            }
+            push(1);
+            return this;
+        }
+
+        /**
+         * Loads an element of an array, the array and the index are popped
+         * @param arrayType The type of the elements of the array ('I', 'C' or 'B')
+         */
+        public @NotNull CodeBuilder arrayLoad(char arrayType) {
+            return op(arrayType == 'B' ? BALOAD : arrayType == 'C' ? CALOAD : IALOAD, 2, 1);
+        }
+
+        /**
+         * Stores an element of an array, the array, the index and the value are popped
+         * @param arrayType The type of the elements of the array ('I', 'C' or 'B')
+         */
+        public @NotNull CodeBuilder arrayStore(char arrayType) {
+            return op(arrayType == 'B' ? BASTORE : arrayType == 'C' ? CASTORE : IASTORE, 3, 0);
+        }
+
+        public @NotNull CodeBuilder iadd() {
+            return op(IADD, 2, 1);
+        }
+
+        public @NotNull CodeBuilder isub() {
+            return op(ISUB, 2, 1);
+        }
+
+        public @NotNull CodeBuilder imul() {
+            return op(IMUL, 2, 1);
+        }
+
+        public @NotNull CodeBuilder ineg() {
+            return op(INEG, 1, 1);
+        }
+
+        public @NotNull CodeBuilder ishl() {
+            return op(ISHL, 2, 1);
+        }
+
+        public @NotNull CodeBuilder iushr() {
+            return op(IUSHR, 2, 1);
+        }
+
+        public @NotNull CodeBuilder iand() {
+            return op(IAND, 2, 1);
+        }
+
+        public @NotNull CodeBuilder ior() {
+            return op(IOR, 2, 1);
+        }
+
+        public @NotNull CodeBuilder ixor() {
+            return op(IXOR, 2, 1);
+        }
+
+        public @NotNull CodeBuilder checkcast(int classRef) {
+            op(CHECKCAST, 1, 1);
+            writeShort(classRef);
+            return this;
+        }
+
+        public @NotNull CodeBuilder invokespecial(int methodRef, int popped) {
+            CODE.write(INVOKESPECIAL);
+            writeShort(methodRef);
+            stack -= popped;
+            return this;
+        }
+
+        public @NotNull CodeBuilder ireturn() {
+            return op(IRETURN, 1, 0);
+        }
+
+        public @NotNull CodeBuilder vreturn() {
+            CODE.write(RETURN);
+            return this;
+        }
+
+        public int getMaxStack() {
+            return maxStack;
+        }
+
+        public int getMaxLocals() {
+            return MAX_LOCALS;
+        }
+
+        public byte[] toByteArray() {
+            return CODE.toByteArray();
+        }
+    }
+}
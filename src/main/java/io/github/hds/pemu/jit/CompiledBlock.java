@@ -0,0 +1,86 @@
+package io.github.hds.pemu.jit;
+
+import io.github.hds.pemu.instructions.InstructionHistory;
+import io.github.hds.pemu.memory.IMemoryListener;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A block of Instructions that was compiled to JVM bytecode by the {@link BlockCompiler}
+ */
+public final class CompiledBlock {
+
+    private final int START;
+    private final int END;
+    private final int[] ADDRESSES;
+    private final int[] KEY_CODES;
+    // The addresses written by the block, without the Flags
+    private final int[] WRITES;
+    private final @NotNull BlockCode CODE;
+    private final @NotNull Object MEMORY;
+
+    protected CompiledBlock(int start, int end, int[] addresses, int[] keyCodes, int[] writes, @NotNull BlockCode code, @NotNull Object memory) {
+        START = start;
+        END = end;
+        ADDRESSES = addresses;
+        KEY_CODES = keyCodes;
+        WRITES = writes;
+        CODE = code;
+        MEMORY = memory;
+    }
+
+    /**
+     * Returns the address of the first Instruction of this block
+     * @return The address of the first Instruction of this block
+     */
+    public int getStart() {
+        return START;
+    }
+
+    /**
+     * Returns the address after the last word of this block
+     * @return The address after the last word of this block
+     */
+    public int getEnd() {
+        return END;
+    }
+
+    /**
+     * Returns how many Instructions are in this block
+     * @return How many Instructions are in this block
+     */
+    public int getLength() {
+        return ADDRESSES.length;
+    }
+
+    /**
+     * Executes all Instructions of this block on the backing array of the Memory, the Flags are read from and
+     * written to Memory so they must be materialized before. The Memory's listener isn't notified,
+     * {@link CompiledBlock#notifyWrites(IMemoryListener)} must be called afterwards
+     * @return The address of the next Instruction to execute
+     */
+    public int run() {
+        return CODE.run(MEMORY);
+    }
+
+    /**
+     * Notifies the specified listener of all addresses written by this block
+     * (The block can't write its own Instructions, so running it again writes the same addresses)
+     * @param listener The listener of the Memory or null if there's none
+     */
+    public void notifyWrites(@Nullable IMemoryListener listener) {
+        if (listener != null)
+            for (int address : WRITES) listener.onValueWritten(address);
+    }
+
+    /**
+     * Records all Instructions of this block into the specified {@link InstructionHistory}
+     * @param history The {@link InstructionHistory} to record the Instructions into
+     * @param runs How many times the block was run
+     */
+    public void recordHistory(@NotNull InstructionHistory history, int runs) {
+        for (int i = 0; i < ADDRESSES.length; i++)
+            history.record(ADDRESSES[i], KEY_CODES[i], runs);
+    }
+
+}
@@ -0,0 +1,34 @@
+package io.github.hds.pemu.memory;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link Memory} that stores each value in a byte, used for {@link Word#WordBit8}
+ */
+public final class ByteMemory extends Memory {
+
+    private final byte[] MEMORY;
+
+    public ByteMemory(int size, @NotNull Word word) {
+        super(size, word);
+        if (word.TOTAL_BITS > 8) throw new IllegalArgumentException("ByteMemory can't store " + word.TOTAL_BITS + " bits Words!");
+        MEMORY = new byte[size];
+    }
+
+    @Override
+    public @NotNull Object getBackingArray() {
+        return MEMORY;
+    }
+
+    @Override
+    protected int read(int address) {
+        return Byte.toUnsignedInt(MEMORY[address]);
+    }
+
+    @Override
+    protected int write(int address, int value) {
+        int oldValue = read(address);
+        MEMORY[address] = (byte) value;
+        return oldValue;
+    }
+}
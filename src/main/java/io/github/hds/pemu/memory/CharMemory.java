@@ -0,0 +1,34 @@
+package io.github.hds.pemu.memory;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link Memory} that stores each value in a char, used for {@link Word#WordBit16}
+ */
+public final class CharMemory extends Memory {
+
+    private final char[] MEMORY;
+
+    public CharMemory(int size, @NotNull Word word) {
+        super(size, word);
+        if (word.TOTAL_BITS > 16) throw new IllegalArgumentException("CharMemory can't store " + word.TOTAL_BITS + " bits Words!");
+        MEMORY = new char[size];
+    }
+
+    @Override
+    public @NotNull Object getBackingArray() {
+        return MEMORY;
+    }
+
+    @Override
+    protected int read(int address) {
+        return MEMORY[address];
+    }
+
+    @Override
+    protected int write(int address, int value) {
+        int oldValue = read(address);
+        MEMORY[address] = (char) value;
+        return oldValue;
+    }
+}
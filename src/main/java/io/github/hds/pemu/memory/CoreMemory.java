@@ -0,0 +1,107 @@
+package io.github.hds.pemu.memory;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.BitSet;
+
+/**
+ * The view that a core of a {@link io.github.hds.pemu.processor.MultiCoreProcessor} has of its {@link SharedMemory}.
+ * The first words (e.g. Registers and Flags) are banked: each core has its own copy of them, so that programs find
+ * them at the same addresses on all cores. All other words are read from and written to the {@link SharedMemory}.
+ * It has its own listener, journal and lazy words. Writes done by other cores to words this core decoded
+ * are queued and notified to its listener by {@link #applyRemoteWrites()}, on the core's own Thread
+ */
+public final class CoreMemory extends Memory {
+
+    private final @NotNull SharedMemory SHARED;
+    private final int[] BANK;
+
+    // Addresses written by other cores that weren't notified to the listener yet, guarded by this
+    private final BitSet REMOTE_WRITES = new BitSet();
+    private volatile boolean hasRemoteWrites = false;
+
+    /**
+     * @param shared The {@link SharedMemory} of all cores
+     * @param bankedWords How many words starting from address 0 are only visible to this core
+     */
+    public CoreMemory(@NotNull SharedMemory shared, int bankedWords) {
+        super(shared.getSize(), shared.getWord());
+        if (bankedWords < 0 || bankedWords > shared.getSize())
+            throw new IllegalArgumentException("Banked words must be between 0 and the size of the Shared Memory!");
+        SHARED = shared;
+        BANK = new int[bankedWords];
+        SHARED.addCore(this);
+    }
+
+    /**
+     * Marks the specified words as code, so that writes done by other cores to them are notified to the listener.
+     * It must be called before the words are read to decode them
+     * @param start The first word to mark
+     * @param end The word after the last one to mark
+     */
+    public void markCode(int start, int end) {
+        SHARED.markCode(Math.max(start, BANK.length), end);
+    }
+
+    protected synchronized void queueRemoteWrite(int address) {
+        REMOTE_WRITES.set(address);
+        hasRemoteWrites = true;
+    }
+
+    /**
+     * Notifies the listener of the writes that other cores did to code since the last call,
+     * it must be called by the Thread that uses this Memory (e.g. before each Instruction)
+     */
+    public void applyRemoteWrites() {
+        if (!hasRemoteWrites) return;
+
+        IMemoryListener listener = getListener();
+        synchronized (this) {
+            hasRemoteWrites = false;
+            if (listener != null) {
+                for (int address = REMOTE_WRITES.nextSetBit(0); address >= 0; address = REMOTE_WRITES.nextSetBit(address + 1))
+                    listener.onValueWritten(address);
+            }
+            REMOTE_WRITES.clear();
+        }
+    }
+
+    public @NotNull SharedMemory getSharedMemory() {
+        return SHARED;
+    }
+
+    /**
+     * Returns how many words starting from address 0 are only visible to this core
+     * @return How many words are banked
+     */
+    public int getBankedWords() {
+        return BANK.length;
+    }
+
+    @Override
+    protected int read(int address) {
+        return address < BANK.length ? BANK[address] : SHARED.read(address);
+    }
+
+    @Override
+    protected int write(int address, int value) {
+        if (address >= BANK.length) {
+            int oldValue = SHARED.write(address, value);
+            SHARED.onCoreWrite(this, address);
+            return oldValue;
+        }
+
+        int oldValue = BANK[address];
+        BANK[address] = value;
+        return oldValue;
+    }
+
+    @Override
+    protected boolean compareAndWrite(int address, int expected, int value) {
+        if (address < BANK.length) return super.compareAndWrite(address, expected, value);
+
+        if (!SHARED.compareAndWrite(address, expected, value)) return false;
+        SHARED.onCoreWrite(this, address);
+        return true;
+    }
+}
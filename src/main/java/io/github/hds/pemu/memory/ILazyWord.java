@@ -0,0 +1,20 @@
+package io.github.hds.pemu.memory;
+
+/**
+ * A word of a {@link Memory} whose changes may be kept somewhere else until it's accessed,
+ * the {@link Memory} materializes it before its address is read or written
+ */
+public interface ILazyWord {
+
+    /**
+     * Returns the address of this word
+     * @return The address of this word
+     */
+    int getAddress();
+
+    /**
+     * Called before this word is accessed, pending changes must be stored into the {@link Memory}
+     */
+    void materialize();
+
+}
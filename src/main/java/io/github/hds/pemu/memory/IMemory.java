@@ -63,4 +63,33 @@ public interface IMemory {
      * @return The retrieved values
      */
     int[] getValuesAt(int address, int size);
+
+    /**
+     * Sets the value at the specified address to the one specified only if the current one is equal to the expected one.
+     * Memories shared between Threads do it atomically
+     * @throws NullPointerException If the specified address is out of bounds
+     * @param address The address to set
+     * @param expected The value that must be at the specified address
+     * @param value The value to set at the specified address
+     * @return Whether or not the value was set
+     */
+    default boolean compareAndSetValueAt(int address, int expected, int value) {
+        if (getValueAt(address) != expected) return false;
+        setValueAt(address, value);
+        return true;
+    }
+
+    /**
+     * Adds the specified amount to the value at the specified address.
+     * Memories shared between Threads do it atomically
+     * @throws NullPointerException If the specified address is out of bounds
+     * @param address The address to add to
+     * @param delta The amount to add
+     * @return The old value at the specified address
+     */
+    default int getAndAddValueAt(int address, int delta) {
+        int oldValue = getValueAt(address);
+        setValueAt(address, oldValue + delta);
+        return oldValue;
+    }
 }
@@ -0,0 +1,15 @@
+package io.github.hds.pemu.memory;
+
+/**
+ * An interface used to get notified about the changes made to a {@link Memory}
+ */
+@FunctionalInterface
+public interface IMemoryListener {
+
+    /**
+     * Called after the value at the specified address was set
+     * @param address The address that was written to
+     */
+    void onValueWritten(int address);
+
+}
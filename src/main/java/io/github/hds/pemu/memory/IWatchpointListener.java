@@ -0,0 +1,18 @@
+package io.github.hds.pemu.memory;
+
+/**
+ * An interface used to get notified about accesses to the watched addresses of a {@link Memory}
+ * (See {@link Memory#setWatchpoints(MemoryWatchpoints)})
+ */
+@FunctionalInterface
+public interface IWatchpointListener {
+
+    /**
+     * Called after a watched address was read or written
+     * @param address The address that was accessed
+     * @param isWrite Whether the address was written or read
+     * @param value The value that was read or written
+     */
+    void onWatchpointHit(int address, boolean isWrite, int value);
+
+}
@@ -0,0 +1,34 @@
+package io.github.hds.pemu.memory;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link Memory} that stores each value in a int, used for {@link Word#WordBit24}
+ */
+public final class IntMemory extends Memory {
+
+    private final int[] MEMORY;
+
+    public IntMemory(int size, @NotNull Word word) {
+        super(size, word);
+        if (word.TOTAL_BITS > 24) throw new IllegalArgumentException("IntMemory can't store " + word.TOTAL_BITS + " bits Words!");
+        MEMORY = new int[size];
+    }
+
+    @Override
+    public @NotNull Object getBackingArray() {
+        return MEMORY;
+    }
+
+    @Override
+    protected int read(int address) {
+        return MEMORY[address];
+    }
+
+    @Override
+    protected int write(int address, int value) {
+        int oldValue = read(address);
+        MEMORY[address] = value;
+        return oldValue;
+    }
+}
@@ -0,0 +1,102 @@
+package io.github.hds.pemu.memory;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A {@link Memory} that stores its values in a file mapped into memory, it doesn't count towards the JVM's heap
+ * and its values are kept in the file after the Processor is closed. Writes aren't synchronized and listeners
+ * only see writes done through this instance, so the file must only be used by one Processor at a time
+ */
+public final class MappedMemory extends Memory {
+
+    private final @NotNull File FILE;
+    private final @NotNull MappedByteBuffer BUFFER;
+    private final int WORD_BYTES;
+
+    /**
+     * Maps the specified file into memory, the file is created if it doesn't exist and it's
+     * grown if it's too small to hold all the values
+     * @param size The size (The amount of addresses) of the new Memory
+     * @param word The {@link Word} used by the new Memory
+     * @param file The file where values are stored
+     * @throws IOException If the file couldn't be opened or mapped
+     */
+    public MappedMemory(int size, @NotNull Word word, @NotNull File file) throws IOException {
+        super(size, word);
+        FILE = file;
+        WORD_BYTES = word.TOTAL_BYTES;
+
+        // The mapping is still valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            BUFFER = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) size * WORD_BYTES);
+        }
+        // Words are stored from the least significant byte
+        BUFFER.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Creates a {@link MappedMemory} backed by a temporary file which is deleted when the JVM exits
+     * @param size The size (The amount of addresses) of the new Memory
+     * @param word The {@link Word} used by the new Memory
+     * @return The new Memory
+     * @throws IOException If the temporary file couldn't be created or mapped
+     */
+    public static @NotNull MappedMemory getTemporaryMemory(int size, @NotNull Word word) throws IOException {
+        File file = File.createTempFile("pemu-memory", ".bin");
+        file.deleteOnExit();
+        return new MappedMemory(size, word, file);
+    }
+
+    /**
+     * Returns the file where this Memory's values are stored
+     * @return The file where this Memory's values are stored
+     */
+    public @NotNull File getFile() {
+        return FILE;
+    }
+
+    /**
+     * Forces all values that were written to be stored in the file
+     */
+    public void flush() {
+        BUFFER.force();
+    }
+
+    @Override
+    protected int read(int address) {
+        int index = address * WORD_BYTES;
+        switch (WORD_BYTES) {
+            case 1:
+                return Byte.toUnsignedInt(BUFFER.get(index));
+            case 2:
+                return BUFFER.getChar(index);
+            default:
+                return BUFFER.getChar(index) | Byte.toUnsignedInt(BUFFER.get(index + 2)) << Character.SIZE;
+        }
+    }
+
+    @Override
+    protected int write(int address, int value) {
+        int oldValue = read(address);
+        int index = address * WORD_BYTES;
+        switch (WORD_BYTES) {
+            case 1:
+                BUFFER.put(index, (byte) value);
+                break;
+            case 2:
+                BUFFER.putChar(index, (char) value);
+                break;
+            default:
+                BUFFER.putChar(index, (char) value);
+                BUFFER.put(index + 2, (byte) (value >> Character.SIZE));
+        }
+        return oldValue;
+    }
+}
@@ -1,21 +1,147 @@
 package io.github.hds.pemu.memory;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
- * A class that emulates RAM
+ * A class that emulates RAM, subclasses only need to store and retrieve values
+ * while this class validates addresses, masks values and notifies the {@link IMemoryListener}.
+ * Memory isn't synchronized, it should only be written by one Thread (The Processor's),
+ * other Threads should read from a {@link io.github.hds.pemu.processor.ProcessorSnapshot}
  */
-public final class Memory implements IMemory {
+public abstract class Memory implements IMemory {
 
     private final Word WORD;
-    private final byte[] MEMORY;
+    private final int SIZE;
+
+    private volatile @Nullable IMemoryListener listener = null;
+    // Only set while undoing is enabled, it records the old value of every write
+    private @Nullable UndoJournal journal = null;
+    // Only set while some address is watched, it's checked on every access done with getValueAt and setValueAt
+    private @Nullable MemoryWatchpoints watchpoints = null;
+    // Lazy words indexed by their address minus lazyStart, the range is checked on every access
+    private ILazyWord[] lazyWords = new ILazyWord[0];
+    private int lazyStart = 0;
+    private int lazyEnd = 0;
 
     public Memory(int size, @NotNull Word word) {
         if (size < 0) throw new IllegalArgumentException("Memory size can't be negative!");
-        MEMORY = new byte[word.TOTAL_BYTES * size];
+        SIZE = size;
         WORD = word;
     }
 
+    /**
+     * Returns a new Memory that stores one value of the specified {@link Word} per array element
+     * @param size The size (The amount of addresses) of the new Memory
+     * @param word The {@link Word} used by the new Memory
+     * @return The new Memory
+     */
+    public static @NotNull Memory getMemory(int size, @NotNull Word word) {
+        if (word == Word.WordBit8) return new ByteMemory(size, word);
+        if (word == Word.WordBit16) return new CharMemory(size, word);
+        return new IntMemory(size, word);
+    }
+
+    /**
+     * Sets the {@link IMemoryListener} that gets notified when a value of this Memory is set
+     * @param listener The new listener or null to remove the current one
+     */
+    public void setListener(@Nullable IMemoryListener listener) {
+        this.listener = listener;
+    }
+
+    public @Nullable IMemoryListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Sets the {@link UndoJournal} that records the old value of each address that is set
+     * @param journal The new journal or null to stop recording
+     */
+    public void setJournal(@Nullable UndoJournal journal) {
+        this.journal = journal;
+    }
+
+    public @Nullable UndoJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Sets the {@link MemoryWatchpoints} that are checked when an address is accessed with {@link #getValueAt(int)}
+     * or {@link #setValueAt(int, int)}, reads done with {@link #getValuesAt(int, int)} (e.g. to take snapshots) aren't watched
+     * @param watchpoints The new watchpoints or null to stop watching
+     */
+    public void setWatchpoints(@Nullable MemoryWatchpoints watchpoints) {
+        this.watchpoints = watchpoints;
+    }
+
+    public @Nullable MemoryWatchpoints getWatchpoints() {
+        return watchpoints;
+    }
+
+    /**
+     * Adds an {@link ILazyWord} that is materialized before its address is accessed,
+     * lazy words should be close to each other because all addresses between them are checked
+     * @param lazyWord The lazy word to add, it replaces the one at the same address
+     */
+    public void addLazyWord(@NotNull ILazyWord lazyWord) {
+        int address = lazyWord.getAddress();
+        validateAddress(address);
+
+        if (lazyStart == lazyEnd) {
+            lazyStart = address;
+            lazyEnd = address;
+        }
+
+        int newStart = Math.min(lazyStart, address);
+        int newEnd = Math.max(lazyEnd, address + 1);
+        if (newStart != lazyStart || newEnd != lazyEnd) {
+            ILazyWord[] newLazyWords = new ILazyWord[newEnd - newStart];
+            System.arraycopy(lazyWords, 0, newLazyWords, lazyStart - newStart, lazyWords.length);
+            lazyWords = newLazyWords;
+            lazyStart = newStart;
+            lazyEnd = newEnd;
+        }
+
+        lazyWords[address - lazyStart] = lazyWord;
+    }
+
+    /**
+     * Removes the {@link ILazyWord} at the specified address, materializing it
+     * @param address The address of the lazy word to remove
+     * @return The removed lazy word or null if there was none
+     */
+    public @Nullable ILazyWord removeLazyWord(int address) {
+        ILazyWord lazyWord = getLazyWord(address);
+        if (lazyWord == null) return null;
+
+        lazyWords[address - lazyStart] = null;
+        lazyWord.materialize();
+        return lazyWord;
+    }
+
+    /**
+     * Returns the {@link ILazyWord} at the specified address
+     * @param address The address of the lazy word
+     * @return The lazy word at the specified address or null if there's none
+     */
+    public @Nullable ILazyWord getLazyWord(int address) {
+        return address >= lazyStart && address < lazyEnd ? lazyWords[address - lazyStart] : null;
+    }
+
+    /**
+     * Materializes all {@link ILazyWord}s, so that their values are stored in this Memory
+     */
+    public void materializeLazyWords() {
+        for (ILazyWord lazyWord : lazyWords)
+            if (lazyWord != null) lazyWord.materialize();
+    }
+
+    private void materialize(int address) {
+        ILazyWord lazyWord = lazyWords[address - lazyStart];
+        if (lazyWord != null) lazyWord.materialize();
+    }
+
     @Override
     public int getMaxValue() {
         return WORD.BIT_MASK;
@@ -28,51 +154,118 @@ public final class Memory implements IMemory {
 
     @Override
     public boolean isAddressValid(int address) {
-        return address >= 0 && getIndexFromAddress(address) + WORD.TOTAL_BYTES - 1 < MEMORY.length;
+        return address >= 0 && address < SIZE;
     }
 
     @Override
-    public int getSize() { return MEMORY.length / WORD.TOTAL_BYTES; }
-
-    private int getIndexFromAddress(int address) {
-        return address * WORD.TOTAL_BYTES;
-    }
+    public int getSize() { return SIZE; }
 
     private void validateAddress(int address) {
         if (!isAddressValid(address))
             throw new NullPointerException("Address (" + address + ") is out of memory!");
     }
 
+    /**
+     * Returns the array that stores the values of this Memory, one per element (an int[], a char[] or a byte[]).
+     * Accessing it directly skips validation, masking, {@link ILazyWord}s, the listener, the journal and watchpoints,
+     * so it's only meant for code generated by the {@link io.github.hds.pemu.jit.BlockCompiler}
+     * @return The array that stores the values of this Memory or null if they aren't stored in an array
+     */
+    public @Nullable Object getBackingArray() {
+        return null;
+    }
+
+    /**
+     * Returns the value stored at the specified address, which was already validated
+     * @param address The address to read
+     * @return The value at the specified address
+     */
+    protected abstract int read(int address);
+
+    /**
+     * Stores the specified value at the specified address, which was already validated
+     * @param address The address to write
+     * @param value The value to store, it's already masked by the {@link Word}'s bit mask
+     * @return The old value at the specified address
+     */
+    protected abstract int write(int address, int value);
+
     @Override
-    public synchronized int setValueAt(int address, int value) {
+    public int setValueAt(int address, int value) {
+        validateAddress(address);
+        // The old value is returned, so the word is materialized even if it's overwritten
+        if (address >= lazyStart && address < lazyEnd) materialize(address);
+        int newValue = value & WORD.BIT_MASK;
+        int oldValue = write(address, newValue);
+        onWritten(address, oldValue, newValue);
+        return oldValue;
+    }
 
+    private void onWritten(int address, int oldValue, int newValue) {
+        if (journal != null) journal.record(address, oldValue);
+        if (listener != null) listener.onValueWritten(address);
+        if (watchpoints != null) watchpoints.onWrite(address, newValue);
+    }
+
+    /**
+     * Stores the specified value at the specified address only if the current one is the expected one,
+     * the address was already validated. It isn't atomic, Memories shared between Threads must override it
+     * @param address The address to write
+     * @param expected The value that must be at the specified address, it's already masked
+     * @param value The value to store, it's already masked
+     * @return Whether or not the value was stored
+     */
+    protected boolean compareAndWrite(int address, int expected, int value) {
+        if (read(address) != expected) return false;
+        write(address, value);
+        return true;
+    }
+
+    @Override
+    public boolean compareAndSetValueAt(int address, int expected, int value) {
         validateAddress(address);
-        int oldValue = getValueAt(address);
+        if (address >= lazyStart && address < lazyEnd) materialize(address);
 
-        int index = getIndexFromAddress(address);
-        int[] bytes = WORD.getBytes(value);
-        for (int i = 0; i < bytes.length; i++) {
-            MEMORY[index + i] = (byte) bytes[i];
+        int oldValue = expected & WORD.BIT_MASK;
+        int newValue = value & WORD.BIT_MASK;
+        if (!compareAndWrite(address, oldValue, newValue)) {
+            if (watchpoints != null) watchpoints.onRead(address, read(address));
+            return false;
         }
 
-        return oldValue;
+        onWritten(address, oldValue, newValue);
+        return true;
     }
 
     @Override
-    public synchronized int getValueAt(int address) {
+    public int getAndAddValueAt(int address, int delta) {
         validateAddress(address);
+        if (address >= lazyStart && address < lazyEnd) materialize(address);
 
-        int index = getIndexFromAddress(address);
-        int[] bytes = new int[WORD.TOTAL_BYTES];
-        for (int i = 0; i < bytes.length; i++) {
-            bytes[i] = Byte.toUnsignedInt(MEMORY[index + i]);
-        }
+        int oldValue;
+        int newValue;
+        do {
+            oldValue = read(address);
+            newValue = (oldValue + delta) & WORD.BIT_MASK;
+        } while (!compareAndWrite(address, oldValue, newValue));
+
+        onWritten(address, oldValue, newValue);
+        return oldValue;
+    }
 
-        return WORD.combineBytes(bytes);
+    @Override
+    public int getValueAt(int address) {
+        validateAddress(address);
+        if (address >= lazyStart && address < lazyEnd) materialize(address);
+        if (watchpoints == null) return read(address);
+
+        int value = read(address);
+        watchpoints.onRead(address, value);
+        return value;
     }
 
     @Override
-    public synchronized int[] setValuesAt(int address, int[] values) {
+    public int[] setValuesAt(int address, int[] values) {
         validateAddress(address);
 
         if (values.length == 0) return values;
@@ -85,16 +278,35 @@ public final class Memory implements IMemory {
         return oldValues;
     }
 
+    /**
+     * Replaces all values of this Memory with the specified ones, it's faster than {@link #setValuesAt(int, int[])}
+     * because old values aren't returned and only values that changed are written. {@link ILazyWord}s are materialized
+     * before and read back from Memory afterwards. The listener isn't notified and the journal doesn't record anything,
+     * whoever restores the values should throw away whatever it derived from the old ones
+     * @param values The new values, there must be one for each address
+     */
+    public void restore(int[] values) {
+        if (values.length != SIZE)
+            throw new IllegalArgumentException("Expected " + SIZE + " values, got " + values.length + ".");
+
+        materializeLazyWords();
+        for (int i = 0; i < SIZE; i++) {
+            int value = values[i] & WORD.BIT_MASK;
+            if (read(i) != value) write(i, value);
+        }
+    }
+
     @Override
-    public synchronized int[] getValuesAt(int address, int size) {
+    public int[] getValuesAt(int address, int size) {
         validateAddress(address);
 
         if (size == 0) return new int[0];
         validateAddress(address + size - 1);
+        for (int i = Math.max(address, lazyStart); i < Math.min(address + size, lazyEnd); i++) materialize(i);
 
         int[] values = new int[size];
         for (int i = 0; i < size; i++) {
-            values[i] = getValueAt(address + i);
+            values[i] = read(address + i);
         }
         return values;
     }
@@ -0,0 +1,19 @@
+package io.github.hds.pemu.memory;
+
+/**
+ * The ways a {@link Memory} can store its values
+ */
+public enum MemoryType {
+    /**
+     * Values are stored in an array on the JVM's heap (See {@link Memory#getMemory(int, Word)})
+     */
+    HEAP,
+    /**
+     * Values are stored in a file which is mapped into memory (See {@link MappedMemory})
+     */
+    MAPPED,
+    /**
+     * Values are stored in pages on the JVM's heap which are only allocated when written (See {@link SparseMemory})
+     */
+    SPARSE
+}
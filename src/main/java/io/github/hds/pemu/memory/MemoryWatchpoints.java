@@ -0,0 +1,45 @@
+package io.github.hds.pemu.memory;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.BitSet;
+
+/**
+ * The addresses of a {@link Memory} whose reads or writes are watched, kept in bitmaps so that checking an access
+ * takes constant time. Memory only checks them while they're set, so watching nothing costs nothing
+ * (See {@link Memory#setWatchpoints(MemoryWatchpoints)})
+ */
+public final class MemoryWatchpoints {
+
+    private final BitSet READS;
+    private final BitSet WRITES;
+    private final @NotNull IWatchpointListener LISTENER;
+
+    /**
+     * @param reads The addresses whose reads are watched, it's copied
+     * @param writes The addresses whose writes are watched, it's copied
+     * @param listener The {@link IWatchpointListener} that gets notified when a watched address is accessed
+     */
+    public MemoryWatchpoints(@NotNull BitSet reads, @NotNull BitSet writes, @NotNull IWatchpointListener listener) {
+        READS = (BitSet) reads.clone();
+        WRITES = (BitSet) writes.clone();
+        LISTENER = listener;
+    }
+
+    public boolean isReadWatched(int address) {
+        return READS.get(address);
+    }
+
+    public boolean isWriteWatched(int address) {
+        return WRITES.get(address);
+    }
+
+    protected void onRead(int address, int value) {
+        if (READS.get(address)) LISTENER.onWatchpointHit(address, false, value);
+    }
+
+    protected void onWrite(int address, int value) {
+        if (WRITES.get(address)) LISTENER.onWatchpointHit(address, true, value);
+    }
+
+}
@@ -0,0 +1,65 @@
+package io.github.hds.pemu.memory;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A {@link Memory} that can be accessed by many Threads at once (e.g. by the cores of a
+ * {@link io.github.hds.pemu.processor.MultiCoreProcessor}), each value is stored in an element of an {@link AtomicIntegerArray}.
+ * Reads and writes are always visible to other Threads and {@link #compareAndSetValueAt(int, int, int)} and
+ * {@link #getAndAddValueAt(int, int)} are atomic. Cores access it through their own {@link CoreMemory},
+ * writes done by a core to words that any core executed are passed on to the others (See {@link CoreMemory#applyRemoteWrites()})
+ */
+public final class SharedMemory extends Memory {
+
+    private final AtomicIntegerArray MEMORY;
+    // One bit for each word, set once a core may have executed it. Writes to other words aren't passed on
+    private final AtomicLongArray CODE;
+    private final CopyOnWriteArrayList<CoreMemory> CORES = new CopyOnWriteArrayList<>();
+
+    public SharedMemory(int size, @NotNull Word word) {
+        super(size, word);
+        MEMORY = new AtomicIntegerArray(size);
+        CODE = new AtomicLongArray((size + Long.SIZE - 1) / Long.SIZE);
+    }
+
+    protected void addCore(@NotNull CoreMemory core) {
+        CORES.add(core);
+    }
+
+    // Marks the specified words as code, it must be done before they're read by the core that executes them:
+    //  a write either happens before that read or sees the mark and is passed on
+    protected void markCode(int start, int end) {
+        for (int address = Math.max(0, start); address < Math.min(end, getSize()); address++) {
+            int index = address / Long.SIZE;
+            long bit = 1L << (address % Long.SIZE);
+            long bits = CODE.get(index);
+            if ((bits & bit) == 0) CODE.getAndAccumulate(index, bit, (a, b) -> a | b);
+        }
+    }
+
+    // Passes the write done by the specified core on to all other cores, if the written word is code
+    protected void onCoreWrite(@NotNull CoreMemory writer, int address) {
+        if ((CODE.get(address / Long.SIZE) & (1L << (address % Long.SIZE))) == 0) return;
+        for (CoreMemory core : CORES)
+            if (core != writer) core.queueRemoteWrite(address);
+    }
+
+    @Override
+    protected int read(int address) {
+        return MEMORY.get(address);
+    }
+
+    @Override
+    protected int write(int address, int value) {
+        return MEMORY.getAndSet(address, value);
+    }
+
+    @Override
+    protected boolean compareAndWrite(int address, int expected, int value) {
+        return MEMORY.compareAndSet(address, expected, value);
+    }
+}
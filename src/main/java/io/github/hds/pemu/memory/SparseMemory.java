@@ -0,0 +1,74 @@
+package io.github.hds.pemu.memory;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link Memory} that allocates its values in pages when they're first written,
+ * pages that were never written read as 0. Useful for big Memories that are mostly empty
+ */
+public final class SparseMemory extends Memory {
+
+    public static final int PAGE_BITS = 10;
+    public static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private final int[][] PAGES;
+
+    // The last page that was accessed, most accesses fall on the same page as the previous one
+    private int lastPageIndex = -1;
+    private int[] lastPage = null;
+
+    public SparseMemory(int size, @NotNull Word word) {
+        super(size, word);
+        PAGES = new int[(size + PAGE_MASK) >> PAGE_BITS][];
+    }
+
+    /**
+     * Returns how many pages were allocated
+     * @return How many pages were allocated
+     */
+    public int getAllocatedPages() {
+        int allocatedPages = 0;
+        for (int[] page : PAGES)
+            if (page != null) allocatedPages++;
+        return allocatedPages;
+    }
+
+    private int[] getPage(int pageIndex) {
+        if (pageIndex == lastPageIndex) return lastPage;
+
+        int[] page = PAGES[pageIndex];
+        // Untouched pages aren't cached since they may be allocated by the next write
+        if (page != null) {
+            lastPageIndex = pageIndex;
+            lastPage = page;
+        }
+        return page;
+    }
+
+    @Override
+    protected int read(int address) {
+        int[] page = getPage(address >> PAGE_BITS);
+        return page == null ? 0 : page[address & PAGE_MASK];
+    }
+
+    @Override
+    protected int write(int address, int value) {
+        int pageIndex = address >> PAGE_BITS;
+        int[] page = getPage(pageIndex);
+        if (page == null) {
+            // Writing 0 to an untouched page doesn't change anything
+            if (value == 0) return 0;
+
+            page = new int[PAGE_SIZE];
+            PAGES[pageIndex] = page;
+            lastPageIndex = pageIndex;
+            lastPage = page;
+        }
+
+        int index = address & PAGE_MASK;
+        int oldValue = page[index];
+        page[index] = value;
+        return oldValue;
+    }
+}
@@ -0,0 +1,198 @@
+package io.github.hds.pemu.memory;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A bounded journal of the values overwritten in a {@link Memory}, grouped into steps (e.g. one for each Instruction).
+ * Values and step markers are kept in ring buffers of primitives, so recording doesn't allocate and the oldest
+ * ones are dropped when they're full. Undoing a step writes back the old values of all addresses it wrote
+ * (See {@link Memory#setJournal(UndoJournal)}). Each step can also hold a few values that aren't in Memory
+ * (e.g. how many cycles were executed before it), which are given back when it's undone
+ */
+public final class UndoJournal {
+
+    // Each write stores an address and its old value, each step stores the index of its first write and its values
+    public static final int WRITE_BYTES = 2 * Integer.BYTES;
+    public static final int STEP_BYTES = Long.BYTES;
+    public static final int STEP_VALUE_BYTES = Long.BYTES;
+
+    private final int[] ADDRESSES;
+    private final int[] OLD_VALUES;
+    // How many writes were recorded, the index of the next one in the ring buffer is writes % capacity
+    private long writes = 0;
+    private int writeHead = 0;
+
+    // The index of the first write of each step
+    private final long[] STEPS;
+    private int stepHead = 0;
+    private int stepCount = 0;
+    // The values of each step, STEP_VALUES_COUNT for each one
+    private final long[] STEP_VALUES;
+    private final int STEP_VALUES_COUNT;
+
+    // Writes done while undoing aren't recorded
+    private boolean isUndoing = false;
+
+    /**
+     * @param capacity The max amount of writes that are kept
+     * @param maxSteps The max amount of steps that are kept
+     */
+    public UndoJournal(int capacity, int maxSteps) {
+        this(capacity, maxSteps, 0);
+    }
+
+    /**
+     * @param capacity The max amount of writes that are kept
+     * @param maxSteps The max amount of steps that are kept
+     * @param stepValues How many values each step holds (See {@link #setStepValue(int, long)})
+     */
+    public UndoJournal(int capacity, int maxSteps, int stepValues) {
+        if (capacity <= 0 || maxSteps <= 0)
+            throw new IllegalArgumentException("Undo Journal must be able to hold at least one write and one step.");
+        if (stepValues < 0) throw new IllegalArgumentException("Undo Journal steps can't hold a negative amount of values.");
+
+        ADDRESSES = new int[capacity];
+        OLD_VALUES = new int[capacity];
+        STEPS = new long[maxSteps];
+        STEP_VALUES = new long[maxSteps * stepValues];
+        STEP_VALUES_COUNT = stepValues;
+    }
+
+    /**
+     * Starts a new step, all writes recorded after this are undone with it
+     */
+    public void mark() {
+        STEPS[stepHead] = writes;
+        for (int i = 0; i < STEP_VALUES_COUNT; i++) STEP_VALUES[stepHead * STEP_VALUES_COUNT + i] = 0;
+        stepHead = stepHead + 1 == STEPS.length ? 0 : stepHead + 1;
+        if (stepCount < STEPS.length) stepCount++;
+    }
+
+    /**
+     * Sets one of the values of the last step, they're all 0 when it's started
+     * @param index The index of the value, between 0 and the amount of values each step holds
+     * @param value The new value
+     * @throws IllegalStateException If no step was started
+     */
+    public void setStepValue(int index, long value) {
+        if (stepCount == 0) throw new IllegalStateException("Undo Journal has no step to set the values of.");
+        int lastStep = stepHead == 0 ? STEPS.length - 1 : stepHead - 1;
+        STEP_VALUES[lastStep * STEP_VALUES_COUNT + index] = value;
+    }
+
+    /**
+     * Records that the specified address was overwritten, it's called by {@link Memory} or by whoever keeps
+     * values that belong to it somewhere else (e.g. {@link ILazyWord}s)
+     * @param address The address that was written
+     * @param oldValue The value it had before being written
+     */
+    public void record(int address, int oldValue) {
+        if (isUndoing) return;
+
+        ADDRESSES[writeHead] = address;
+        OLD_VALUES[writeHead] = oldValue;
+        writeHead = writeHead + 1 == ADDRESSES.length ? 0 : writeHead + 1;
+        writes++;
+    }
+
+    /**
+     * Returns how many steps can be undone, steps whose first writes were dropped can't be
+     * @return How many steps can be undone
+     */
+    public int getSteps() {
+        long oldestWrite = Math.max(0, writes - ADDRESSES.length);
+        int steps = 0;
+        for (int i = 1; i <= stepCount; i++) {
+            int index = stepHead - i < 0 ? stepHead - i + STEPS.length : stepHead - i;
+            if (STEPS[index] < oldestWrite) break;
+            steps++;
+        }
+        return steps;
+    }
+
+    /**
+     * Undoes the last step by writing back the old values of all addresses written since it was started,
+     * the most recent write is undone first
+     * @param memory The {@link IMemory} the writes were done to
+     * @return Whether or not a step was undone, false if there's none or if its oldest writes were dropped
+     */
+    public boolean undo(@NotNull IMemory memory) {
+        return undo(memory, null);
+    }
+
+    /**
+     * Undoes the last step like {@link #undo(IMemory)} and copies its values into the specified array
+     * @param memory The {@link IMemory} the writes were done to
+     * @param stepValues The array the values of the undone step are copied into, if it's null they're not copied
+     * @return Whether or not a step was undone, false if there's none or if its oldest writes were dropped
+     */
+    public boolean undo(@NotNull IMemory memory, @Nullable long[] stepValues) {
+        if (stepCount == 0) return false;
+
+        int lastStep = stepHead == 0 ? STEPS.length - 1 : stepHead - 1;
+        long stepStart = STEPS[lastStep];
+        if (stepStart < writes - ADDRESSES.length) {
+            // It can't be undone and neither can the ones before it
+            clear();
+            return false;
+        }
+
+        stepHead = lastStep;
+        stepCount--;
+        if (stepValues != null)
+            System.arraycopy(STEP_VALUES, lastStep * STEP_VALUES_COUNT, stepValues, 0, STEP_VALUES_COUNT);
+
+        isUndoing = true;
+        try {
+            while (writes > stepStart) {
+                writeHead = writeHead == 0 ? ADDRESSES.length - 1 : writeHead - 1;
+                writes--;
+                memory.setValueAt(ADDRESSES[writeHead], OLD_VALUES[writeHead]);
+            }
+        } finally {
+            isUndoing = false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns how many writes were recorded since the last step was started
+     * @return How many writes were recorded since the last step was started
+     */
+    public long getStepWrites() {
+        if (stepCount == 0) return 0;
+        return writes - STEPS[stepHead == 0 ? STEPS.length - 1 : stepHead - 1];
+    }
+
+    /**
+     * Drops the last step and its writes without undoing them (e.g. because it didn't change anything)
+     */
+    public void discardStep() {
+        if (stepCount == 0) return;
+
+        int lastStep = stepHead == 0 ? STEPS.length - 1 : stepHead - 1;
+        long stepStart = STEPS[lastStep];
+        if (stepStart < writes - ADDRESSES.length) {
+            clear();
+            return;
+        }
+
+        stepHead = lastStep;
+        stepCount--;
+        writeHead = (int) ((writeHead - (writes - stepStart)) % ADDRESSES.length);
+        if (writeHead < 0) writeHead += ADDRESSES.length;
+        writes = stepStart;
+    }
+
+    /**
+     * Drops all recorded writes and steps
+     */
+    public void clear() {
+        writes = 0;
+        writeHead = 0;
+        stepHead = 0;
+        stepCount = 0;
+    }
+
+}
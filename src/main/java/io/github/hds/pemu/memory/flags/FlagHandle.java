@@ -0,0 +1,58 @@
+package io.github.hds.pemu.memory.flags;
+
+import io.github.hds.pemu.processor.IProcessor;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+
+/**
+ * A handle to the short name of Flags, it's resolved to a slot when it's created so that
+ * {@link FlagHolder}s and {@link IProcessor}s can return the Flag it refers to without looking up its name.
+ * There's only one handle for each short name, so they should be created once and stored
+ * (e.g. in a static field of an Instruction)
+ */
+public final class FlagHandle {
+
+    private static final HashMap<String, FlagHandle> HANDLES = new HashMap<>();
+
+    private final @NotNull String SHORT_NAME;
+    private final int SLOT;
+
+    private FlagHandle(@NotNull String shortName, int slot) {
+        SHORT_NAME = shortName;
+        SLOT = slot;
+    }
+
+    /**
+     * Returns the handle of the specified short name, creating it if it doesn't exist
+     * @param shortName The short name of the Flags the handle refers to
+     * @return The handle of the specified short name
+     */
+    public static synchronized @NotNull FlagHandle getHandle(@NotNull String shortName) {
+        FlagHandle handle = HANDLES.get(shortName);
+        if (handle == null) {
+            handle = new FlagHandle(shortName, HANDLES.size());
+            HANDLES.put(shortName, handle);
+        }
+        return handle;
+    }
+
+    public @NotNull String getShortName() {
+        return SHORT_NAME;
+    }
+
+    /**
+     * Returns the slot of this handle, each handle has a different one
+     * and they're assigned starting from 0
+     * @return The slot of this handle
+     */
+    public int getSlot() {
+        return SLOT;
+    }
+
+    @Override
+    public String toString() {
+        return SHORT_NAME;
+    }
+
+}
@@ -3,12 +3,15 @@ package io.github.hds.pemu.memory.flags;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.function.BiConsumer;
 
 public final class FlagHolder<T extends IFlag> {
 
     private final HashMap<String, T> FLAGS;
+    // Flags indexed by the slot of their handle, so that they can be retrieved without hashing their names
+    private IFlag[] slots = new IFlag[0];
 
     public FlagHolder() {
         FLAGS = new HashMap<>();
@@ -42,6 +45,10 @@ public final class FlagHolder<T extends IFlag> {
         if (FLAGS.containsKey(shortName))
             throw new IllegalArgumentException("Flags can't have duplicate short names (" + shortName + ")!");
         FLAGS.put(flag.getShortName(), flag);
+
+        int slot = FlagHandle.getHandle(shortName).getSlot();
+        if (slot >= slots.length) slots = Arrays.copyOf(slots, slot + 1);
+        slots[slot] = flag;
         return this;
     }
 
@@ -52,6 +59,8 @@ public final class FlagHolder<T extends IFlag> {
     }
 
     public @Nullable T removeFlag(@NotNull String shortName) {
+        int slot = FlagHandle.getHandle(shortName).getSlot();
+        if (slot < slots.length) slots[slot] = null;
         return FLAGS.remove(shortName);
     }
 
@@ -59,6 +68,12 @@ public final class FlagHolder<T extends IFlag> {
         return FLAGS.get(shortName);
     }
 
+    @SuppressWarnings("unchecked")
+    public @Nullable T getFlag(@NotNull FlagHandle handle) {
+        int slot = handle.getSlot();
+        return slot < slots.length ? (T) slots[slot] : null;
+    }
+
     public @NotNull FlagHolder<T> forEach(@NotNull BiConsumer<String, T> action) {
         FLAGS.forEach(action);
         return this;
@@ -0,0 +1,82 @@
+package io.github.hds.pemu.memory.flags;
+
+import io.github.hds.pemu.memory.ILazyWord;
+import io.github.hds.pemu.memory.Memory;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A word of {@link Memory} that holds Flags whose values are only stored when the word is accessed,
+ * it must be added to the lazy words of its {@link Memory} (See {@link Memory#addLazyWord(ILazyWord)}).
+ * Most Flags are overwritten before being read, so this avoids reading and writing Memory every time they're set
+ */
+public final class LazyFlagWord implements ILazyWord {
+
+    private final @NotNull Memory MEMORY;
+    private final int ADDRESS;
+
+    // The word is copied here when a Flag is accessed and stored back when Memory accesses it
+    private boolean isCached = false;
+    private boolean isDirty = false;
+    private int cachedValue = 0;
+
+    public LazyFlagWord(@NotNull Memory memory, int address) {
+        MEMORY = memory;
+        ADDRESS = address;
+    }
+
+    @Override
+    public int getAddress() {
+        return ADDRESS;
+    }
+
+    /**
+     * Returns the value of the whole word, it's only read from Memory if it isn't cached
+     * @return The value of the word
+     */
+    public int getValue() {
+        if (!isCached) {
+            cachedValue = MEMORY.getValueAt(ADDRESS);
+            isCached = true;
+        }
+        return cachedValue;
+    }
+
+    /**
+     * Returns the value of the specified bit, the word is only read from Memory if it isn't cached
+     * @param bit The bit to get the value of
+     * @return The value of the specified bit
+     */
+    public boolean getBit(int bit) {
+        return (getValue() & (1 << bit)) != 0;
+    }
+
+    /**
+     * Sets the value of the specified bit, it's stored into Memory when the word is materialized
+     * @param bit The bit to set the value of
+     * @param value The new value of the bit
+     * @return The old value of the bit
+     */
+    public boolean setBit(int bit, boolean value) {
+        boolean oldValue = getBit(bit);
+
+        if (value) cachedValue |= 1 << bit;
+        else cachedValue &= ~(1 << bit);
+        isDirty = true;
+
+        return oldValue;
+    }
+
+    @Override
+    public void materialize() {
+        if (!isCached) return;
+
+        // Memory may be written after this, so the word must be read again the next time a Flag is accessed
+        //  (This is cleared first because writing Memory materializes this word again)
+        isCached = false;
+        if (isDirty) {
+            isDirty = false;
+            MEMORY.setValueAt(ADDRESS, cachedValue);
+        }
+    }
+
+}
@@ -0,0 +1,47 @@
+package io.github.hds.pemu.memory.flags;
+
+import io.github.hds.pemu.utils.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A Flag held in Memory by a {@link LazyFlagWord}, its value is only stored when the word is accessed
+ */
+public class LazyMemoryFlag extends AbstractFlag implements IMemoryFlag {
+
+    private final @NotNull LazyFlagWord BOUND_WORD;
+    private final int BOUND_BIT;
+
+    public LazyMemoryFlag(boolean value, @NotNull String fullName, @NotNull LazyFlagWord boundWord, int boundBit) {
+        this(value, fullName, StringUtils.toShortName(fullName), boundWord, boundBit);
+    }
+
+    public LazyMemoryFlag(boolean value, @Nullable String fullName, @NotNull String shortName, @NotNull LazyFlagWord boundWord, int boundBit) {
+        super(fullName, shortName);
+
+        BOUND_WORD = boundWord;
+        BOUND_BIT = boundBit;
+
+        setValue(value);
+    }
+
+    @Override
+    public int getAddress() {
+        return BOUND_WORD.getAddress();
+    }
+
+    @Override
+    public int getBit() {
+        return BOUND_BIT;
+    }
+
+    @Override
+    public boolean getValue() {
+        return BOUND_WORD.getBit(BOUND_BIT);
+    }
+
+    @Override
+    public boolean setValue(boolean value) {
+        return BOUND_WORD.setBit(BOUND_BIT, value);
+    }
+}
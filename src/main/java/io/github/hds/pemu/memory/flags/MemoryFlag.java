@@ -36,13 +36,13 @@ public class MemoryFlag extends AbstractFlag implements IMemoryFlag {
     }
 
     @Override
-    public synchronized boolean getValue() {
+    public boolean getValue() {
         int boundValue = BOUND_MEMORY.getValueAt(BOUND_ADDRESS);
         return ( boundValue & (1 << BOUND_BIT) ) != 0;
     }
 
     @Override
-    public synchronized boolean setValue(boolean value) {
+    public boolean setValue(boolean value) {
         int boundValue = BOUND_MEMORY.getValueAt(BOUND_ADDRESS);
 
         int bitMask = 1 << BOUND_BIT;
@@ -0,0 +1,73 @@
+package io.github.hds.pemu.memory.registers;
+
+import io.github.hds.pemu.memory.ILazyWord;
+import io.github.hds.pemu.memory.Memory;
+import io.github.hds.pemu.utils.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A Register held in Memory whose value is kept in a field while it's used and only stored
+ * into Memory when its address is accessed, it must be added to the lazy words of its {@link Memory}
+ * (See {@link Memory#addLazyWord(ILazyWord)})
+ */
+public class LazyMemoryRegister extends AbstractRegister implements IMemoryRegister, ILazyWord {
+
+    private final @NotNull Memory BOUND_MEMORY;
+    private final int BOUND_ADDRESS;
+    private final int BIT_MASK;
+
+    // The value is copied here when the Register is accessed and stored back when Memory accesses it
+    private boolean isCached = false;
+    private boolean isDirty = false;
+    private int cachedValue = 0;
+
+    public LazyMemoryRegister(int value, @NotNull String fullName, @NotNull Memory boundMemory, int boundAddress) {
+        this(value, fullName, StringUtils.toShortName(fullName), boundMemory, boundAddress);
+    }
+
+    public LazyMemoryRegister(int value, @Nullable String fullName, @NotNull String shortName, @NotNull Memory boundMemory, int boundAddress) {
+        super(fullName, shortName);
+
+        BOUND_MEMORY = boundMemory;
+        BOUND_ADDRESS = boundAddress;
+        BIT_MASK = boundMemory.getWord().BIT_MASK;
+
+        setValue(value);
+    }
+
+    @Override
+    public int getAddress() {
+        return BOUND_ADDRESS;
+    }
+
+    @Override
+    public int getValue() {
+        if (!isCached) {
+            cachedValue = BOUND_MEMORY.getValueAt(BOUND_ADDRESS);
+            isCached = true;
+        }
+        return cachedValue;
+    }
+
+    @Override
+    public int setValue(int value) {
+        int oldValue = getValue();
+        cachedValue = value & BIT_MASK;
+        isDirty = true;
+        return oldValue;
+    }
+
+    @Override
+    public void materialize() {
+        if (!isCached) return;
+
+        // Memory may be written after this, so the value must be read again the next time the Register is accessed
+        //  (This is cleared first because writing Memory materializes this Register again)
+        isCached = false;
+        if (isDirty) {
+            isDirty = false;
+            BOUND_MEMORY.setValueAt(BOUND_ADDRESS, cachedValue);
+        }
+    }
+}
@@ -28,15 +28,13 @@ public class MemoryRegister extends AbstractRegister implements IMemoryRegister
         return BOUND_ADDRESS;
     }
 
-    /* Not sure if this needs to be synchronized since Memory's methods already are */
-
     @Override
-    public synchronized int getValue() {
+    public int getValue() {
         return BOUND_MEMORY.getValueAt(BOUND_ADDRESS);
     }
 
     @Override
-    public synchronized int setValue(int value) {
+    public int setValue(int value) {
         return BOUND_MEMORY.setValueAt(BOUND_ADDRESS, value);
     }
 }
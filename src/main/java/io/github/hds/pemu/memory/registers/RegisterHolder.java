@@ -3,12 +3,15 @@ package io.github.hds.pemu.memory.registers;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.function.BiConsumer;
 
 public final class RegisterHolder<T extends IRegister> {
 
     private final HashMap<String, T> REGISTERS;
+    // Registers indexed by the slot of their handle, so that they can be retrieved without hashing their names
+    private IRegister[] slots = new IRegister[0];
 
     public RegisterHolder() {
         REGISTERS = new HashMap<>();
@@ -42,6 +45,10 @@ public final class RegisterHolder<T extends IRegister> {
         if (REGISTERS.containsKey(shortName))
             throw new IllegalArgumentException("Registers can't have duplicate short names (" + shortName + ")!");
         REGISTERS.put(register.getShortName(), register);
+
+        int slot = RegisterHandle.getHandle(shortName).getSlot();
+        if (slot >= slots.length) slots = Arrays.copyOf(slots, slot + 1);
+        slots[slot] = register;
         return this;
     }
 
@@ -52,6 +59,8 @@ public final class RegisterHolder<T extends IRegister> {
     }
 
     public @Nullable T removeRegister(@NotNull String shortName) {
+        int slot = RegisterHandle.getHandle(shortName).getSlot();
+        if (slot < slots.length) slots[slot] = null;
         return REGISTERS.remove(shortName);
     }
 
@@ -59,6 +68,12 @@ public final class RegisterHolder<T extends IRegister> {
         return REGISTERS.get(shortName);
     }
 
+    @SuppressWarnings("unchecked")
+    public @Nullable T getRegister(@NotNull RegisterHandle handle) {
+        int slot = handle.getSlot();
+        return slot < slots.length ? (T) slots[slot] : null;
+    }
+
     public @NotNull RegisterHolder<T> forEach(@NotNull BiConsumer<String, T> action) {
         REGISTERS.forEach(action);
         return this;
@@ -32,7 +32,7 @@ public final class BasePlugin extends Plugin {
 
     @Override
     public IProcessor onCreateProcessor(@NotNull ProcessorConfig config) {
-        return new Processor(config);
+        return config.getCores() > 1 ? new MultiCoreProcessor(config) : new Processor(config);
     }
 
     @Override
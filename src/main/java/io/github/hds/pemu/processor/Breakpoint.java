@@ -0,0 +1,101 @@
+package io.github.hds.pemu.processor;
+
+import io.github.hds.pemu.memory.registers.IRegister;
+import io.github.hds.pemu.memory.registers.RegisterHandle;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A breakpoint at the address of an Instruction, the {@link IProcessor} is paused before executing it
+ * if its condition is true (See {@link Debugger#addBreakpoint(Breakpoint)})
+ */
+public final class Breakpoint {
+
+    public enum Comparison {
+        EQUAL, NOT_EQUAL, LESS, LESS_OR_EQUAL, GREATER, GREATER_OR_EQUAL;
+
+        public boolean test(int value, int other) {
+            switch (this) {
+                case EQUAL: return value == other;
+                case NOT_EQUAL: return value != other;
+                case LESS: return value < other;
+                case LESS_OR_EQUAL: return value <= other;
+                case GREATER: return value > other;
+                case GREATER_OR_EQUAL: return value >= other;
+                default: return false;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface ICondition {
+        /**
+         * Called by the {@link IProcessor}'s Thread when the Instruction at the address of the breakpoint is about to be executed
+         * @param p The {@link IProcessor} that is executing the Instruction
+         * @return Whether or not the {@link IProcessor} should be paused
+         */
+        boolean test(@NotNull IProcessor p);
+    }
+
+    private final int ADDRESS;
+    private final @Nullable ICondition CONDITION;
+
+    public Breakpoint(int address) {
+        this(address, null);
+    }
+
+    /**
+     * @param address The address of the Instruction to break at
+     * @param condition The condition that must be true to break, if null it always breaks
+     */
+    public Breakpoint(int address, @Nullable ICondition condition) {
+        ADDRESS = address;
+        CONDITION = condition;
+    }
+
+    /**
+     * Returns a condition which compares the value of a Register with the specified one
+     * @param shortName The short name of the Register (e.g. "SP")
+     * @param comparison How the value of the Register is compared
+     * @param value The value to compare the Register's with
+     * @return The new condition
+     */
+    public static @NotNull ICondition registerCondition(@NotNull String shortName, @NotNull Comparison comparison, int value) {
+        RegisterHandle handle = RegisterHandle.getHandle(shortName);
+        return p -> {
+            IRegister register = p.getRegister(handle);
+            if (register == null) throw new NullPointerException("Register '" + shortName + "' isn't present on the Processor.");
+            return comparison.test(register.getValue(), value);
+        };
+    }
+
+    /**
+     * Returns a condition which compares the value at an address of Memory with the specified one,
+     * reading it doesn't trigger watchpoints
+     * @param address The address of the value
+     * @param comparison How the value at the address is compared
+     * @param value The value to compare the one at the address with
+     * @return The new condition
+     */
+    public static @NotNull ICondition memoryCondition(int address, @NotNull Comparison comparison, int value) {
+        return p -> comparison.test(p.getMemory().getValuesAt(address, 1)[0], value);
+    }
+
+    public int getAddress() {
+        return ADDRESS;
+    }
+
+    public @Nullable ICondition getCondition() {
+        return CONDITION;
+    }
+
+    /**
+     * Tests the condition of this breakpoint
+     * @param p The {@link IProcessor} that is executing the Instruction at the address of this breakpoint
+     * @return Whether or not the {@link IProcessor} should be paused
+     */
+    public boolean test(@NotNull IProcessor p) {
+        return CONDITION == null || CONDITION.test(p);
+    }
+
+}
@@ -0,0 +1,306 @@
+package io.github.hds.pemu.processor;
+
+import io.github.hds.pemu.memory.Word;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.*;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The complete state of an {@link IProcessor} taken at a single point in time: its Memory, Registers, Flags,
+ * how many cycles and Instructions it executed, its time, its instruction history, its input and its interrupts.
+ * Unlike a {@link ProcessorSnapshot} it can be restored (See {@link IProcessor#restoreCheckpoint(Checkpoint)})
+ * and written to a file. Arrays are shared, so they shouldn't be modified
+ */
+public final class Checkpoint {
+
+    // "PEMC" (PEMU Checkpoint)
+    public static final int MAGIC = 0x50454D43;
+    public static final int VERSION = 1;
+
+    // How many bytes of Memory are compressed at once
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final int BITS;
+    private final int[] MEMORY;
+    private final int[] REGISTERS;
+    private final boolean[] FLAGS;
+
+    private final int CLOCK_FREQUENCY;
+    private final long EXECUTED_CYCLES;
+    // Less than the executed cycles if idle loops skipped some of them (See IProcessor#getExecutedInstructions)
+    private final long EXECUTED_INSTRUCTIONS;
+    private final long TIME;
+
+    // The instruction history, one entry for each address that has one
+    private final int[] HISTORY_ADDRESSES;
+    private final int[] HISTORY_KEY_CODES;
+    private final long[] HISTORY_COUNTS;
+
+    private final int KEY_PRESSED;
+    private final char CHAR_PRESSED;
+    private final int[] QUEUED_KEYS;
+    private final char[] QUEUED_CHARS;
+
+    private final int PENDING_INTERRUPTS;
+    private final long TIMER_PERIOD;
+    private final long NEXT_TIMER_TICK;
+
+    protected Checkpoint(
+            int bits, int[] memory, int[] registers, boolean[] flags,
+            int clockFrequency, long executedCycles, long executedInstructions, long time,
+            int[] historyAddresses, int[] historyKeyCodes, long[] historyCounts,
+            int keyPressed, char charPressed, int[] queuedKeys, char[] queuedChars,
+            int pendingInterrupts, long timerPeriod, long nextTimerTick
+    ) {
+        BITS = bits;
+        MEMORY = memory;
+        REGISTERS = registers;
+        FLAGS = flags;
+        CLOCK_FREQUENCY = clockFrequency;
+        EXECUTED_CYCLES = executedCycles;
+        EXECUTED_INSTRUCTIONS = executedInstructions;
+        TIME = time;
+        HISTORY_ADDRESSES = historyAddresses;
+        HISTORY_KEY_CODES = historyKeyCodes;
+        HISTORY_COUNTS = historyCounts;
+        KEY_PRESSED = keyPressed;
+        CHAR_PRESSED = charPressed;
+        QUEUED_KEYS = queuedKeys;
+        QUEUED_CHARS = queuedChars;
+        PENDING_INTERRUPTS = pendingInterrupts;
+        TIMER_PERIOD = timerPeriod;
+        NEXT_TIMER_TICK = nextTimerTick;
+    }
+
+    /**
+     * Writes this {@link Checkpoint} to the specified file, Memory is packed into as many bytes as its words have
+     * and everything is compressed, so mostly empty Memories take little space
+     * @param file The file to write to, it's overwritten if it exists
+     * @throws IOException If the file couldn't be written
+     */
+    public void write(@NotNull File file) throws IOException {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file)), deflater, BUFFER_SIZE
+        ))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+
+            out.writeInt(BITS);
+            out.writeInt(MEMORY.length);
+            writeMemory(out);
+
+            out.writeInt(REGISTERS.length);
+            for (int register : REGISTERS) out.writeInt(register);
+            out.writeInt(FLAGS.length);
+            for (boolean flag : FLAGS) out.writeBoolean(flag);
+
+            out.writeInt(CLOCK_FREQUENCY);
+            out.writeLong(EXECUTED_CYCLES);
+            out.writeLong(EXECUTED_INSTRUCTIONS);
+            out.writeLong(TIME);
+
+            out.writeInt(HISTORY_ADDRESSES.length);
+            for (int i = 0; i < HISTORY_ADDRESSES.length; i++) {
+                out.writeInt(HISTORY_ADDRESSES[i]);
+                out.writeInt(HISTORY_KEY_CODES[i]);
+                out.writeLong(HISTORY_COUNTS[i]);
+            }
+
+            out.writeInt(KEY_PRESSED);
+            out.writeChar(CHAR_PRESSED);
+            out.writeInt(QUEUED_KEYS.length);
+            for (int i = 0; i < QUEUED_KEYS.length; i++) {
+                out.writeInt(QUEUED_KEYS[i]);
+                out.writeChar(QUEUED_CHARS[i]);
+            }
+
+            out.writeInt(PENDING_INTERRUPTS);
+            out.writeLong(TIMER_PERIOD);
+            out.writeLong(NEXT_TIMER_TICK);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private void writeMemory(@NotNull DataOutputStream out) throws IOException {
+        int wordBytes = Word.getClosestWord(BITS).TOTAL_BYTES;
+        byte[] buffer = new byte[BUFFER_SIZE - BUFFER_SIZE % wordBytes];
+
+        int length = 0;
+        for (int value : MEMORY) {
+            // Big-endian, like DataOutputStream
+            for (int shift = (wordBytes - 1) * Byte.SIZE; shift >= 0; shift -= Byte.SIZE)
+                buffer[length++] = (byte) (value >> shift);
+
+            if (length == buffer.length) {
+                out.write(buffer, 0, length);
+                length = 0;
+            }
+        }
+        out.write(buffer, 0, length);
+    }
+
+    /**
+     * Reads a {@link Checkpoint} written by {@link #write(File)}
+     * @param file The file to read from
+     * @return The {@link Checkpoint} stored in the file
+     * @throws IOException If the file couldn't be read or isn't a valid {@link Checkpoint}
+     */
+    public static @NotNull Checkpoint read(@NotNull File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(
+                new BufferedInputStream(new FileInputStream(file)), new java.util.zip.Inflater(), BUFFER_SIZE
+        ))) {
+            if (in.readInt() != MAGIC) throw new IOException("'" + file.getName() + "' isn't a Checkpoint.");
+            int version = in.readInt();
+            if (version != VERSION) throw new IOException("Unsupported Checkpoint version " + version + ".");
+
+            int bits = in.readInt();
+            int[] memory = readMemory(in, bits, readLength(in));
+
+            int[] registers = new int[readLength(in)];
+            for (int i = 0; i < registers.length; i++) registers[i] = in.readInt();
+            boolean[] flags = new boolean[readLength(in)];
+            for (int i = 0; i < flags.length; i++) flags[i] = in.readBoolean();
+
+            int clockFrequency = in.readInt();
+            long executedCycles = in.readLong();
+            long executedInstructions = in.readLong();
+            long time = in.readLong();
+
+            int historySize = readLength(in);
+            int[] historyAddresses = new int[historySize];
+            int[] historyKeyCodes = new int[historySize];
+            long[] historyCounts = new long[historySize];
+            for (int i = 0; i < historySize; i++) {
+                historyAddresses[i] = in.readInt();
+                historyKeyCodes[i] = in.readInt();
+                historyCounts[i] = in.readLong();
+            }
+
+            int keyPressed = in.readInt();
+            char charPressed = in.readChar();
+            int queueSize = readLength(in);
+            int[] queuedKeys = new int[queueSize];
+            char[] queuedChars = new char[queueSize];
+            for (int i = 0; i < queueSize; i++) {
+                queuedKeys[i] = in.readInt();
+                queuedChars[i] = in.readChar();
+            }
+
+            int pendingInterrupts = in.readInt();
+            long timerPeriod = in.readLong();
+            long nextTimerTick = in.readLong();
+
+            return new Checkpoint(
+                    bits, memory, registers, flags,
+                    clockFrequency, executedCycles, executedInstructions, time,
+                    historyAddresses, historyKeyCodes, historyCounts,
+                    keyPressed, charPressed, queuedKeys, queuedChars,
+                    pendingInterrupts, timerPeriod, nextTimerTick
+            );
+        }
+    }
+
+    private static int readLength(@NotNull DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) throw new IOException("Invalid length " + length + " in Checkpoint.");
+        return length;
+    }
+
+    private static int[] readMemory(@NotNull DataInputStream in, int bits, int size) throws IOException {
+        int wordBytes = Word.getClosestWord(bits).TOTAL_BYTES;
+        byte[] buffer = new byte[BUFFER_SIZE - BUFFER_SIZE % wordBytes];
+        int[] memory = new int[size];
+
+        int address = 0;
+        while (address < size) {
+            int length = Math.min(buffer.length, (size - address) * wordBytes);
+            in.readFully(buffer, 0, length);
+
+            for (int i = 0; i < length; i += wordBytes) {
+                int value = 0;
+                for (int j = 0; j < wordBytes; j++)
+                    value = (value << Byte.SIZE) | (buffer[i + j] & 0xFF);
+                memory[address++] = value;
+            }
+        }
+        return memory;
+    }
+
+    public int getBits() {
+        return BITS;
+    }
+
+    public int[] getMemory() {
+        return MEMORY;
+    }
+
+    public int[] getRegisters() {
+        return REGISTERS;
+    }
+
+    public boolean[] getFlags() {
+        return FLAGS;
+    }
+
+    public int getClockFrequency() {
+        return CLOCK_FREQUENCY;
+    }
+
+    public long getExecutedCycles() {
+        return EXECUTED_CYCLES;
+    }
+
+    public long getExecutedInstructions() {
+        return EXECUTED_INSTRUCTIONS;
+    }
+
+    public long getTime() {
+        return TIME;
+    }
+
+    public int[] getHistoryAddresses() {
+        return HISTORY_ADDRESSES;
+    }
+
+    public int[] getHistoryKeyCodes() {
+        return HISTORY_KEY_CODES;
+    }
+
+    public long[] getHistoryCounts() {
+        return HISTORY_COUNTS;
+    }
+
+    public int getKeyPressed() {
+        return KEY_PRESSED;
+    }
+
+    public char getCharPressed() {
+        return CHAR_PRESSED;
+    }
+
+    public int[] getQueuedKeys() {
+        return QUEUED_KEYS;
+    }
+
+    public char[] getQueuedChars() {
+        return QUEUED_CHARS;
+    }
+
+    public int getPendingInterrupts() {
+        return PENDING_INTERRUPTS;
+    }
+
+    public long getTimerPeriod() {
+        return TIMER_PERIOD;
+    }
+
+    public long getNextTimerTick() {
+        return NEXT_TIMER_TICK;
+    }
+
+}
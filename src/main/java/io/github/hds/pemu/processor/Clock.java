@@ -1,5 +1,7 @@
 package io.github.hds.pemu.processor;
 
+import java.util.concurrent.locks.LockSupport;
+
 public final class Clock {
 
     // 1 billion is the max because it's 1 update each nano second
@@ -8,11 +10,24 @@ public final class Clock {
     public static final int MAX_FREQUENCY = 1_000_000_000;
     // 1 is the minimum because floating Hz aren't supported
     public static final int MIN_FREQUENCY = 1;
+    // A Clock with this frequency never waits, it always triggers as soon as it's updated
+    public static final int UNLIMITED_FREQUENCY = 0;
+
+    // The min amount of time (in nano seconds) that the Clock waits between batches of cycles,
+    //  parking a Thread for less than that isn't precise and high frequencies would need to park after each cycle
+    private static final long MIN_BATCH_INTERVAL = 1_000_000;
+    // If cycles are late by more than this amount of time (in nano seconds)
+    //  then whoever is updating the Clock can't keep up and late cycles are dropped
+    private static final long MAX_LAG = 100_000_000;
 
     private int frequency;
     private long interval;
     private long lastUpdated = 0;
     private long lastDelta = 0;
+    private long lastTriggered = 0;
+    private int lastCycles = 0;
+    // The time (from System.nanoTime) at which the next batch of cycles is due
+    private long nextBatch = 0;
 
     public Clock(int frequency) {
         setFrequency(frequency);
@@ -23,7 +38,11 @@ public final class Clock {
      * @param frequency The new frequency of this {@link Clock}
      */
     public void setFrequency(int frequency) {
-        if (frequency < MIN_FREQUENCY)
+        if (frequency == UNLIMITED_FREQUENCY) {
+            this.frequency = UNLIMITED_FREQUENCY;
+            this.interval = 0;
+            return;
+        } else if (frequency < MIN_FREQUENCY)
             throw new IllegalArgumentException("Clock's frequency can't be less than " + MIN_FREQUENCY + "Hz.");
         else if (frequency > MAX_FREQUENCY)
             throw new IllegalArgumentException("Clock's frequency can't be more than " + MAX_FREQUENCY + "Hz.");
@@ -36,12 +55,20 @@ public final class Clock {
 
     /**
      * Returns this {@link Clock}'s frequency
-     * @return This {@link Clock}'s frequency
+     * @return This {@link Clock}'s frequency or {@link Clock#UNLIMITED_FREQUENCY}
      */
     public int getFrequency() {
         return frequency;
     }
 
+    /**
+     * Returns whether or not this {@link Clock} has an unlimited frequency
+     * @return Whether or not this {@link Clock}'s frequency is {@link Clock#UNLIMITED_FREQUENCY}
+     */
+    public boolean isUnlimited() {
+        return frequency == UNLIMITED_FREQUENCY;
+    }
+
     /**
      * Returns the interval (in seconds) between {@link Clock} updates
      * @return The interval (in seconds) between {@link Clock} updates
@@ -63,6 +90,8 @@ public final class Clock {
      * @return Whether or not this {@link Clock} triggered
      */
     public boolean update() {
+        if (frequency == UNLIMITED_FREQUENCY) return true;
+
         long currentTime = System.nanoTime();
         long deltaTime = currentTime - lastUpdated;
         if (deltaTime >= interval) {
@@ -73,4 +102,69 @@ public final class Clock {
         return false;
     }
 
+    /**
+     * Updates this {@link Clock} and returns how many cycles can be executed.
+     * If no cycle is due then the current Thread is parked until the next batch of cycles is,
+     * a batch lasts at least 1ms so that parking isn't needed between each cycle.
+     * The Thread can be woken up early with {@link LockSupport#unpark}, in that case 0 is returned.
+     * Cycles that exceed maxCycles are given on the next updates, unless they're too late (then they're dropped).
+     * If this {@link Clock} is unlimited then the max amount of cycles is always returned.
+     * The last delta time becomes the average time that a cycle took since the last update.
+     * @param maxCycles The max amount of cycles that can be returned
+     * @return The amount of cycles that can be executed
+     */
+    public int update(int maxCycles) {
+        int cycles = poll(maxCycles);
+        if (cycles == 0) LockSupport.parkNanos(this, getTimeToNextBatch());
+        return cycles;
+    }
+
+    /**
+     * Like {@link #update(int)} but the current Thread is never parked, if no cycle is due then 0 is returned
+     * and {@link #getTimeToNextBatch()} tells how long to wait for
+     * @param maxCycles The max amount of cycles that can be returned
+     * @return The amount of cycles that can be executed
+     */
+    public int poll(int maxCycles) {
+        long currentTime = System.nanoTime();
+        if (frequency == UNLIMITED_FREQUENCY) {
+            if (lastCycles > 0) lastDelta = (currentTime - lastTriggered) / lastCycles;
+            lastTriggered = currentTime;
+            lastCycles = maxCycles;
+            nextBatch = currentTime;
+            return maxCycles;
+        }
+
+        long batchCycles = Math.max(1, Math.min(maxCycles, MIN_BATCH_INTERVAL / interval));
+        long batchInterval = batchCycles * interval;
+        if (currentTime - lastUpdated > batchInterval + MAX_LAG)
+            lastUpdated = currentTime - batchInterval;
+
+        // How many cycles should have been executed since the last one
+        long dueCycles = (currentTime - lastUpdated) / interval;
+        if (dueCycles < batchCycles) {
+            nextBatch = lastUpdated + batchInterval;
+            return 0;
+        }
+
+        // The time of the last cycle that was given is kept so that
+        //  the average frequency is the same as the one that was set
+        int cycles = (int) Math.min(dueCycles, maxCycles);
+        lastUpdated += cycles * interval;
+        nextBatch = lastUpdated + batchInterval;
+
+        lastDelta = (currentTime - lastTriggered) / cycles;
+        lastTriggered = currentTime;
+        lastCycles = cycles;
+        return cycles;
+    }
+
+    /**
+     * Returns how many nano seconds are left until the next batch of cycles is due (See {@link #poll(int)})
+     * @return How many nano seconds are left until the next batch of cycles, 0 if it's already due
+     */
+    public long getTimeToNextBatch() {
+        return Math.max(0, nextBatch - System.nanoTime());
+    }
+
 }
@@ -0,0 +1,173 @@
+package io.github.hds.pemu.processor;
+
+import io.github.hds.pemu.console.Console;
+import io.github.hds.pemu.instructions.DecodeCache;
+import io.github.hds.pemu.instructions.IBreakpointHandler;
+import io.github.hds.pemu.jit.BlockCompiler;
+import io.github.hds.pemu.localization.TranslationManager;
+import io.github.hds.pemu.memory.IWatchpointListener;
+import io.github.hds.pemu.memory.Memory;
+import io.github.hds.pemu.memory.MemoryWatchpoints;
+import io.github.hds.pemu.utils.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+/**
+ * Holds the {@link Breakpoint}s and {@link Watchpoint}s of a {@link Processor}, which pause it when they're hit.
+ * Breakpoints are patched into its {@link DecodeCache} and watchpoints are stored in bitmaps checked by its {@link Memory},
+ * so execution isn't slowed down while there are none. It's safe to use from any Thread
+ */
+public final class Debugger implements IBreakpointHandler, IWatchpointListener {
+
+    private final @NotNull Processor PROCESSOR;
+    private final @NotNull Memory MEMORY;
+    private final @NotNull DecodeCache DECODE_CACHE;
+    private final @Nullable BlockCompiler BLOCK_COMPILER;
+    // Runs changes on the Processor's Thread, because the DecodeCache and Memory aren't synchronized
+    private final @NotNull Executor EXECUTOR;
+
+    private final ConcurrentHashMap<Integer, Breakpoint> BREAKPOINTS = new ConcurrentHashMap<>();
+    private final CopyOnWriteArrayList<Watchpoint> WATCHPOINTS = new CopyOnWriteArrayList<>();
+
+    protected Debugger(
+            @NotNull Processor processor, @NotNull Memory memory, @NotNull DecodeCache decodeCache,
+            @Nullable BlockCompiler blockCompiler, @NotNull Executor executor
+    ) {
+        PROCESSOR = processor;
+        MEMORY = memory;
+        DECODE_CACHE = decodeCache;
+        BLOCK_COMPILER = blockCompiler;
+        EXECUTOR = executor;
+        DECODE_CACHE.setBreakpointHandler(this);
+    }
+
+    /**
+     * Adds the specified {@link Breakpoint}, it replaces the one at the same address
+     * @param breakpoint The {@link Breakpoint} to add
+     * @throws IllegalArgumentException If the address of the {@link Breakpoint} is out of Memory
+     */
+    public void addBreakpoint(@NotNull Breakpoint breakpoint) {
+        int address = breakpoint.getAddress();
+        if (!MEMORY.isAddressValid(address))
+            throw new IllegalArgumentException("Breakpoint address (" + address + ") is out of memory!");
+
+        BREAKPOINTS.put(address, breakpoint);
+        EXECUTOR.execute(() -> setBreakpoint(address, true));
+    }
+
+    /**
+     * Removes the {@link Breakpoint} at the specified address
+     * @param address The address of the {@link Breakpoint} to remove
+     * @return The removed {@link Breakpoint} or null if there was none
+     */
+    public @Nullable Breakpoint removeBreakpoint(int address) {
+        Breakpoint breakpoint = BREAKPOINTS.remove(address);
+        if (breakpoint != null) EXECUTOR.execute(() -> setBreakpoint(address, false));
+        return breakpoint;
+    }
+
+    public @Nullable Breakpoint getBreakpoint(int address) {
+        return BREAKPOINTS.get(address);
+    }
+
+    public @NotNull List<Breakpoint> getBreakpoints() {
+        return new ArrayList<>(BREAKPOINTS.values());
+    }
+
+    public void clearBreakpoints() {
+        for (Breakpoint breakpoint : getBreakpoints()) removeBreakpoint(breakpoint.getAddress());
+    }
+
+    private void setBreakpoint(int address, boolean isSet) {
+        DECODE_CACHE.setBreakpoint(address, isSet);
+        // Compiled blocks would execute the Instruction without asking, so they're compiled again
+        if (BLOCK_COMPILER != null) BLOCK_COMPILER.clear();
+    }
+
+    /**
+     * Adds the specified {@link Watchpoint}, watched ranges can overlap. Registers and Flags are written
+     * to Memory lazily, so watching their addresses doesn't tell which Instruction accessed them
+     * @param watchpoint The {@link Watchpoint} to add
+     * @throws IllegalArgumentException If the range of the {@link Watchpoint} is out of Memory
+     */
+    public void addWatchpoint(@NotNull Watchpoint watchpoint) {
+        if (watchpoint.getEnd() > MEMORY.getSize())
+            throw new IllegalArgumentException("Watchpoint end (" + watchpoint.getEnd() + ") is out of memory!");
+
+        WATCHPOINTS.add(watchpoint);
+        EXECUTOR.execute(this::updateWatchpoints);
+    }
+
+    /**
+     * Removes the specified {@link Watchpoint}
+     * @param watchpoint The {@link Watchpoint} to remove
+     * @return Whether or not the {@link Watchpoint} was removed
+     */
+    public boolean removeWatchpoint(@NotNull Watchpoint watchpoint) {
+        if (!WATCHPOINTS.remove(watchpoint)) return false;
+        EXECUTOR.execute(this::updateWatchpoints);
+        return true;
+    }
+
+    public @NotNull List<Watchpoint> getWatchpoints() {
+        return new ArrayList<>(WATCHPOINTS);
+    }
+
+    public void clearWatchpoints() {
+        WATCHPOINTS.clear();
+        EXECUTOR.execute(this::updateWatchpoints);
+    }
+
+    // Bitmaps are rebuilt from scratch, watchpoints are rarely changed and ranges may overlap
+    private void updateWatchpoints() {
+        if (WATCHPOINTS.isEmpty()) {
+            MEMORY.setWatchpoints(null);
+            return;
+        }
+
+        BitSet reads = new BitSet();
+        BitSet writes = new BitSet();
+        for (Watchpoint watchpoint : WATCHPOINTS) {
+            if (watchpoint.isWatchingReads()) reads.set(watchpoint.getStart(), watchpoint.getEnd());
+            if (watchpoint.isWatchingWrites()) writes.set(watchpoint.getStart(), watchpoint.getEnd());
+        }
+        MEMORY.setWatchpoints(new MemoryWatchpoints(reads, writes, this));
+    }
+
+    // The Processor doesn't ask again for the Instruction it's resumed at (See Processor#executeInstruction)
+    @Override
+    public boolean shouldBreak(@NotNull IProcessor p, int address) {
+        // Stepping always executes the Instruction
+        Breakpoint breakpoint = BREAKPOINTS.get(address);
+        if (breakpoint == null || p.isPaused() || !breakpoint.test(p)) return false;
+
+        p.pause();
+        Console.Debug.println(StringUtils.format(
+                TranslationManager.getCurrentTranslation().getOrDefault("messages.processorBreakpointAt"), address
+        ));
+        Console.Debug.println();
+        return true;
+    }
+
+    @Override
+    public void onWatchpointHit(int address, boolean isWrite, int value) {
+        // The Instruction that accessed the address is completed, the Processor is paused before the next one
+        if (PROCESSOR.isPaused()) return;
+
+        PROCESSOR.pause();
+        Console.Debug.println(StringUtils.format(
+                TranslationManager.getCurrentTranslation().getOrDefault(
+                        isWrite ? "messages.processorWatchpointWrite" : "messages.processorWatchpointRead"
+                ), address, value
+        ));
+        Console.Debug.println();
+    }
+
+}
@@ -1,5 +1,6 @@
 package io.github.hds.pemu.processor;
 
+import io.github.hds.pemu.instructions.Instruction;
 import io.github.hds.pemu.instructions.InstructionHistory;
 import io.github.hds.pemu.instructions.InstructionSet;
 import io.github.hds.pemu.memory.*;
@@ -74,6 +75,16 @@ public final class DummyProcessor implements IDummyProcessor {
         return REGISTER_HOLDER.getRegister(shortName);
     }
 
+    @Override
+    public @Nullable IFlag getFlag(@NotNull FlagHandle handle) {
+        return FLAG_HOLDER.getFlag(handle);
+    }
+
+    @Override
+    public @Nullable IRegister getRegister(@NotNull RegisterHandle handle) {
+        return REGISTER_HOLDER.getRegister(handle);
+    }
+
     @Override
     public @NotNull IMemory getMemory() {
         return MEMORY;
@@ -105,6 +116,36 @@ public final class DummyProcessor implements IDummyProcessor {
     @Override
     public void setCharPressed(char ch) { }
 
+    @Override
+    public boolean queueKeyEvent(int key, char ch) {
+        return false;
+    }
+
+    @Override
+    public @Nullable KeyEventQueue.Event waitKeyEvent(long timeout) {
+        return KeyEventQueue.NONE;
+    }
+
+    @Override
+    public @Nullable KeyEventQueue.Event readKeyEvent(@NotNull Instruction reader) {
+        return null;
+    }
+
+    @Override
+    public @Nullable InterruptController getInterruptController() {
+        return null;
+    }
+
+    @Override
+    public @Nullable Debugger getDebugger() {
+        return null;
+    }
+
+    @Override
+    public boolean waitInterrupt() {
+        return true;
+    }
+
     @Override
     public @NotNull String getInfo() {
         return   "This is a DummyProcessor instance, it's just used to\n"
@@ -117,6 +158,19 @@ public final class DummyProcessor implements IDummyProcessor {
         return null;
     }
 
+    @Override
+    public @Nullable Checkpoint getCheckpoint() {
+        return null;
+    }
+
+    @Override
+    public void restoreCheckpoint(@NotNull Checkpoint checkpoint) { }
+
+    @Override
+    public @Nullable ITimeSource getTimeSource() {
+        return null;
+    }
+
     @Override
     public long getTimeRunning() {
         return 0;
@@ -158,6 +212,11 @@ public final class DummyProcessor implements IDummyProcessor {
     @Override
     public void step() { }
 
+    @Override
+    public int stepBack(int instructions) {
+        return 0;
+    }
+
     @Override
     public void stop() { }
 
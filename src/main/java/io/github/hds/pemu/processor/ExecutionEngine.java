@@ -0,0 +1,23 @@
+package io.github.hds.pemu.processor;
+
+/**
+ * The ways a {@link Processor} can execute Instructions
+ */
+public enum ExecutionEngine {
+    /**
+     * Instructions are decoded (and cached) then executed one by one
+     */
+    INTERPRETER,
+    /**
+     * The same as {@link ExecutionEngine#INTERPRETER}, except that after an Instruction is executed the ones that follow it
+     * are run by following the links between the entries of the decode cache until one of them jumps or the batch ends,
+     * so they aren't looked up and don't go through the full fetch and dispatch of each step
+     */
+    THREADED,
+    /**
+     * Instructions are interpreted until a block of them is executed often enough, then the block is compiled
+     * to JVM bytecode which accesses the array backing Memory directly (See {@link io.github.hds.pemu.jit.BlockCompiler}).
+     * Only Memories with a backing array are compiled, others are interpreted
+     */
+    JIT
+}
@@ -1,5 +1,7 @@
 package io.github.hds.pemu.processor;
 
+import io.github.hds.pemu.console.Console;
+import io.github.hds.pemu.console.IConsole;
 import io.github.hds.pemu.instructions.*;
 import io.github.hds.pemu.memory.*;
 import io.github.hds.pemu.memory.flags.*;
@@ -9,6 +11,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.awt.event.KeyEvent;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * An interface that holds all basic methods that
@@ -42,6 +45,28 @@ public interface IProcessor extends Runnable, IStoppable {
      */
     @Nullable IRegister getRegister(@NotNull String shortName);
 
+    /**
+     * Returns the {@link IFlag} the specified {@link FlagHandle} refers to or null if not present.
+     * This should be preferred over {@link IProcessor#getFlag(String)} when it's called frequently
+     * (e.g. by an {@link Instruction}) since the handle can be resolved without looking up its name
+     * @param handle The handle of the {@link IFlag} that is being requested
+     * @return The specified {@link IFlag} or null if not present
+     */
+    default @Nullable IFlag getFlag(@NotNull FlagHandle handle) {
+        return getFlag(handle.getShortName());
+    }
+
+    /**
+     * Returns the {@link IRegister} the specified {@link RegisterHandle} refers to or null if not present.
+     * This should be preferred over {@link IProcessor#getRegister(String)} when it's called frequently
+     * (e.g. by an {@link Instruction}) since the handle can be resolved without looking up its name
+     * @param handle The handle of the {@link IRegister} that is being requested
+     * @return The specified {@link IRegister} or null if not present
+     */
+    default @Nullable IRegister getRegister(@NotNull RegisterHandle handle) {
+        return getRegister(handle.getShortName());
+    }
+
     /**
      * Returns the {@link IMemory} that this {@link IProcessor} is using to store data
      * @return The {@link IMemory} used by this {@link IProcessor}
@@ -90,6 +115,87 @@ public interface IProcessor extends Runnable, IStoppable {
      */
     void setCharPressed(char ch);
 
+    /**
+     * Adds a key press to this {@link IProcessor}'s {@link KeyEventQueue}, unlike the pressed key and char
+     * events are buffered until they're read (See {@link IProcessor#waitKeyEvent}).
+     * Constants from the class {@link KeyEvent} should be used.
+     * @param key The key that was pressed
+     * @param ch The char produced by the key or 0 if none
+     * @return Whether or not the event was queued, it's dropped if the queue is full
+     */
+    boolean queueKeyEvent(int key, char ch);
+
+    /**
+     * Removes the oldest key event from this {@link IProcessor}'s {@link KeyEventQueue}, if there's none then
+     * it waits until one is queued or the specified amount of time passes. It should only be called by {@link Instruction}s.
+     * If this {@link IProcessor} stops waiting early (e.g. it's paused or stopped, an interrupt should be handled or
+     * a {@link Checkpoint} is requested), null is returned and the {@link Instruction} should be executed again
+     * @param timeout How many milliseconds to wait for, if 0 it waits until a key event is queued
+     * @return The oldest key event, {@link KeyEventQueue#NONE} if none was queued in time or null if it stopped waiting early
+     */
+    @Nullable KeyEventQueue.Event waitKeyEvent(long timeout);
+
+    /**
+     * Returns the queued key event that the specified {@link Instruction} should read instead of the pressed key and char,
+     * it should only be called by {@link Instruction}s that poll input (e.g. GETK, GETC and GETI).
+     * Each event can be read once by each {@link Instruction}, so that Instructions executed one after the other
+     * read the same event: when an {@link Instruction} reads again, the oldest event is removed from the queue.
+     * If the queue is empty or polling Instructions don't read it (See {@link ProcessorConfig#setQueuedPolling(boolean)})
+     * null is returned and the pressed key and char should be read
+     * @param reader The {@link Instruction} which is reading
+     * @return The key event to read or null if there's none
+     */
+    @Nullable KeyEventQueue.Event readKeyEvent(@NotNull Instruction reader);
+
+    /**
+     * Returns the {@link InterruptController} which holds this {@link IProcessor}'s pending interrupts and timer.
+     * Can return null if not implemented.
+     * @return The {@link InterruptController} used by this {@link IProcessor}
+     */
+    @Nullable InterruptController getInterruptController();
+
+    /**
+     * Returns the {@link Debugger} which holds this {@link IProcessor}'s breakpoints and watchpoints.
+     * Can return null if not implemented.
+     * @return The {@link Debugger} used by this {@link IProcessor}
+     */
+    @Nullable Debugger getDebugger();
+
+    /**
+     * Waits until an interrupt is pending, it should only be called by {@link Instruction}s.
+     * It returns right away if interrupts are disabled
+     * @return False if this {@link IProcessor} stopped waiting early (See {@link #waitKeyEvent(long)}),
+     *         in which case the {@link Instruction} should be executed again
+     */
+    boolean waitInterrupt();
+
+    /**
+     * Returns the {@link IConsole} where the program's output is printed (e.g. by OUTI and OUTC).
+     * By default it's {@link Console#ProgramOutput}
+     * @return The {@link IConsole} where the program's output is printed
+     */
+    default @NotNull IConsole getProgramOutput() {
+        return Console.ProgramOutput;
+    }
+
+    /**
+     * Returns the id of the core that is executing the current {@link Instruction}, cores are numbered from 0.
+     * By default there's only one core
+     * @return The id of the core executing the current {@link Instruction}
+     */
+    default int getCoreId() {
+        return 0;
+    }
+
+    /**
+     * Returns how many cores this {@link IProcessor} has, all of them share its {@link IMemory}.
+     * By default there's only one core
+     * @return How many cores this {@link IProcessor} has
+     */
+    default int getCoreCount() {
+        return 1;
+    }
+
     /**
      * Returns info about this {@link IProcessor}.
      * Info includes: Clock, Memory Size, Number of Instructions...
@@ -105,6 +211,71 @@ public interface IProcessor extends Runnable, IStoppable {
      */
     @Nullable InstructionHistory getInstructionHistory();
 
+    /**
+     * Returns a consistent copy of this {@link IProcessor}'s state, it's the only safe way
+     * to look at the {@link IMemory} of a running {@link IProcessor} from another Thread.
+     * By default the state is copied directly, which is only consistent while not running
+     * @return A consistent copy of this {@link IProcessor}'s state
+     */
+    default @NotNull ProcessorSnapshot getSnapshot() {
+        return new ProcessorSnapshot(this);
+    }
+
+    /**
+     * Requests a consistent copy of this {@link IProcessor}'s state with only the specified range of its {@link IMemory},
+     * the returned future is completed once it's taken. Unlike {@link #getSnapshot()} it doesn't block the calling Thread,
+     * so it should be used by Threads which can't wait (e.g. Swing's Event Dispatch Thread).
+     * By default the state is copied directly, which is only consistent while not running
+     * @param start The first address of {@link IMemory} to copy
+     * @param length How many addresses of {@link IMemory} to copy
+     * @return A future completed with the copy of this {@link IProcessor}'s state
+     */
+    default @NotNull CompletableFuture<ProcessorSnapshot> requestSnapshot(int start, int length) {
+        return CompletableFuture.completedFuture(new ProcessorSnapshot(this, start, length));
+    }
+
+    /**
+     * Returns the complete state of this {@link IProcessor}, which can be restored by {@link #restoreCheckpoint(Checkpoint)}.
+     * Like {@link #getSnapshot()} it's safe to call from any Thread.
+     * Can return null if not implemented.
+     * @return The complete state of this {@link IProcessor}
+     */
+    @Nullable Checkpoint getCheckpoint();
+
+    /**
+     * Restores the state stored in the specified {@link Checkpoint}, execution continues from where it was taken.
+     * It's safe to call from any Thread, if not implemented it does nothing
+     * @param checkpoint The {@link Checkpoint} to restore
+     * @throws IllegalArgumentException If the {@link Checkpoint} was taken from an {@link IProcessor} with a different Memory
+     */
+    void restoreCheckpoint(@NotNull Checkpoint checkpoint);
+
+    /**
+     * Returns the {@link ITimeSource} used by this {@link IProcessor} to measure time.
+     * Can return null if not implemented.
+     * @return The {@link ITimeSource} used by this {@link IProcessor}
+     */
+    @Nullable ITimeSource getTimeSource();
+
+    /**
+     * Returns how many cycles passed since this {@link IProcessor} was created, one for each executed {@link Instruction}
+     * and, under virtual time, the ones skipped by idle loops. By default it's 0, which means that it isn't implemented
+     * @return How many cycles passed since this {@link IProcessor} was created
+     */
+    default long getExecutedCycles() {
+        return 0;
+    }
+
+    /**
+     * Returns how many {@link Instruction}s this {@link IProcessor} executed since it was created,
+     * unlike {@link #getExecutedCycles()} it doesn't count the cycles skipped by idle loops.
+     * By default it's the same as {@link #getExecutedCycles()}
+     * @return How many {@link Instruction}s this {@link IProcessor} executed
+     */
+    default long getExecutedInstructions() {
+        return getExecutedCycles();
+    }
+
     /**
      * Returns how many milliseconds elapsed since this {@link IProcessor} started running for the first time
      * @return How many milliseconds elapsed since this {@link IProcessor} started running
@@ -171,4 +342,13 @@ public interface IProcessor extends Runnable, IStoppable {
      */
     void step();
 
+    /**
+     * Undoes the specified amount of {@link Instruction}s, the last executed one is undone first.
+     * Memory, Registers, Flags, the executed cycles (and so virtual time) and the {@link InstructionHistory} go back to
+     * what they were before they were executed, while wall time, input and interrupts don't. It's safe to call from any Thread
+     * @param instructions How many {@link Instruction}s to undo
+     * @return How many {@link Instruction}s were undone, 0 if undoing isn't enabled or implemented
+     */
+    int stepBack(int instructions);
+
 }
@@ -0,0 +1,38 @@
+package io.github.hds.pemu.processor;
+
+/**
+ * The source of the time read by an {@link IProcessor} (e.g. by the TS and TMS Instructions)
+ */
+public interface ITimeSource {
+
+    /**
+     * Starts measuring time from now, it's called each time the {@link IProcessor} starts running
+     */
+    void start();
+
+    /**
+     * Returns how many milliseconds elapsed since {@link #start()} was called
+     * @return How many milliseconds elapsed since this {@link ITimeSource} was started
+     */
+    long getTime();
+
+    /**
+     * Sets the current time, it keeps passing from there
+     * @param ms How many milliseconds elapsed since this {@link ITimeSource} was started
+     */
+    void setTime(long ms);
+
+    /**
+     * Moves time forward by the specified amount of milliseconds
+     * @param ms How many milliseconds to move time forward by
+     */
+    void skip(long ms);
+
+    /**
+     * Returns whether or not time passes on its own, if it doesn't the {@link IProcessor}
+     * can't wait for it and must move it forward instead (See {@link #skip(long)})
+     * @return Whether or not time passes on its own
+     */
+    boolean isRealTime();
+
+}
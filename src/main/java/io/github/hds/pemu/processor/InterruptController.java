@@ -0,0 +1,233 @@
+package io.github.hds.pemu.processor;
+
+import io.github.hds.pemu.memory.IMemory;
+import io.github.hds.pemu.memory.flags.FlagHandle;
+import io.github.hds.pemu.memory.flags.IFlag;
+import io.github.hds.pemu.memory.registers.IRegister;
+import io.github.hds.pemu.memory.registers.RegisterHandle;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps track of pending interrupts and of the timer device which raises {@link #TIMER} interrupts.
+ * Interrupts can be raised by any Thread, the Processor checks for them between batches of Instructions and,
+ * if the Interrupt Flag is set, calls the handler whose address is stored in the vector table
+ */
+public final class InterruptController {
+
+    // Interrupts are indices into the vector table, lower ones are handled first
+    public static final int TIMER = 0;
+    public static final int KEYBOARD = 1;
+    // How many words the vector table occupies
+    public static final int VECTORS = 2;
+
+    private static final RegisterHandle INSTRUCTION_POINTER = RegisterHandle.getHandle("IP");
+    private static final RegisterHandle STACK_POINTER = RegisterHandle.getHandle("SP");
+    private static final FlagHandle INTERRUPT_FLAG = FlagHandle.getHandle("IF");
+
+    private final int VECTORS_ADDRESS;
+    private final @NotNull IFlag INTERRUPT_ENABLED;
+    // A bit is set for each pending interrupt
+    private final AtomicInteger PENDING = new AtomicInteger(0);
+
+    // The period (in ms) of the timer, 0 if it's disabled, and the time of its next tick
+    private long timerPeriod = 0;
+    private long nextTimerTick = 0;
+
+    /**
+     * @param vectorsAddress The address of the vector table in Memory
+     * @param interruptFlag The flag which tells whether or not interrupts are enabled
+     */
+    public InterruptController(int vectorsAddress, @NotNull IFlag interruptFlag) {
+        VECTORS_ADDRESS = vectorsAddress;
+        INTERRUPT_ENABLED = interruptFlag;
+    }
+
+    /**
+     * Returns the address in Memory of the specified interrupt's vector, it holds the address of the handler
+     * @param interrupt The interrupt to get the vector of
+     * @return The address of the specified interrupt's vector
+     */
+    public int getVectorAddress(int interrupt) {
+        if (interrupt < 0 || interrupt >= VECTORS)
+            throw new IllegalArgumentException("Interrupt " + interrupt + " doesn't exist.");
+        return VECTORS_ADDRESS + interrupt;
+    }
+
+    /**
+     * Marks the specified interrupt as pending, it's handled when interrupts are enabled
+     * @param interrupt The interrupt to raise
+     */
+    public void raise(int interrupt) {
+        int bit = 1 << interrupt;
+        PENDING.getAndUpdate(pending -> pending | bit);
+    }
+
+    /**
+     * Returns whether or not there's a pending interrupt
+     * @return Whether or not there's a pending interrupt
+     */
+    public boolean isPending() {
+        return PENDING.get() != 0;
+    }
+
+    /**
+     * Returns whether or not interrupts are enabled (The Interrupt Flag is set).
+     * Should only be called by the Processor's Thread
+     * @return Whether or not interrupts are enabled
+     */
+    public boolean isEnabled() {
+        return INTERRUPT_ENABLED.getValue();
+    }
+
+    /**
+     * Returns whether or not there's a pending interrupt and interrupts are enabled.
+     * Should only be called by the Processor's Thread
+     * @return Whether or not an interrupt should be handled
+     */
+    public boolean shouldDispatch() {
+        return PENDING.get() != 0 && INTERRUPT_ENABLED.getValue();
+    }
+
+    /**
+     * Returns the pending interrupts, a bit is set for each of them
+     * @return The pending interrupts
+     */
+    public int getPendingInterrupts() {
+        return PENDING.get();
+    }
+
+    /**
+     * Removes the pending interrupt that should be handled first and returns it
+     * @return The interrupt that should be handled or -1 if none is pending
+     */
+    public int takeNext() {
+        int pending;
+        int bit;
+        do {
+            pending = PENDING.get();
+            if (pending == 0) return -1;
+            bit = pending & -pending;
+        } while (!PENDING.compareAndSet(pending, pending & ~bit));
+        return Integer.numberOfTrailingZeros(bit);
+    }
+
+    /**
+     * Sets the period of the timer, it raises a {@link #TIMER} interrupt each time it passes
+     * @param period The period of the timer in ms, if 0 the timer is disabled
+     * @param now The current time in ms (See {@link IProcessor#getTimeRunning()})
+     */
+    public void setTimerPeriod(long period, long now) {
+        timerPeriod = Math.max(period, 0);
+        nextTimerTick = now + timerPeriod;
+    }
+
+    /**
+     * Returns the period of the timer or 0 if it's disabled
+     * @return The period of the timer in ms
+     */
+    public long getTimerPeriod() {
+        return timerPeriod;
+    }
+
+    /**
+     * Returns the time (in ms) of the next tick of the timer, it's meaningless if the timer is disabled
+     * @return The time of the next tick of the timer
+     */
+    public long getNextTimerTick() {
+        return nextTimerTick;
+    }
+
+    /**
+     * Restores the state returned by {@link #getPendingInterrupts()}, {@link #getTimerPeriod()} and {@link #getNextTimerTick()}
+     * @param pending The pending interrupts
+     * @param timerPeriod The period of the timer in ms, 0 if it's disabled
+     * @param nextTimerTick The time of the next tick of the timer
+     */
+    public void restore(int pending, long timerPeriod, long nextTimerTick) {
+        PENDING.set(pending);
+        this.timerPeriod = Math.max(timerPeriod, 0);
+        this.nextTimerTick = nextTimerTick;
+    }
+
+    /**
+     * Raises a {@link #TIMER} interrupt if the timer ticked, ticks that were missed are dropped
+     * @param now The current time in ms
+     */
+    public void updateTimer(long now) {
+        if (timerPeriod <= 0 || now < nextTimerTick) return;
+
+        raise(TIMER);
+        nextTimerTick += timerPeriod;
+        if (nextTimerTick <= now) nextTimerTick = now + timerPeriod;
+    }
+
+    /**
+     * Returns how many ms are left until the next tick of the timer
+     * @param now The current time in ms
+     * @return How many ms are left until the next tick or {@link Long#MAX_VALUE} if the timer is disabled
+     */
+    public long getTimeToTimer(long now) {
+        if (timerPeriod <= 0) return Long.MAX_VALUE;
+        return Math.max(nextTimerTick - now, 0);
+    }
+
+    /**
+     * Disables the timer and removes all pending interrupts
+     */
+    public void clear() {
+        PENDING.set(0);
+        timerPeriod = 0;
+    }
+
+    /**
+     * Calls the handler at the specified address: the Instruction Pointer and the flags are pushed on the stack
+     * (flags are packed into a word, the first one is the least significant bit) and interrupts are disabled
+     * @param p The {@link IProcessor} to call the handler on
+     * @param handler The address of the handler
+     */
+    public static void enter(@NotNull IProcessor p, int handler) {
+        IRegister IP = p.getRegister(INSTRUCTION_POINTER);
+        IRegister SP = p.getRegister(STACK_POINTER);
+        IFlag IF = p.getFlag(INTERRUPT_FLAG);
+        if (IP == null) throw new NullPointerException("Instruction Pointer Register isn't present on the Processor.");
+        if (SP == null) throw new NullPointerException("Stack Pointer Register isn't present on the Processor.");
+        if (IF == null) throw new NullPointerException("Interrupt Flag isn't present on the Processor.");
+
+        IFlag[] flags = p.getFlags();
+        int flagsWord = 0;
+        for (int i = 0; i < flags.length; i++)
+            if (flags[i].getValue()) flagsWord |= 1 << i;
+
+        IMemory memory = p.getMemory();
+        memory.setValueAt(SP.setValue(SP.getValue() - 1), IP.getValue());
+        memory.setValueAt(SP.setValue(SP.getValue() - 1), flagsWord);
+
+        IF.setValue(false);
+        IP.setValue(handler);
+    }
+
+    /**
+     * Returns from a handler called by {@link #enter(IProcessor, int)}, restoring the flags and the Instruction Pointer
+     * @param p The {@link IProcessor} to return from the handler on
+     */
+    public static void leave(@NotNull IProcessor p) {
+        IRegister IP = p.getRegister(INSTRUCTION_POINTER);
+        IRegister SP = p.getRegister(STACK_POINTER);
+        if (IP == null) throw new NullPointerException("Instruction Pointer Register isn't present on the Processor.");
+        if (SP == null) throw new NullPointerException("Stack Pointer Register isn't present on the Processor.");
+
+        IMemory memory = p.getMemory();
+        SP.setValue(SP.getValue() + 1);
+        int flagsWord = memory.getValueAt(SP.getValue());
+        SP.setValue(SP.getValue() + 1);
+
+        IFlag[] flags = p.getFlags();
+        for (int i = 0; i < flags.length; i++)
+            flags[i].setValue(((flagsWord >> i) & 1) != 0);
+
+        IP.setValue(memory.getValueAt(SP.getValue()));
+    }
+
+}
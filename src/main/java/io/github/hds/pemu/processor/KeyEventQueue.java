@@ -0,0 +1,107 @@
+package io.github.hds.pemu.processor;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.event.KeyEvent;
+
+/**
+ * A bounded FIFO queue of key events, it's written by the Thread that receives input
+ * and read by the Processor's Thread, so that no key press is lost between reads
+ */
+public final class KeyEventQueue {
+
+    // The max amount of events that are kept, events queued when it's full are dropped
+    public static final int CAPACITY = 256;
+
+    /**
+     * A key press, holding its keycode and the char it produced
+     */
+    public static final class Event {
+        private final int KEY;
+        private final char CHAR;
+
+        protected Event(int key, char ch) {
+            KEY = key;
+            CHAR = ch;
+        }
+
+        /**
+         * Returns the keycode of the pressed key (See {@link java.awt.event.KeyEvent})
+         * @return The keycode of the pressed key
+         */
+        public int getKey() {
+            return KEY;
+        }
+
+        /**
+         * Returns the char produced by the pressed key or 0 if none
+         * @return The char produced by the pressed key
+         */
+        public char getChar() {
+            return CHAR;
+        }
+    }
+
+    // The event returned when no key was pressed
+    public static final Event NONE = new Event(KeyEvent.VK_UNDEFINED, '\0');
+
+    private final Event[] EVENTS = new Event[CAPACITY];
+    private int head = 0;
+    private int size = 0;
+
+    /**
+     * Adds a new event at the end of the queue
+     * @param key The keycode of the pressed key
+     * @param ch The char produced by the pressed key or 0 if none
+     * @return Whether or not the event was queued, it's dropped if the queue is full
+     */
+    public synchronized boolean offer(int key, char ch) {
+        if (size >= CAPACITY) return false;
+        EVENTS[(head + size++) % CAPACITY] = new Event(key, ch);
+        return true;
+    }
+
+    /**
+     * Removes the oldest event from the queue and returns it
+     * @return The oldest event or null if the queue is empty
+     */
+    public synchronized @Nullable Event poll() {
+        if (size == 0) return null;
+
+        Event event = EVENTS[head];
+        EVENTS[head] = null;
+        head = (head + 1) % CAPACITY;
+        size--;
+        return event;
+    }
+
+    /**
+     * Returns all events in the queue without removing them, the oldest one is first
+     * @return All events in the queue
+     */
+    public synchronized @NotNull Event[] toArray() {
+        Event[] events = new Event[size];
+        for (int i = 0; i < size; i++)
+            events[i] = EVENTS[(head + i) % CAPACITY];
+        return events;
+    }
+
+    /**
+     * Returns how many events are in the queue
+     * @return How many events are in the queue
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Removes all events from the queue
+     */
+    public synchronized void clear() {
+        for (int i = 0; i < CAPACITY; i++) EVENTS[i] = null;
+        head = 0;
+        size = 0;
+    }
+
+}
@@ -0,0 +1,365 @@
+package io.github.hds.pemu.processor;
+
+import io.github.hds.pemu.instructions.Instruction;
+import io.github.hds.pemu.instructions.InstructionHistory;
+import io.github.hds.pemu.instructions.InstructionSet;
+import io.github.hds.pemu.localization.Translation;
+import io.github.hds.pemu.localization.TranslationManager;
+import io.github.hds.pemu.memory.IMemory;
+import io.github.hds.pemu.memory.SharedMemory;
+import io.github.hds.pemu.memory.Word;
+import io.github.hds.pemu.memory.flags.FlagHandle;
+import io.github.hds.pemu.memory.flags.IFlag;
+import io.github.hds.pemu.memory.registers.IRegister;
+import io.github.hds.pemu.memory.registers.RegisterHandle;
+import io.github.hds.pemu.utils.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A Processor made of many cores which share the same {@link SharedMemory}, each core is a {@link Processor}
+ * with its own Registers (IP, SP and the general purpose R0 to R7), Flags, Clock and interrupts that runs on its own Thread.
+ * All cores start executing the program at the same address, they can tell each other apart with CID and synchronize with CAS and XADD.
+ * Core 0 is the boot core: it loads the program, receives input and is the one shown by snapshots.
+ * Code written by a core is thrown away by the others before their next Instruction (See {@link io.github.hds.pemu.memory.CoreMemory})
+ */
+public final class MultiCoreProcessor implements IProcessor {
+
+    private final SharedMemory MEMORY;
+    private final Processor[] CORES;
+
+    // The first error thrown by a core, it's rethrown by run
+    private final AtomicReference<RuntimeException> ERROR = new AtomicReference<>(null);
+
+    public MultiCoreProcessor(@NotNull ProcessorConfig config) {
+        MEMORY = new SharedMemory(config.getMemorySize(), Word.getClosestWord(config.getBits()));
+
+        // Instructions executed by different cores can't be undone in order
+        ProcessorConfig coreConfig = new ProcessorConfig(config).setUndoJournalSize(0);
+        CORES = new Processor[config.getCores()];
+        for (int i = 0; i < CORES.length; i++)
+            CORES[i] = new Processor(coreConfig, MEMORY, i, CORES.length);
+    }
+
+    /**
+     * Returns the core with the specified id
+     * @param coreId The id of the core
+     * @return The core with the specified id
+     * @throws IndexOutOfBoundsException If there's no core with the specified id
+     */
+    public @NotNull Processor getCore(int coreId) {
+        return CORES[coreId];
+    }
+
+    @Override
+    public int getCoreCount() {
+        return CORES.length;
+    }
+
+    @Override
+    public @NotNull IFlag[] getFlags() {
+        return CORES[0].getFlags();
+    }
+
+    @Override
+    public @NotNull IRegister[] getRegisters() {
+        return CORES[0].getRegisters();
+    }
+
+    @Override
+    public @Nullable IFlag getFlag(@NotNull String shortName) {
+        return CORES[0].getFlag(shortName);
+    }
+
+    @Override
+    public @Nullable IRegister getRegister(@NotNull String shortName) {
+        return CORES[0].getRegister(shortName);
+    }
+
+    @Override
+    public @Nullable IFlag getFlag(@NotNull FlagHandle handle) {
+        return CORES[0].getFlag(handle);
+    }
+
+    @Override
+    public @Nullable IRegister getRegister(@NotNull RegisterHandle handle) {
+        return CORES[0].getRegister(handle);
+    }
+
+    @Override
+    public @NotNull IMemory getMemory() {
+        return CORES[0].getMemory();
+    }
+
+    @Override
+    public @NotNull Clock getClock() {
+        return CORES[0].getClock();
+    }
+
+    @Override
+    public @NotNull InstructionSet getInstructionSet() {
+        return CORES[0].getInstructionSet();
+    }
+
+    @Override
+    public int getKeyPressed() {
+        return CORES[0].getKeyPressed();
+    }
+
+    @Override
+    public void setKeyPressed(int key) {
+        for (Processor core : CORES) core.setKeyPressed(key);
+    }
+
+    @Override
+    public char getCharPressed() {
+        return CORES[0].getCharPressed();
+    }
+
+    @Override
+    public void setCharPressed(char ch) {
+        for (Processor core : CORES) core.setCharPressed(ch);
+    }
+
+    @Override
+    public boolean queueKeyEvent(int key, char ch) {
+        return CORES[0].queueKeyEvent(key, ch);
+    }
+
+    @Override
+    public @Nullable KeyEventQueue.Event waitKeyEvent(long timeout) {
+        return CORES[0].waitKeyEvent(timeout);
+    }
+
+    @Override
+    public @Nullable KeyEventQueue.Event readKeyEvent(@NotNull Instruction reader) {
+        return CORES[0].readKeyEvent(reader);
+    }
+
+    @Override
+    public @NotNull InterruptController getInterruptController() {
+        return CORES[0].getInterruptController();
+    }
+
+    @Override
+    public @Nullable Debugger getDebugger() {
+        return null;
+    }
+
+    @Override
+    public boolean waitInterrupt() {
+        return CORES[0].waitInterrupt();
+    }
+
+    @Override
+    public @NotNull String getInfo() {
+        Translation currentTranslation = TranslationManager.getCurrentTranslation();
+        return CORES[0].getInfo() + StringUtils.format(
+                "\t{0}:\t" + CORES.length + "\n",
+                currentTranslation.getOrDefault("messages.cores")
+        );
+    }
+
+    @Override
+    public @NotNull InstructionHistory getInstructionHistory() {
+        return CORES[0].getInstructionHistory();
+    }
+
+    @Override
+    public @NotNull ProcessorSnapshot getSnapshot() {
+        return requestSnapshot(0, MEMORY.getSize()).join();
+    }
+
+    /**
+     * Requests a snapshot of core 0 like {@link Processor#requestSnapshot(int, int)}, all other cores are held
+     * between Instructions until it's taken, so that it doesn't contain half of what they're writing
+     */
+    @Override
+    public @NotNull CompletableFuture<ProcessorSnapshot> requestSnapshot(int start, int length) {
+        CompletableFuture<ProcessorSnapshot> result = new CompletableFuture<>();
+        CountDownLatch held = new CountDownLatch(CORES.length - 1);
+        CountDownLatch released = new CountDownLatch(1);
+        Thread requester = Thread.currentThread();
+
+        for (int i = 1; i < CORES.length; i++) {
+            CORES[i].runOnProcessorThread(() -> {
+                held.countDown();
+                // Cores that aren't running don't need to be held, their task is run by the requester
+                if (Thread.currentThread() != requester) awaitUninterruptibly(released);
+            });
+        }
+
+        CORES[0].runOnProcessorThread(() -> {
+            try {
+                awaitUninterruptibly(held);
+                result.complete(new ProcessorSnapshot(CORES[0], start, length));
+            } catch (Exception err) {
+                result.completeExceptionally(err);
+            } finally {
+                released.countDown();
+            }
+        });
+        return result;
+    }
+
+    private static void awaitUninterruptibly(@NotNull CountDownLatch latch) {
+        boolean interrupted = false;
+        while (latch.getCount() > 0) {
+            try {
+                latch.await();
+            } catch (InterruptedException err) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    @Override
+    public @Nullable Checkpoint getCheckpoint() {
+        return null;
+    }
+
+    @Override
+    public void restoreCheckpoint(@NotNull Checkpoint checkpoint) { }
+
+    @Override
+    public @NotNull ITimeSource getTimeSource() {
+        return CORES[0].getTimeSource();
+    }
+
+    @Override
+    public long getTimeRunning() {
+        return CORES[0].getTimeRunning();
+    }
+
+    @Override
+    public long getExecutedCycles() {
+        long executedCycles = 0;
+        for (Processor core : CORES) executedCycles += core.getExecutedCycles();
+        return executedCycles;
+    }
+
+    @Override
+    public long getExecutedInstructions() {
+        long executedInstructions = 0;
+        for (Processor core : CORES) executedInstructions += core.getExecutedInstructions();
+        return executedInstructions;
+    }
+
+    @Override
+    public @Nullable String loadProgram(int[] program) {
+        if (program.length > MEMORY.getSize() - getReservedWords())
+            return TranslationManager.getCurrentTranslation().getOrDefault("messages.processorOutOfMemory");
+
+        String error = CORES[0].loadProgram(program);
+        if (error != null) return error;
+
+        // The free Memory after the program is split between the stacks of all cores, core 0's is at the end
+        int stackWords = (MEMORY.getSize() - getProgramAddress() - program.length) / CORES.length;
+        for (int i = 1; i < CORES.length; i++) {
+            IRegister SP = CORES[i].getRegister("SP");
+            if (SP == null) throw new NullPointerException("Stack Pointer Register isn't present on the Processor.");
+            SP.setValue(MEMORY.getSize() - 1 - i * stackWords);
+        }
+        return null;
+    }
+
+    @Override
+    public int getProgramAddress() {
+        return CORES[0].getProgramAddress();
+    }
+
+    @Override
+    public int getReservedWords() {
+        // Each core reserves an element of its stack
+        return CORES[0].getReservedWords() + CORES.length - 1;
+    }
+
+    /**
+     * Runs core 0 on the calling Thread and all others on their own Threads, it returns when all cores stopped.
+     * If a core throws then all cores are stopped and the error is rethrown
+     */
+    @Override
+    public void run() {
+        if (isRunning()) return;
+        ERROR.set(null);
+
+        Thread[] threads = new Thread[CORES.length];
+        for (int i = 1; i < CORES.length; i++) {
+            Processor core = CORES[i];
+            threads[i] = new Thread(() -> runCore(core), "PEMU Core " + i);
+            threads[i].start();
+        }
+
+        runCore(CORES[0]);
+        boolean interrupted = false;
+        for (int i = 1; i < threads.length; i++) {
+            while (threads[i].isAlive()) {
+                try {
+                    threads[i].join();
+                } catch (InterruptedException err) {
+                    interrupted = true;
+                    stop();
+                }
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+
+        RuntimeException error = ERROR.get();
+        if (error != null) throw error;
+    }
+
+    private void runCore(@NotNull Processor core) {
+        try {
+            core.run();
+        } catch (RuntimeException err) {
+            ERROR.compareAndSet(null, err);
+            stop();
+        }
+    }
+
+    /**
+     * Stops all cores, a core that executes HLT only stops itself
+     */
+    @Override
+    public void stop() {
+        for (Processor core : CORES) core.stop();
+    }
+
+    @Override
+    public boolean isRunning() {
+        for (Processor core : CORES)
+            if (core.isRunning()) return true;
+        return false;
+    }
+
+    @Override
+    public boolean isPaused() {
+        return CORES[0].isPaused();
+    }
+
+    @Override
+    public void pause() {
+        for (Processor core : CORES) core.pause();
+    }
+
+    @Override
+    public void resume() {
+        for (Processor core : CORES) core.resume();
+    }
+
+    @Override
+    public void step() {
+        for (Processor core : CORES) core.step();
+    }
+
+    @Override
+    public int stepBack(int instructions) {
+        return 0;
+    }
+
+}
@@ -1,9 +1,18 @@
 package io.github.hds.pemu.processor;
 
+import io.github.hds.pemu.console.Console;
+import io.github.hds.pemu.console.IConsole;
+import io.github.hds.pemu.instructions.BreakpointInstruction;
+import io.github.hds.pemu.instructions.DecodeCache;
+import io.github.hds.pemu.instructions.DecodedInstruction;
+import io.github.hds.pemu.instructions.FusedInstruction;
+import io.github.hds.pemu.instructions.IdleLoop;
 import io.github.hds.pemu.instructions.Instruction;
 import io.github.hds.pemu.instructions.InstructionError;
 import io.github.hds.pemu.instructions.InstructionHistory;
 import io.github.hds.pemu.instructions.InstructionSet;
+import io.github.hds.pemu.jit.BlockCompiler;
+import io.github.hds.pemu.jit.CompiledBlock;
 import io.github.hds.pemu.localization.Translation;
 import io.github.hds.pemu.localization.TranslationManager;
 import io.github.hds.pemu.memory.*;
@@ -14,66 +23,245 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.awt.event.KeyEvent;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.LockSupport;
 
 public final class Processor implements IProcessor {
 
-    private boolean isRunning = false;
+    // The max amount of Instructions that the Processor executes
+    //  before checking if it was paused, stepped or stopped
+    private static final int MAX_CYCLES_PER_UPDATE = 4096;
+
+    // Returned by runSlice: the Processor can continue right away, it stopped or it waits until it's woken up
+    protected static final long SLICE_READY = 0;
+    protected static final long SLICE_STOPPED = -1;
+    protected static final long SLICE_BLOCKED = Long.MAX_VALUE;
+
+    private static final long NO_DEADLINE = -1;
+
+    // The values each step of the journal holds besides Memory, undoing the step gives them back
+    //  (The executed and skipped cycles and the InstructionHistory entry the step's Instruction overwrote)
+    private static final int STEP_CYCLES = 0;
+    private static final int STEP_SKIPPED_CYCLES = 1;
+    private static final int STEP_HISTORY_ADDRESS = 2;
+    private static final int STEP_HISTORY_KEY_CODE = 3;
+    private static final int STEP_HISTORY_COUNT = 4;
+    private static final int STEP_VALUES = 5;
+
+    private volatile boolean isRunning = false;
+
+    // How many general purpose Registers each core of a MultiCoreProcessor has
+    private static final int CORE_REGISTERS = 8;
 
     // How many words the registers will occupy
-    private final int REGISTERS_WORDS = 2;
+    private final int REGISTERS_WORDS;
     // How many words are reserved for the stack
     private final int RESERVED_STACK_ELEMENTS = 1;
     // How many words are reserved for flags
     private final int FLAGS_WORDS = 1;
+    // How many words are reserved for the interrupt vector table
+    private final int VECTORS_WORDS = InterruptController.VECTORS;
 
-    private final RegisterHolder<MemoryRegister> REGISTERS;
-    private final FlagHolder<MemoryFlag> FLAGS;
+    // Registers and Flags are only stored into Memory when their words are accessed
+    private final RegisterHolder<LazyMemoryRegister> REGISTERS;
+    private final FlagHolder<LazyMemoryFlag> FLAGS;
+    private final LazyFlagWord FLAGS_WORD;
+    private final LazyMemoryRegister IP;
+    private final LazyMemoryRegister SP;
+    private final InterruptController INTERRUPTS;
 
     private final Memory MEMORY;
+    // The same as MEMORY if this is a core of a MultiCoreProcessor
+    private final @Nullable CoreMemory CORE_MEMORY;
     private final Clock CLOCK;
 
     private final InstructionSet INSTRUCTIONSET;
     private final InstructionHistory HISTORY;
+    private final DecodeCache DECODE_CACHE;
+    // Only present if the JIT ExecutionEngine is used
+    private final @Nullable BlockCompiler BLOCK_COMPILER;
+    // Whether the current Instruction starts a basic block, only those are counted by the BlockCompiler
+    private boolean atBlockStart = true;
+    private final Debugger DEBUGGER;
+    // Set when a breakpoint pauses the Processor, the first Instruction executed after that isn't checked again
+    private boolean resumesBreakpoint = false;
+    // Whether the THREADED ExecutionEngine is used (See Processor#runThreaded)
+    private final boolean IS_THREADED;
+    // Only present if undo is enabled, each executed Instruction is a step of the journal
+    private final @Nullable UndoJournal JOURNAL;
+    // The value of the Stack Pointer when the current step of the journal started
+    private int stepStackPointer = 0;
 
     private volatile char charPressed = '\0';
     private volatile int keyPressed = KeyEvent.VK_UNDEFINED;
-    private long startTimestamp = 0;
+    private final KeyEventQueue KEY_EVENTS = new KeyEventQueue();
+    // Only used if polling Instructions read the queue, the queued event they're reading
+    //  and the Instructions that already read it (See readKeyEvent)
+    private final boolean QUEUED_POLLING;
+    private @Nullable KeyEventQueue.Event polledKeyEvent = null;
+    private final ArrayList<Instruction> POLLED_KEY_EVENT_READERS = new ArrayList<>();
+    private final ITimeSource TIME_SOURCE;
+    // The same as TIME_SOURCE if time is virtual
+    private final @Nullable VirtualTimeSource VIRTUAL_TIME;
+    // How many cycles passed since the Processor was created, virtual time is derived from it.
+    //  Cycles skipped by idle loops under virtual time are counted here and in skippedCycles, but no Instruction executed them
+    private long executedCycles = 0;
+    private long skippedCycles = 0;
+    // If true, idle loops that wait for time fast-forward it instead of parking the Processor's Thread
+    private final boolean FAST_FORWARD_IDLE;
+    // If null the program's output is printed to Console.ProgramOutput, which may change while running
+    private final @Nullable IConsole PROGRAM_OUTPUT;
+    // Only set if this Processor is a core of a MultiCoreProcessor
+    private final int CORE_ID;
+    private final int CORE_COUNT;
+
+    // Set while a ProcessorScheduler runs this Processor, it's told when the Processor is woken up
+    private volatile @Nullable Runnable scheduledWakeUp = null;
+    // How long the current slice must wait for before the next one, set when a scheduled Processor would block
+    private long sliceWait = SLICE_READY;
+    // When a scheduled Processor waits for a key event its deadline is kept between slices
+    private long keyEventDeadline = NO_DEADLINE;
+    // Set when a scheduled Processor ends its slice in WFI, which must see the interrupt before it's dispatched
+    private boolean waitingInterrupt = false;
 
     private volatile boolean isPaused = false;
     private volatile boolean stepping = false;
+    private int cyclesLeft = 0;
+    // The Thread that is running this Processor, it's unparked when the Processor's state changes
+    private volatile @Nullable Thread runningThread = null;
+    // Snapshots requested by other Threads, the running Thread takes them between batches of Instructions
+    private final ConcurrentLinkedQueue<SnapshotRequest> SNAPSHOT_REQUESTS = new ConcurrentLinkedQueue<>();
+    // Tasks that must run between Instructions (e.g. taking or restoring a Checkpoint), they're run by the running Thread
+    //  or by the Thread that queued them if the Processor isn't running. Starting and stopping hold its lock
+    private final ConcurrentLinkedQueue<FutureTask<?>> TASKS = new ConcurrentLinkedQueue<>();
+    // The time of the Processor while it isn't running, it continues from it when it's run
+    private long stoppedTime = 0;
 
     public Processor(@NotNull ProcessorConfig config) {
-        MEMORY = new Memory(
-                config.getMemorySize(),
-                Word.getClosestWord(config.getBits())
-        );
+        this(config, null, 0, 1);
+    }
+
+    /**
+     * Creates a core of a {@link MultiCoreProcessor}, which has general purpose Registers (R0, R1, ...).
+     * All words before the program are only visible to the core, so each one has its own Registers, Flags
+     * and interrupt vectors, while the others are stored in the specified {@link SharedMemory}
+     * @param config The config of the core, the type and size of Memory are ignored if a {@link SharedMemory} is specified
+     * @param sharedMemory The Memory shared by all cores or null to create one from the config
+     * @param coreId The id of the core
+     * @param coreCount How many cores the {@link MultiCoreProcessor} has
+     */
+    protected Processor(@NotNull ProcessorConfig config, @Nullable SharedMemory sharedMemory, int coreId, int coreCount) {
+        CORE_ID = coreId;
+        CORE_COUNT = coreCount;
+        REGISTERS_WORDS = coreCount > 1 ? 2 + CORE_REGISTERS : 2;
+        CORE_MEMORY = sharedMemory == null ? null : new CoreMemory(sharedMemory, getProgramAddress());
+        MEMORY = CORE_MEMORY == null ? createMemory(config) : CORE_MEMORY;
         CLOCK = new Clock(config.getClockFrequency());
 
         INSTRUCTIONSET = config.getInstructionSet();
-        HISTORY = new InstructionHistory();
+        HISTORY = new InstructionHistory(INSTRUCTIONSET, MEMORY.getSize());
+
+        // The cache needs to know when memory changes to throw away stale Instructions,
+        //  fused Instructions can't access registers and flags because they change between them
+        DECODE_CACHE = new DecodeCache(MEMORY, INSTRUCTIONSET, getProgramAddress());
+        MEMORY.setListener(DECODE_CACHE);
 
         REGISTERS = new RegisterHolder<>(
-                new MemoryRegister(getProgramAddress(), "Instruction Pointer", MEMORY, 0),
-                new MemoryRegister(MEMORY.getSize() - 1, "Stack Pointer", MEMORY, 1)
+                new LazyMemoryRegister(getProgramAddress(), "Instruction Pointer", MEMORY, 0),
+                new LazyMemoryRegister(MEMORY.getSize() - 1, "Stack Pointer", MEMORY, 1)
         );
+        for (int i = 2; i < REGISTERS_WORDS; i++)
+            REGISTERS.addRegister(new LazyMemoryRegister(0, "Register " + (i - 2), "R" + (i - 2), MEMORY, i));
+        REGISTERS.forEach((shortName, register) -> MEMORY.addLazyWord(register));
+
+        IP = REGISTERS.getRegister("IP");
+        SP = REGISTERS.getRegister("SP");
+
+        FLAGS_WORD = new LazyFlagWord(MEMORY, REGISTERS_WORDS);
+        MEMORY.addLazyWord(FLAGS_WORD);
 
         FLAGS = new FlagHolder<>(
-                new MemoryFlag(false, "Zero Flag" , MEMORY, REGISTERS_WORDS, 0),
-                new MemoryFlag(false, "Carry Flag", MEMORY, REGISTERS_WORDS, 1)
+                new LazyMemoryFlag(false, "Zero Flag" , FLAGS_WORD, 0),
+                new LazyMemoryFlag(false, "Carry Flag", FLAGS_WORD, 1),
+                new LazyMemoryFlag(false, "Interrupt Flag", FLAGS_WORD, 2)
         );
+
+        // The vector table is right after the flags
+        LazyMemoryFlag interruptFlag = FLAGS.getFlag("IF");
+        if (interruptFlag == null) throw new NullPointerException("Interrupt Flag isn't present on the Processor.");
+        INTERRUPTS = new InterruptController(REGISTERS_WORDS + FLAGS_WORDS, interruptFlag);
+
+        if (config.isUndoEnabled()) {
+            // Each step records at least the Registers and Flags, the journal can't take more memory than specified
+            long stepBytes = UndoJournal.STEP_BYTES + STEP_VALUES * UndoJournal.STEP_VALUE_BYTES +
+                             (long) (REGISTERS_WORDS + FLAGS_WORDS) * UndoJournal.WRITE_BYTES;
+            int maxSteps = (int) Math.max(1, config.getUndoJournalSize() * 1024L / stepBytes);
+            JOURNAL = new UndoJournal(maxSteps * (REGISTERS_WORDS + FLAGS_WORDS), maxSteps, STEP_VALUES);
+            MEMORY.setJournal(JOURNAL);
+        } else JOURNAL = null;
+
+        // Compiled blocks execute many Instructions at once, so they can't be undone one by one,
+        //  and they access the array that stores Memory, so other Memories are interpreted
+        if (config.getExecutionEngine() == ExecutionEngine.JIT && JOURNAL == null && BlockCompiler.canCompile(MEMORY)) {
+            BlockCompiler blockCompiler = new BlockCompiler(MEMORY, DECODE_CACHE, FLAGS_WORD.getAddress(), getProgramAddress());
+            MEMORY.setListener(address -> {
+                DECODE_CACHE.onValueWritten(address);
+                blockCompiler.onValueWritten(address);
+            });
+            BLOCK_COMPILER = blockCompiler;
+        } else BLOCK_COMPILER = null;
+        DEBUGGER = new Debugger(this, MEMORY, DECODE_CACHE, BLOCK_COMPILER, task -> callOnProcessorThread(Executors.callable(task)));
+
+        IS_THREADED = config.getExecutionEngine() == ExecutionEngine.THREADED;
+        VIRTUAL_TIME = config.getTimeSource() == TimeSourceType.VIRTUAL ? new VirtualTimeSource(CLOCK, () -> executedCycles) : null;
+        TIME_SOURCE = VIRTUAL_TIME == null ? new WallTimeSource() : VIRTUAL_TIME;
+        FAST_FORWARD_IDLE = config.isFastForwardIdle();
+        QUEUED_POLLING = config.isQueuedPolling();
+        PROGRAM_OUTPUT = config.getProgramOutput();
+    }
+
+    private static @NotNull Memory createMemory(@NotNull ProcessorConfig config) {
+        int size = config.getMemorySize();
+        Word word = Word.getClosestWord(config.getBits());
+        switch (config.getMemoryType()) {
+            case MAPPED:
+                String memoryFile = config.getMemoryFile();
+                try {
+                    return memoryFile == null ?
+                            MappedMemory.getTemporaryMemory(size, word) :
+                            new MappedMemory(size, word, new File(memoryFile));
+                } catch (IOException err) {
+                    throw new UncheckedIOException("Couldn't map Memory to a file.", err);
+                }
+            case SPARSE:
+                return new SparseMemory(size, word);
+            default:
+                return Memory.getMemory(size, word);
+        }
     }
 
     public static @NotNull DummyProcessor getDummyProcessor(@NotNull ProcessorConfig config) {
+        List<IDummyRegister> registers = new ArrayList<>();
+        registers.add(new DummyMemoryRegister("Instruction Pointer"));
+        registers.add(new DummyMemoryRegister("Stack Pointer"));
+        // Cores of a MultiCoreProcessor also have general purpose Registers
+        if (config.getCores() > 1)
+            for (int i = 0; i < CORE_REGISTERS; i++) registers.add(new DummyMemoryRegister("Register " + i, "R" + i));
+
         return new DummyProcessor(
                 config,
-                new IDummyRegister[] {
-                        new DummyMemoryRegister("Instruction Pointer"),
-                        new DummyMemoryRegister("Stack Pointer")
-                },
-                new IDummyFlag[] {
+                registers,
+                Arrays.asList(
                         new DummyMemoryFlag("Zero Flag"),
                         new DummyMemoryFlag("Carry Flag"),
-                }
+                        new DummyMemoryFlag("Interrupt Flag")
+                )
         );
     }
 
@@ -97,6 +285,16 @@ public final class Processor implements IProcessor {
         return REGISTERS.getRegister(shortName);
     }
 
+    @Override
+    public @Nullable IFlag getFlag(@NotNull FlagHandle handle) {
+        return FLAGS.getFlag(handle);
+    }
+
+    @Override
+    public @Nullable IRegister getRegister(@NotNull RegisterHandle handle) {
+        return REGISTERS.getRegister(handle);
+    }
+
     @Override
     public @NotNull IMemory getMemory() {
         return MEMORY;
@@ -120,6 +318,8 @@ public final class Processor implements IProcessor {
     @Override
     public void setKeyPressed(int key) {
         keyPressed = key;
+        // The Processor may be waiting for input in an idle loop
+        wakeUp();
     }
 
     @Override
@@ -130,13 +330,164 @@ public final class Processor implements IProcessor {
     @Override
     public void setCharPressed(char ch) {
         charPressed = ch;
+        wakeUp();
+    }
+
+    @Override
+    public boolean queueKeyEvent(int key, char ch) {
+        boolean isQueued = KEY_EVENTS.offer(key, ch);
+        if (isQueued) INTERRUPTS.raise(InterruptController.KEYBOARD);
+        wakeUp();
+        return isQueued;
+    }
+
+    @Override
+    public @Nullable KeyEventQueue.Event readKeyEvent(@NotNull Instruction reader) {
+        if (!QUEUED_POLLING) return null;
+        if (polledKeyEvent == null || POLLED_KEY_EVENT_READERS.contains(reader)) {
+            polledKeyEvent = KEY_EVENTS.poll();
+            POLLED_KEY_EVENT_READERS.clear();
+        }
+
+        if (polledKeyEvent != null) POLLED_KEY_EVENT_READERS.add(reader);
+        return polledKeyEvent;
+    }
+
+    @Override
+    public @Nullable KeyEventQueue.Event waitKeyEvent(long timeout) {
+        KeyEventQueue.Event event = KEY_EVENTS.poll();
+        if (event != null) {
+            keyEventDeadline = NO_DEADLINE;
+            return event;
+        }
+        if (isPaused || !isRunning || !TASKS.isEmpty()) return null;
+
+        // The Clock is behind after waiting, so the current batch is ended
+        cyclesLeft = 0;
+        MEMORY.materializeLazyWords();
+
+        if (scheduledWakeUp != null) return waitKeyEventScheduled(timeout);
+
+        long deadline = timeout > 0 ? TIME_SOURCE.getTime() + timeout : Long.MAX_VALUE;
+        // Interrupts and tasks are handled between Instructions, so waiting stops when there's one
+        while (isRunning && !isPaused && !INTERRUPTS.shouldDispatch() && TASKS.isEmpty()) {
+            // Snapshots can be taken while waiting, the Instruction hasn't written anything yet
+            serviceSnapshotRequests();
+
+            event = KEY_EVENTS.poll();
+            if (event != null) return event;
+
+            long now = TIME_SOURCE.getTime();
+            if (now >= deadline) return KeyEventQueue.NONE;
+
+            INTERRUPTS.updateTimer(now);
+            waitIdle(Math.min(deadline - now, INTERRUPTS.getTimeToTimer(now)));
+        }
+        return null;
+    }
+
+    // Like waitKeyEvent but it ends the slice instead of waiting, the Instruction is executed again in the next one
+    private @Nullable KeyEventQueue.Event waitKeyEventScheduled(long timeout) {
+        long now = TIME_SOURCE.getTime();
+        if (keyEventDeadline == NO_DEADLINE) keyEventDeadline = timeout > 0 ? now + timeout : Long.MAX_VALUE;
+        if (now >= keyEventDeadline) {
+            keyEventDeadline = NO_DEADLINE;
+            return KeyEventQueue.NONE;
+        }
+        if (INTERRUPTS.shouldDispatch()) return null;
+
+        INTERRUPTS.updateTimer(now);
+        waitIdle(Math.min(keyEventDeadline - now, INTERRUPTS.getTimeToTimer(now)));
+        return null;
+    }
+
+    @Override
+    public boolean waitInterrupt() {
+        // If interrupts are disabled they can't be waited for
+        if (!INTERRUPTS.isEnabled() || INTERRUPTS.isPending()) return true;
+        if (isPaused || !isRunning || !TASKS.isEmpty()) return false;
+
+        cyclesLeft = 0;
+        MEMORY.materializeLazyWords();
+
+        if (scheduledWakeUp != null) {
+            long now = TIME_SOURCE.getTime();
+            INTERRUPTS.updateTimer(now);
+            if (INTERRUPTS.isPending()) return true;
+            waitIdle(INTERRUPTS.getTimeToTimer(now));
+            waitingInterrupt = true;
+            return false;
+        }
+
+        while (isRunning && !isPaused && TASKS.isEmpty()) {
+            serviceSnapshotRequests();
+
+            long now = TIME_SOURCE.getTime();
+            INTERRUPTS.updateTimer(now);
+            if (INTERRUPTS.isPending()) return true;
+            waitIdle(INTERRUPTS.getTimeToTimer(now));
+        }
+        return false;
+    }
+
+    @Override
+    public @NotNull InterruptController getInterruptController() {
+        return INTERRUPTS;
+    }
+
+    @Override
+    public @NotNull IConsole getProgramOutput() {
+        return PROGRAM_OUTPUT == null ? Console.ProgramOutput : PROGRAM_OUTPUT;
+    }
+
+    @Override
+    public int getCoreId() {
+        return CORE_ID;
+    }
+
+    @Override
+    public int getCoreCount() {
+        return CORE_COUNT;
+    }
+
+    @Override
+    public @NotNull Debugger getDebugger() {
+        return DEBUGGER;
+    }
+
+    // Moves time forward instead of waiting for it. Virtual time is derived from executed cycles, so the cycles
+    //  that would have been executed while waiting are counted instead (e.g. sleeping 500ms at 1MHz counts 500k cycles)
+    private void skipTime(long time) {
+        if (VIRTUAL_TIME == null) {
+            TIME_SOURCE.skip(time);
+        } else {
+            long cycles = VIRTUAL_TIME.getCycles(time);
+            executedCycles += cycles;
+            skippedCycles += cycles;
+        }
+    }
+
+    // Waits until the Processor's Thread is woken up or the specified amount of ms passes (Long.MAX_VALUE waits forever),
+    //  if time can't be waited for then it's moved forward instead
+    private void waitIdle(long time) {
+        boolean isScheduled = scheduledWakeUp != null;
+        // Times this long would overflow when converted to nano seconds
+        if (time >= Long.MAX_VALUE / 1_000_000L) {
+            if (isScheduled) {
+                sliceWait = SLICE_BLOCKED;
+            } else LockSupport.park(this);
+        } else if (FAST_FORWARD_IDLE || !TIME_SOURCE.isRealTime()) {
+            skipTime(time);
+        } else if (isScheduled) {
+            sliceWait = Math.max(1, time * 1_000_000L);
+        } else LockSupport.parkNanos(this, time * 1_000_000L);
     }
 
     @Override
     public @NotNull String getInfo() {
         Translation currentTranslation = TranslationManager.getCurrentTranslation();
         return StringUtils.format(
-                ("\t{0}:\t" + StringUtils.getEngNotation(CLOCK.getFrequency(), "Hz") + "\n" +
+                ("\t{0}:\t" + (CLOCK.isUnlimited() ? currentTranslation.getOrDefault("messages.unlimitedClock") : StringUtils.getEngNotation(CLOCK.getFrequency(), "Hz")) + "\n" +
                  "\t{1}:\t" + MEMORY.getSize() + 'x' + MEMORY.getWord().TOTAL_BYTES + " Bytes\n" +
                  "\t{2}:\t" + INSTRUCTIONSET.getSize() + "\n"),
                 currentTranslation.getOrDefault("messages.clock"),
@@ -150,10 +501,30 @@ public final class Processor implements IProcessor {
         return HISTORY;
     }
 
+    @Override
+    public @NotNull ITimeSource getTimeSource() {
+        return TIME_SOURCE;
+    }
+
     @Override
     public long getTimeRunning() {
         if (!isRunning) return -1;
-        return System.currentTimeMillis() - startTimestamp;
+        return TIME_SOURCE.getTime();
+    }
+
+    /**
+     * Returns how many cycles passed since this {@link Processor} was created, under virtual time
+     * it includes the cycles skipped by idle loops (See {@link #getExecutedInstructions()})
+     * @return How many cycles passed since this {@link Processor} was created
+     */
+    @Override
+    public long getExecutedCycles() {
+        return executedCycles;
+    }
+
+    @Override
+    public long getExecutedInstructions() {
+        return executedCycles - skippedCycles;
     }
 
     @Override
@@ -162,17 +533,20 @@ public final class Processor implements IProcessor {
             return TranslationManager.getCurrentTranslation().getOrDefault("messages.processorOutOfMemory");
 
         MEMORY.setValuesAt(getProgramAddress(), program);
+        atBlockStart = true;
+        // Loading the program isn't something that can be undone
+        if (JOURNAL != null) JOURNAL.clear();
         return null;
     }
 
     @Override
     public int getProgramAddress() {
-        return REGISTERS_WORDS + FLAGS_WORDS;
+        return REGISTERS_WORDS + FLAGS_WORDS + VECTORS_WORDS;
     }
 
     @Override
     public int getReservedWords() {
-        return REGISTERS_WORDS + FLAGS_WORDS + RESERVED_STACK_ELEMENTS;
+        return REGISTERS_WORDS + FLAGS_WORDS + VECTORS_WORDS + RESERVED_STACK_ELEMENTS;
     }
 
     @Override
@@ -182,42 +556,541 @@ public final class Processor implements IProcessor {
 
     @Override
     public void run() {
-        if (isRunning) return;
-
-        startTimestamp = System.currentTimeMillis();
-        isRunning = true;
-        while (isRunning) {
-            if (CLOCK.update() && (stepping || !isPaused)) {
-                stepping = false;
-
-                final MemoryRegister IP = REGISTERS.getRegister("IP");
-                assert IP != null : "Come on, it can't be null...";
-
-                if (IP.getValue() >= MEMORY.getSize()) {
-                    stop();
-                } else {
-                    int currentIP = IP.getValue();
-                    Instruction instruction = INSTRUCTIONSET.getInstruction(MEMORY.getValueAt(currentIP));
-                    if (instruction == null) throw new InstructionError("Unknown", "Unknown Instruction", currentIP);
-                    HISTORY.put(currentIP, instruction.getKeyword());
-
-                    IP.setValue(currentIP + instruction.getWords());
+        if (!start(null)) return;
+        try {
+            while (isRunning) runBatch(MAX_CYCLES_PER_UPDATE);
+        } finally {
+            finish();
+        }
+    }
+
+    /**
+     * Starts running this {@link Processor} on a {@link ProcessorScheduler}, which then executes it in slices
+     * (See {@link #runSlice(int)}). When this {@link Processor} would block it ends the slice instead
+     * @param onWakeUp Called when this {@link Processor} may be able to continue (e.g. input arrived or it was resumed)
+     * @return False if this {@link Processor} is already running
+     */
+    protected boolean startScheduled(@NotNull Runnable onWakeUp) {
+        return start(onWakeUp);
+    }
+
+    /**
+     * Executes at most the specified amount of Instructions on the current Thread without ever parking it,
+     * it must only be called after {@link #startScheduled(Runnable)} and by one Thread at a time
+     * @param instructions The max amount of Instructions to execute
+     * @return {@link #SLICE_READY} if it can continue right away, {@link #SLICE_STOPPED} if it stopped,
+     *         {@link #SLICE_BLOCKED} if it waits until it's woken up or how many nano seconds it waits for
+     */
+    protected long runSlice(int instructions) {
+        synchronized (TASKS) {
+            runningThread = Thread.currentThread();
+        }
+
+        sliceWait = SLICE_READY;
+        long sliceEnd = executedCycles + instructions;
+        try {
+            while (isRunning && sliceWait == SLICE_READY && executedCycles < sliceEnd)
+                runBatch((int) Math.min(MAX_CYCLES_PER_UPDATE, sliceEnd - executedCycles));
+        } catch (RuntimeException | Error err) {
+            isRunning = false;
+            finish();
+            throw err;
+        }
+
+        if (!isRunning) {
+            finish();
+            return SLICE_STOPPED;
+        }
+
+        synchronized (TASKS) {
+            runningThread = null;
+            // Requests are serviced by whoever makes them until the next slice
+            serviceSnapshotRequests();
+            serviceTasks();
+        }
+        return sliceWait;
+    }
+
+    private boolean start(@Nullable Runnable onWakeUp) {
+        synchronized (TASKS) {
+            if (isRunning) return false;
+            TIME_SOURCE.start();
+            TIME_SOURCE.setTime(stoppedTime);
+            runningThread = onWakeUp == null ? Thread.currentThread() : null;
+            scheduledWakeUp = onWakeUp;
+            isRunning = true;
+        }
+        return true;
+    }
+
+    private void finish() {
+        // Memory accesses already materialize Registers and Flags, this keeps the backing storage (e.g. a mapped file) up to date
+        MEMORY.materializeLazyWords();
+        synchronized (TASKS) {
+            stoppedTime = TIME_SOURCE.getTime();
+            runningThread = null;
+            scheduledWakeUp = null;
+            // Nobody is writing to Memory anymore, so pending requests can be serviced right away
+            serviceSnapshotRequests();
+            serviceTasks();
+        }
+    }
+
+    // Executes the next batch of Instructions, if it must wait (e.g. it's paused or no cycle is due)
+    //  then it parks the Thread or, if scheduled, it sets how long the slice must wait for
+    private void runBatch(int maxCycles) {
+        serviceSnapshotRequests();
+        serviceTasks();
+
+        // If paused wait until resumed, stepped, stopped or a snapshot is requested
+        if (isPaused && !stepping) {
+            // Other Threads may look at Memory while the Processor is paused
+            MEMORY.materializeLazyWords();
+            if (scheduledWakeUp == null) {
+                LockSupport.park(this);
+            } else sliceWait = SLICE_BLOCKED;
+            return;
+        }
+
+        int cycles;
+        if (scheduledWakeUp == null) {
+            cycles = CLOCK.update(maxCycles);
+        } else {
+            cycles = CLOCK.poll(maxCycles);
+            if (cycles <= 0) sliceWait = Math.max(1, CLOCK.getTimeToNextBatch());
+        }
+        if (cycles <= 0) return;
+
+        // Interrupts are only checked once per batch
+        if (INTERRUPTS.getTimerPeriod() > 0) INTERRUPTS.updateTimer(TIME_SOURCE.getTime());
+        // Like when blocking, WFI is completed by the interrupt and then the interrupt is dispatched in the next batch
+        boolean resumesWait = waitingInterrupt;
+        waitingInterrupt = false;
+        if (INTERRUPTS.shouldDispatch() && !resumesWait) dispatchInterrupt();
+
+        if (stepping) {
+            stepping = false;
+            cycles = 1;
+        } else if (isPaused) return;
+
+        // Stopping or pausing the Processor sets this to 0,
+        //  so it's the only thing that needs to be checked between Instructions
+        cyclesLeft = cycles;
+        if (resumesBreakpoint) {
+            cyclesLeft--;
+            executedCycles++;
+            executeInstruction();
+            resumesBreakpoint = false;
+        }
+        while (cyclesLeft > 0) {
+            cyclesLeft--;
+            executedCycles++;
+            executeInstruction();
+        }
+    }
+
+    private void serviceTasks() {
+        FutureTask<?> task;
+        while ((task = TASKS.poll()) != null) task.run();
+    }
+
+    // Runs the specified task between Instructions without waiting for it, if the Processor isn't running it's run by this Thread
+    protected void runOnProcessorThread(@NotNull Runnable runnable) {
+        FutureTask<?> task = new FutureTask<>(runnable, null);
+        if (Thread.currentThread() == runningThread) {
+            task.run();
+            return;
+        }
+
+        TASKS.add(task);
+        wakeUp();
+        synchronized (TASKS) {
+            if (runningThread == null) serviceTasks();
+        }
+    }
+
+    // Runs the specified task between Instructions and returns its result, exceptions thrown by it are rethrown
+    private <T> T callOnProcessorThread(@NotNull Callable<T> callable) {
+        FutureTask<T> task = new FutureTask<>(callable);
+        if (Thread.currentThread() == runningThread) {
+            task.run();
+        } else {
+            TASKS.add(task);
+            wakeUp();
+            // If the Processor isn't running the task is run by this Thread
+            synchronized (TASKS) {
+                if (runningThread == null) serviceTasks();
+            }
+        }
+
+        try {
+            return task.get();
+        } catch (InterruptedException err) {
+            task.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for the Processor.");
+        } catch (ExecutionException err) {
+            Throwable cause = err.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    @Override
+    public @NotNull Checkpoint getCheckpoint() {
+        return callOnProcessorThread(() -> {
+            IRegister[] registers = getRegisters();
+            int[] registerValues = new int[registers.length];
+            for (int i = 0; i < registers.length; i++) registerValues[i] = registers[i].getValue();
+
+            IFlag[] flags = getFlags();
+            boolean[] flagValues = new boolean[flags.length];
+            for (int i = 0; i < flags.length; i++) flagValues[i] = flags[i].getValue();
+
+            int[] historyAddresses = new int[HISTORY.size()];
+            int[] historyKeyCodes = new int[historyAddresses.length];
+            long[] historyCounts = new long[historyAddresses.length];
+            int[] historyEntry = { 0 };
+            HISTORY.forEachRecord((address, keyCode, count) -> {
+                historyAddresses[historyEntry[0]] = address;
+                historyKeyCodes[historyEntry[0]] = keyCode;
+                historyCounts[historyEntry[0]++] = count;
+            });
+
+            KeyEventQueue.Event[] events = KEY_EVENTS.toArray();
+            int[] queuedKeys = new int[events.length];
+            char[] queuedChars = new char[events.length];
+            for (int i = 0; i < events.length; i++) {
+                queuedKeys[i] = events[i].getKey();
+                queuedChars[i] = events[i].getChar();
+            }
+
+            // Registers and Flags are materialized by reading Memory
+            return new Checkpoint(
+                    MEMORY.getWord().TOTAL_BITS, MEMORY.getValuesAt(0, MEMORY.getSize()), registerValues, flagValues,
+                    CLOCK.getFrequency(), executedCycles, executedCycles - skippedCycles,
+                    runningThread == null ? stoppedTime : TIME_SOURCE.getTime(),
+                    historyAddresses, historyKeyCodes, historyCounts,
+                    keyPressed, charPressed, queuedKeys, queuedChars,
+                    INTERRUPTS.getPendingInterrupts(), INTERRUPTS.getTimerPeriod(), INTERRUPTS.getNextTimerTick()
+            );
+        });
+    }
+
+    @Override
+    public void restoreCheckpoint(@NotNull Checkpoint checkpoint) {
+        if (checkpoint.getMemory().length != MEMORY.getSize() || checkpoint.getBits() != MEMORY.getWord().TOTAL_BITS)
+            throw new IllegalArgumentException("Checkpoint was taken from a Processor with a different Memory.");
+        if (checkpoint.getRegisters().length != getRegisters().length || checkpoint.getFlags().length != getFlags().length)
+            throw new IllegalArgumentException("Checkpoint was taken from a Processor with different Registers or Flags.");
+
+        callOnProcessorThread(() -> {
+            MEMORY.restore(checkpoint.getMemory());
+
+            IRegister[] registers = getRegisters();
+            for (int i = 0; i < registers.length; i++) registers[i].setValue(checkpoint.getRegisters()[i]);
+            IFlag[] flags = getFlags();
+            for (int i = 0; i < flags.length; i++) flags[i].setValue(checkpoint.getFlags()[i]);
+
+            // The Memory's listener wasn't notified, so everything derived from the old Instructions is thrown away
+            if (JOURNAL != null) JOURNAL.clear();
+            DECODE_CACHE.clear();
+            if (BLOCK_COMPILER != null) BLOCK_COMPILER.clear();
+            // The Processor isn't at the breakpoint it was paused at anymore
+            resumesBreakpoint = false;
+            atBlockStart = true;
+
+            executedCycles = checkpoint.getExecutedCycles();
+            skippedCycles = executedCycles - checkpoint.getExecutedInstructions();
+            CLOCK.setFrequency(checkpoint.getClockFrequency());
+            if (runningThread == null) stoppedTime = checkpoint.getTime();
+            else TIME_SOURCE.setTime(checkpoint.getTime());
+
+            HISTORY.clear();
+            int[] historyAddresses = checkpoint.getHistoryAddresses();
+            for (int i = 0; i < historyAddresses.length; i++)
+                HISTORY.setRecord(historyAddresses[i], checkpoint.getHistoryKeyCodes()[i], checkpoint.getHistoryCounts()[i]);
+
+            keyPressed = checkpoint.getKeyPressed();
+            charPressed = checkpoint.getCharPressed();
+            KEY_EVENTS.clear();
+            polledKeyEvent = null;
+            POLLED_KEY_EVENT_READERS.clear();
+            int[] queuedKeys = checkpoint.getQueuedKeys();
+            for (int i = 0; i < queuedKeys.length; i++)
+                KEY_EVENTS.offer(queuedKeys[i], checkpoint.getQueuedChars()[i]);
+
+            INTERRUPTS.restore(checkpoint.getPendingInterrupts(), checkpoint.getTimerPeriod(), checkpoint.getNextTimerTick());
+            return null;
+        });
+    }
+
+    private static final class SnapshotRequest {
+        private final int START;
+        private final int LENGTH;
+        private final CompletableFuture<ProcessorSnapshot> RESULT = new CompletableFuture<>();
+
+        private SnapshotRequest(int start, int length) {
+            START = start;
+            LENGTH = length;
+        }
+    }
+
+    private void serviceSnapshotRequests() {
+        SnapshotRequest request;
+        while ((request = SNAPSHOT_REQUESTS.poll()) != null) {
+            try {
+                request.RESULT.complete(new ProcessorSnapshot(this, request.START, request.LENGTH));
+            } catch (Exception err) {
+                request.RESULT.completeExceptionally(err);
+            }
+        }
+    }
+
+    @Override
+    public @NotNull ProcessorSnapshot getSnapshot() {
+        if (Thread.currentThread() == runningThread) return new ProcessorSnapshot(this);
+        return requestSnapshot(0, MEMORY.getSize()).join();
+    }
+
+    @Override
+    public @NotNull CompletableFuture<ProcessorSnapshot> requestSnapshot(int start, int length) {
+        if (Thread.currentThread() == runningThread)
+            return CompletableFuture.completedFuture(new ProcessorSnapshot(this, start, length));
+
+        SnapshotRequest request = new SnapshotRequest(start, length);
+        SNAPSHOT_REQUESTS.add(request);
+        wakeUp();
+        // If the Processor isn't running the snapshot is taken by this Thread
+        synchronized (TASKS) {
+            if (runningThread == null) serviceSnapshotRequests();
+        }
+        return request.RESULT;
+    }
+
+    private void dispatchInterrupt() {
+        int interrupt = INTERRUPTS.takeNext();
+        if (interrupt < 0) return;
+
+        // Interrupts without a handler are ignored
+        int handler = MEMORY.getValueAt(INTERRUPTS.getVectorAddress(interrupt));
+        if (handler == 0) return;
+
+        // The Instruction that was waiting for a key event starts waiting again after the handler returns
+        keyEventDeadline = NO_DEADLINE;
+        // Entering the handler is undone like an Instruction, but the interrupt won't be pending again
+        if (JOURNAL != null) recordStep(JOURNAL, IP.getValue(), false);
+        atBlockStart = true;
+
+        try {
+            InterruptController.enter(this, handler);
+        } catch (Exception err) {
+            throw new InstructionError("Interrupt", err.getMessage(), IP.getValue());
+        }
+    }
+
+    private void executeInstruction() {
+        // Code written by other cores is thrown away before it's executed
+        if (CORE_MEMORY != null) CORE_MEMORY.applyRemoteWrites();
+
+        int currentIP = IP.getValue();
+        if (currentIP >= MEMORY.getSize()) {
+            stop();
+        } else {
+            if (JOURNAL != null) recordStep(JOURNAL, currentIP, true);
+
+            // A watchpoint must pause the Processor right after the Instruction that hit it,
+            //  so while there are watchpoints Instructions are executed one by one
+            boolean isWatched = MEMORY.getWatchpoints() != null;
+            if (BLOCK_COMPILER != null && !isWatched && atBlockStart) {
+                // A block is only run if it fits in this batch, so that the Clock stays accurate
+                //  (cyclesLeft was already decremented for the current Instruction)
+                CompiledBlock block = BLOCK_COMPILER.getBlock(currentIP);
+                if (block != null && block.getLength() - 1 <= cyclesLeft) {
+                    int length = block.getLength();
+                    // A block which jumps back to its start is run again while it fits in this batch
+                    int maxRuns = 1 + (cyclesLeft - (length - 1)) / length;
+
+                    // The block reads and writes the Flags in Memory
+                    FLAGS_WORD.materialize();
+                    int runs = 0;
+                    int nextIP;
                     try {
-                        instruction.execute(
-                                this,
-                                // Here we check instruction.ARGUMENTS == 0 because Memory#getValuesAt always throws if the address is out of bounds
-                                instruction.getArgumentsCount() == 0 ? new int[0] : MEMORY.getValuesAt(currentIP + 1, instruction.getArgumentsCount())
-                        );
+                        do {
+                            nextIP = block.run();
+                            runs++;
+                        } while (nextIP == currentIP && runs < maxRuns);
                     } catch (Exception err) {
-                        throw new InstructionError(instruction.getKeyword(), err.getMessage(), currentIP);
+                        throw new InstructionError("Compiled Block", err.getMessage(), currentIP);
                     }
+                    block.notifyWrites(MEMORY.getListener());
+
+                    cyclesLeft -= runs * length - 1;
+                    executedCycles += runs * length - 1;
+                    block.recordHistory(HISTORY, runs);
+                    IP.setValue(nextIP);
+                    // Blocks end at jumps or right before Instructions they can't compile, so the next one may start a block
+                    atBlockStart = true;
+                    checkIdleLoop(block.getEnd());
+                    return;
+                }
+            }
+
+            DecodedInstruction decoded = DECODE_CACHE.get(currentIP);
+            if (decoded == null) throw new InstructionError("Unknown", "Unknown Instruction", currentIP);
+
+            // Breaking happens before the Instruction is recorded, so the cycle it was counted in is given back
+            if (!resumesBreakpoint && decoded.getInstruction() instanceof BreakpointInstruction &&
+                ((BreakpointInstruction) decoded.getInstruction()).shouldBreak(this)) {
+                executedCycles--;
+                if (JOURNAL != null) JOURNAL.discardStep();
+                resumesBreakpoint = true;
+                return;
+            }
+
+            // Like blocks, fused Instructions are only executed if they fit in this batch
+            FusedInstruction fused = JOURNAL == null && !isWatched ? decoded.getFused() : null;
+            if (fused != null && fused.getLength() - 1 <= cyclesLeft) {
+                cyclesLeft -= fused.getLength() - 1;
+                executedCycles += fused.getLength() - 1;
+                fused.recordHistory(HISTORY);
+
+                IP.setValue(fused.getEnd());
+                try {
+                    fused.execute(this);
+                } catch (Exception err) {
+                    throw new InstructionError(fused.getKeyword(), err.getMessage(), currentIP);
                 }
+                // Fused Instructions end with a conditional jump
+                atBlockStart = true;
+                checkIdleLoop(fused.getEnd());
+                return;
+            }
+
+            Instruction instruction = decoded.getInstruction();
+            HISTORY.record(currentIP, decoded.getKeyCode());
+
+            IP.setValue(decoded.getEnd());
+            try {
+                decoded.execute(this);
+            } catch (Exception err) {
+                throw new InstructionError(instruction.getKeyword(), err.getMessage(), currentIP);
+            }
+
+            // Instructions that are executed again (e.g. WAIT when it stops waiting early) didn't do anything
+            if (JOURNAL != null && IP.getValue() == currentIP && SP.getValue() == stepStackPointer &&
+                JOURNAL.getStepWrites() == REGISTERS_WORDS + FLAGS_WORDS) JOURNAL.discardStep();
+
+            // The next Instruction starts a block if it's where this one jumped to or if this one ends blocks
+            if (BLOCK_COMPILER != null)
+                atBlockStart = IP.getValue() != decoded.getEnd() || BLOCK_COMPILER.endsBlock(decoded.getKeyCode());
+
+            // Every step of the journal must start in executeInstruction, so the journal disables threading
+            if (IS_THREADED && JOURNAL == null && !isWatched && IP.getValue() == decoded.getEnd()) runThreaded(decoded);
+            else checkIdleLoop(decoded.getEnd());
+        }
+    }
+
+    // Executes the Instructions that follow the specified one by following the links between them (See DecodeCache#getNext)
+    //  until one of them jumps or the batch ends, so they're neither looked up nor go through executeInstruction.
+    //  Instructions that need more than that (e.g. fused ones or breakpoints) are left to executeInstruction
+    private void runThreaded(@NotNull DecodedInstruction decoded) {
+        DecodedInstruction current = decoded;
+        while (cyclesLeft > 0) {
+            int address = current.getEnd();
+            if (address >= MEMORY.getSize()) return;
+            if (CORE_MEMORY != null) CORE_MEMORY.applyRemoteWrites();
+
+            DecodedInstruction next = DECODE_CACHE.getNext(current);
+            if (next == null || next.getFused() != null || next.getInstruction() instanceof BreakpointInstruction) return;
+
+            cyclesLeft--;
+            executedCycles++;
+            HISTORY.record(address, next.getKeyCode());
+
+            int end = next.getEnd();
+            IP.setValue(end);
+            try {
+                next.execute(this);
+            } catch (Exception err) {
+                throw new InstructionError(next.getInstruction().getKeyword(), err.getMessage(), address);
             }
+
+            if (IP.getValue() != end) {
+                checkIdleLoop(end);
+                return;
+            }
+            current = next;
+        }
+    }
+
+    // Starts a new step of the journal, Registers and Flags are recorded because they're not always stored into Memory.
+    //  If the step is an Instruction, its cycle was already counted and it will overwrite the history entry at its address
+    private void recordStep(@NotNull UndoJournal journal, int currentIP, boolean isInstruction) {
+        stepStackPointer = SP.getValue();
+        journal.mark();
+        journal.record(IP.getAddress(), currentIP);
+        journal.record(SP.getAddress(), stepStackPointer);
+        journal.record(FLAGS_WORD.getAddress(), FLAGS_WORD.getValue());
+
+        journal.setStepValue(STEP_CYCLES, isInstruction ? executedCycles - 1 : executedCycles);
+        journal.setStepValue(STEP_SKIPPED_CYCLES, skippedCycles);
+        journal.setStepValue(STEP_HISTORY_ADDRESS, isInstruction ? currentIP : -1);
+        if (isInstruction) {
+            journal.setStepValue(STEP_HISTORY_KEY_CODE, HISTORY.getKeyCode(currentIP));
+            journal.setStepValue(STEP_HISTORY_COUNT, HISTORY.getCount(currentIP));
+        }
+    }
+
+    // Called after Instructions that may have jumped, end is the address the Instruction Pointer was set to before executing them
+    private void checkIdleLoop(int end) {
+        // Other cores may change what the loop reads at any time
+        if (CORE_COUNT > 1) return;
+
+        int target = IP.getValue();
+        if (target >= end || end - target > IdleLoop.MAX_WORDS) return;
+
+        IdleLoop idleLoop = DECODE_CACHE.getIdleLoop(target, end);
+        if (idleLoop == null) return;
+
+        // Queued key events are read by the loop without waiting for input
+        if (QUEUED_POLLING && idleLoop.readsInput() && KEY_EVENTS.size() > 0) return;
+
+        // An interrupt will change what the loop does
+        if (INTERRUPTS.shouldDispatch()) {
+            cyclesLeft = 0;
+            return;
+        }
+
+        // The loop will do the same thing until time passes, input arrives or the timer ticks
+        long timeRunning = getTimeRunning();
+        long timeToTimer = INTERRUPTS.getTimeToTimer(timeRunning);
+        if (idleLoop.readsTime()) {
+            long timeToNextTick = idleLoop.getTimeResolution() - timeRunning % idleLoop.getTimeResolution();
+            // Virtual time only passes by executing Instructions, so it can't be waited for
+            if (FAST_FORWARD_IDLE || !TIME_SOURCE.isRealTime()) {
+                skipTime(Math.min(timeToNextTick, timeToTimer));
+                // The batch is ended so that the timer is checked
+                if (timeToTimer <= timeToNextTick) cyclesLeft = 0;
+                return;
+            }
+
+            cyclesLeft = 0;
+            waitIdle(Math.min(timeToNextTick, timeToTimer));
+        } else {
+            // Changing input, stopping, pausing, stepping and requesting snapshots wake the Processor up
+            cyclesLeft = 0;
+            waitIdle(timeToTimer);
         }
     }
 
     @Override
-    public void stop() { isRunning = false; }
+    public void stop() {
+        isRunning = false;
+        cyclesLeft = 0;
+        wakeUp();
+    }
 
     @Override
     public boolean isPaused() {
@@ -227,16 +1100,59 @@ public final class Processor implements IProcessor {
     @Override
     public void pause() {
         isPaused = true;
+        cyclesLeft = 0;
+        // The Processor may be waiting for a key event
+        wakeUp();
     }
 
     @Override
     public void resume() {
         isPaused = false;
+        wakeUp();
     }
 
     @Override
     public void step() {
         stepping = true;
+        wakeUp();
+    }
+
+    @Override
+    public int stepBack(int instructions) {
+        if (JOURNAL == null || instructions <= 0) return 0;
+
+        return callOnProcessorThread(() -> {
+            // Writing back old values isn't an access done by the program
+            MemoryWatchpoints watchpoints = MEMORY.getWatchpoints();
+            MEMORY.setWatchpoints(null);
+
+            int steps = 0;
+            long[] stepValues = new long[STEP_VALUES];
+            try {
+                while (steps < instructions && JOURNAL.undo(MEMORY, stepValues)) {
+                    steps++;
+                    // Virtual time is derived from the executed cycles, so it goes back too
+                    executedCycles = stepValues[STEP_CYCLES];
+                    skippedCycles = stepValues[STEP_SKIPPED_CYCLES];
+                    int historyAddress = (int) stepValues[STEP_HISTORY_ADDRESS];
+                    if (historyAddress >= 0)
+                        HISTORY.setRecord(historyAddress, (int) stepValues[STEP_HISTORY_KEY_CODE], stepValues[STEP_HISTORY_COUNT]);
+                }
+            } finally {
+                MEMORY.setWatchpoints(watchpoints);
+            }
+            // Breakpoints are checked again on the Instructions that were undone
+            if (steps > 0) resumesBreakpoint = false;
+            return steps;
+        });
+    }
+
+    private void wakeUp() {
+        Thread thread = runningThread;
+        if (thread != null) LockSupport.unpark(thread);
+
+        Runnable onWakeUp = scheduledWakeUp;
+        if (onWakeUp != null) onWakeUp.run();
     }
 
 }
@@ -1,9 +1,12 @@
 package io.github.hds.pemu.processor;
 
+import io.github.hds.pemu.console.IConsole;
 import io.github.hds.pemu.instructions.InstructionSet;
+import io.github.hds.pemu.memory.MemoryType;
 import io.github.hds.pemu.memory.Word;
 import io.github.hds.pemu.utils.MathUtils;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public final class ProcessorConfig {
 
@@ -21,11 +24,40 @@ public final class ProcessorConfig {
     public static final int MAX_FREQUENCY = Clock.MAX_FREQUENCY;
     public static final int MIN_FREQUENCY = Clock.MIN_FREQUENCY;
     public static final int DEFAULT_FREQUENCY = 1000;
+    // Processors with this frequency execute Instructions as fast as they can
+    public static final int UNLIMITED_FREQUENCY = Clock.UNLIMITED_FREQUENCY;
+
+    public static final MemoryType DEFAULT_MEMORY_TYPE = MemoryType.HEAP;
+    public static final ExecutionEngine DEFAULT_EXECUTION_ENGINE = ExecutionEngine.INTERPRETER;
+    public static final TimeSourceType DEFAULT_TIME_SOURCE = TimeSourceType.WALL;
+
+    // The max amount of memory (in KiB) used to record Instructions so that they can be undone, 0 disables it
+    public static final int MAX_UNDO_JOURNAL_SIZE = 1024 * 1024;
+    public static final int MIN_UNDO_JOURNAL_SIZE = 0;
+    public static final int DEFAULT_UNDO_JOURNAL_SIZE = 0;
+
+    // How many cores share the Processor's Memory, each one runs on its own Thread
+    public static final int MAX_CORES = 64;
+    public static final int MIN_CORES = 1;
+    public static final int DEFAULT_CORES = 1;
 
     private int bits;
     private int memorySize;
     private int clockFrequency;
     private @NotNull InstructionSet instructionSet;
+    private @NotNull MemoryType memoryType = DEFAULT_MEMORY_TYPE;
+    // The file used by MAPPED Memory, if null a temporary file is used
+    private @Nullable String memoryFile = null;
+    private @NotNull ExecutionEngine executionEngine = DEFAULT_EXECUTION_ENGINE;
+    private @NotNull TimeSourceType timeSource = DEFAULT_TIME_SOURCE;
+    // If true, time is moved forward when the Processor is in a loop that waits for it instead of waiting
+    private boolean fastForwardIdle = false;
+    private int undoJournalSize = DEFAULT_UNDO_JOURNAL_SIZE;
+    private int cores = DEFAULT_CORES;
+    // Where the program's output is printed, if null it's printed to Console.ProgramOutput
+    private @Nullable IConsole programOutput = null;
+    // If true, GETK, GETC and GETI read queued key events before the pressed key (See IProcessor#readKeyEvent)
+    private boolean queuedPolling = false;
 
     public ProcessorConfig(@NotNull InstructionSet instructionSet) {
         this(instructionSet, DEFAULT_BITS);
@@ -48,6 +80,15 @@ public final class ProcessorConfig {
 
     public ProcessorConfig(@NotNull ProcessorConfig config) {
         this(config.instructionSet, config.bits, config.memorySize, config.clockFrequency);
+        this.memoryType = config.memoryType;
+        this.memoryFile = config.memoryFile;
+        this.executionEngine = config.executionEngine;
+        this.timeSource = config.timeSource;
+        this.fastForwardIdle = config.fastForwardIdle;
+        this.undoJournalSize = config.undoJournalSize;
+        this.cores = config.cores;
+        this.programOutput = config.programOutput;
+        this.queuedPolling = config.queuedPolling;
     }
 
     public @NotNull ProcessorConfig setBits(int bits) {
@@ -61,7 +102,61 @@ public final class ProcessorConfig {
     }
 
     public @NotNull ProcessorConfig setClockFrequency(int frequency) {
-        this.clockFrequency = MathUtils.constrain(frequency, MIN_FREQUENCY, MAX_FREQUENCY);
+        if (frequency == UNLIMITED_FREQUENCY)
+            this.clockFrequency = UNLIMITED_FREQUENCY;
+        else this.clockFrequency = MathUtils.constrain(frequency, MIN_FREQUENCY, MAX_FREQUENCY);
+        return this;
+    }
+
+    public @NotNull ProcessorConfig setMemoryType(@NotNull MemoryType memoryType) {
+        this.memoryType = memoryType;
+        return this;
+    }
+
+    public @NotNull ProcessorConfig setMemoryFile(@Nullable String memoryFile) {
+        this.memoryFile = memoryFile == null || memoryFile.isEmpty() ? null : memoryFile;
+        return this;
+    }
+
+    public @NotNull ProcessorConfig setExecutionEngine(@NotNull ExecutionEngine executionEngine) {
+        this.executionEngine = executionEngine;
+        return this;
+    }
+
+    public @NotNull ProcessorConfig setTimeSource(@NotNull TimeSourceType timeSource) {
+        this.timeSource = timeSource;
+        return this;
+    }
+
+    public @NotNull ProcessorConfig setFastForwardIdle(boolean fastForwardIdle) {
+        this.fastForwardIdle = fastForwardIdle;
+        return this;
+    }
+
+    public @NotNull ProcessorConfig setUndoJournalSize(int undoJournalSize) {
+        this.undoJournalSize = MathUtils.constrain(undoJournalSize, MIN_UNDO_JOURNAL_SIZE, MAX_UNDO_JOURNAL_SIZE);
+        return this;
+    }
+
+    public @NotNull ProcessorConfig setCores(int cores) {
+        this.cores = MathUtils.constrain(cores, MIN_CORES, MAX_CORES);
+        return this;
+    }
+
+    public @NotNull ProcessorConfig setProgramOutput(@Nullable IConsole programOutput) {
+        this.programOutput = programOutput;
+        return this;
+    }
+
+    /**
+     * Sets whether or not GETK, GETC and GETI read queued key events before the currently pressed key,
+     * it's meant for input that's queued all at once (e.g. by {@link io.github.hds.pemu.batch.BatchRunner}):
+     * key presses typed by the user are also queued, so held keys would be read once for each repeat
+     * @param queuedPolling Whether or not polling Instructions read queued key events
+     * @return This {@link ProcessorConfig}
+     */
+    public @NotNull ProcessorConfig setQueuedPolling(boolean queuedPolling) {
+        this.queuedPolling = queuedPolling;
         return this;
     }
 
@@ -82,6 +177,50 @@ public final class ProcessorConfig {
         return clockFrequency;
     }
 
+    public boolean isClockUnlimited() {
+        return clockFrequency == UNLIMITED_FREQUENCY;
+    }
+
+    public @NotNull MemoryType getMemoryType() {
+        return memoryType;
+    }
+
+    public @Nullable String getMemoryFile() {
+        return memoryFile;
+    }
+
+    public @NotNull ExecutionEngine getExecutionEngine() {
+        return executionEngine;
+    }
+
+    public @NotNull TimeSourceType getTimeSource() {
+        return timeSource;
+    }
+
+    public boolean isFastForwardIdle() {
+        return fastForwardIdle;
+    }
+
+    public int getUndoJournalSize() {
+        return undoJournalSize;
+    }
+
+    public int getCores() {
+        return cores;
+    }
+
+    public @Nullable IConsole getProgramOutput() {
+        return programOutput;
+    }
+
+    public boolean isQueuedPolling() {
+        return queuedPolling;
+    }
+
+    public boolean isUndoEnabled() {
+        return undoJournalSize > 0;
+    }
+
     public @NotNull InstructionSet getInstructionSet() {
         return instructionSet;
     }
@@ -0,0 +1,206 @@
+package io.github.hds.pemu.processor;
+
+import io.github.hds.pemu.utils.IStoppable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs many {@link Processor}s on a small pool of carrier Threads (like green threads), each one executes a slice
+ * of at most {@link #getQuantum()} Instructions and then goes back to the end of the queue.
+ * A {@link Processor} that would block (e.g. it's paused, its Clock isn't due, it waits for input or time in an idle loop)
+ * ends its slice and doesn't take a carrier Thread until its time passes or it's woken up (e.g. by input, resuming or stopping it),
+ * so thousands of them can be hosted by a few Threads
+ */
+public final class ProcessorScheduler implements IStoppable {
+
+    public static final int DEFAULT_QUANTUM = 16384;
+
+    // The states of a scheduled Processor
+    private static final int QUEUED = 0;
+    private static final int RUNNING = 1;
+    // It was woken up while running, so it's queued again even if its slice ends waiting
+    private static final int RUNNING_WOKEN = 2;
+    private static final int WAITING = 3;
+    private static final int DONE = 4;
+
+    private final int QUANTUM;
+    // Slices are run in the order they're queued, so that all Processors get to run
+    private final ThreadPoolExecutor CARRIERS;
+    // Wakes up Processors that wait for time
+    private final ScheduledThreadPoolExecutor TIMERS;
+    private final Set<Task> TASKS = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Creates a ProcessorScheduler with as many carrier Threads as there are available processors
+     */
+    public ProcessorScheduler() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_QUANTUM);
+    }
+
+    /**
+     * @param carriers How many Threads run Processors
+     * @param quantum How many Instructions a Processor executes before letting the next one run
+     */
+    public ProcessorScheduler(int carriers, int quantum) {
+        if (carriers <= 0) throw new IllegalArgumentException("Processor Scheduler carriers must be positive!");
+        if (quantum <= 0) throw new IllegalArgumentException("Processor Scheduler quantum must be positive!");
+        QUANTUM = quantum;
+
+        AtomicInteger carrierCount = new AtomicInteger(0);
+        CARRIERS = new ThreadPoolExecutor(carriers, carriers, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "PEMU Scheduler Carrier " + carrierCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        TIMERS = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "PEMU Scheduler Timers");
+            thread.setDaemon(true);
+            return thread;
+        });
+        TIMERS.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Starts running the specified {@link Processor} on this scheduler, it must not be running.
+     * It can be controlled like any other (e.g. paused, stopped, given input) from any Thread
+     * @param processor The {@link Processor} to run
+     * @return A future that completes when the {@link Processor} stops, exceptionally if it throws
+     * @throws IllegalStateException If the {@link Processor} is already running
+     */
+    public @NotNull CompletableFuture<Void> submit(@NotNull Processor processor) {
+        Task task = new Task(processor);
+        if (!processor.startScheduled(task::wakeUp))
+            throw new IllegalStateException("Processor is already running!");
+
+        TASKS.add(task);
+        task.execute();
+        return task.FUTURE;
+    }
+
+    /**
+     * Stops all Processors that are running on this scheduler and then releases its Threads,
+     * Processors can't be submitted anymore
+     */
+    @Override
+    public void stop() {
+        // Stopped Processors are woken up, so they finish in their next slice
+        for (Task task : TASKS) task.PROCESSOR.stop();
+        CARRIERS.shutdown();
+        TIMERS.shutdownNow();
+    }
+
+    /**
+     * Returns how many Processors are running on this scheduler, including the ones that are waiting
+     * @return How many Processors are running on this scheduler
+     */
+    public int getProcessorCount() {
+        return TASKS.size();
+    }
+
+    public int getQuantum() {
+        return QUANTUM;
+    }
+
+    public int getCarriers() {
+        return CARRIERS.getCorePoolSize();
+    }
+
+    private final class Task implements Runnable {
+
+        private final @NotNull Processor PROCESSOR;
+        private final CompletableFuture<Void> FUTURE = new CompletableFuture<>();
+        private final AtomicInteger STATE = new AtomicInteger(QUEUED);
+        private volatile @Nullable ScheduledFuture<?> timer = null;
+
+        private Task(@NotNull Processor processor) {
+            PROCESSOR = processor;
+        }
+
+        @Override
+        public void run() {
+            STATE.set(RUNNING);
+
+            long wait;
+            try {
+                wait = PROCESSOR.runSlice(QUANTUM);
+            } catch (Throwable err) {
+                done();
+                FUTURE.completeExceptionally(err);
+                return;
+            }
+
+            if (wait == Processor.SLICE_STOPPED) {
+                done();
+                FUTURE.complete(null);
+                return;
+            } else if (wait == Processor.SLICE_READY) {
+                requeue();
+                return;
+            }
+
+            // The timer is set before WAITING is published, so whoever consumes the wait cancels this timer
+            ScheduledFuture<?> newTimer = null;
+            if (wait != Processor.SLICE_BLOCKED) {
+                try {
+                    newTimer = TIMERS.schedule(this::wakeUp, wait, TimeUnit.NANOSECONDS);
+                } catch (RejectedExecutionException err) {
+                    // The scheduler is being stopped, so the Processor runs again to finish
+                    requeue();
+                    return;
+                }
+            }
+            timer = newTimer;
+
+            if (!STATE.compareAndSet(RUNNING, WAITING)) {
+                // It was woken up while its slice was ending
+                timer = null;
+                if (newTimer != null) newTimer.cancel(false);
+                requeue();
+            }
+        }
+
+        private void requeue() {
+            STATE.set(QUEUED);
+            execute();
+        }
+
+        private void execute() {
+            try {
+                CARRIERS.execute(this);
+            } catch (RejectedExecutionException err) {
+                // The scheduler was stopped while this Processor was waiting
+                done();
+                FUTURE.completeExceptionally(new CancellationException("Processor Scheduler was stopped."));
+            }
+        }
+
+        private void done() {
+            STATE.set(DONE);
+            TASKS.remove(this);
+        }
+
+        private void wakeUp() {
+            while (true) {
+                int state = STATE.get();
+                if (state == WAITING) {
+                    if (!STATE.compareAndSet(WAITING, QUEUED)) continue;
+
+                    // The wait is consumed, so its timer must not wake up the Processor again
+                    ScheduledFuture<?> timer = this.timer;
+                    this.timer = null;
+                    if (timer != null) timer.cancel(false);
+                    execute();
+                    return;
+                } else if (state == RUNNING) {
+                    if (STATE.compareAndSet(RUNNING, RUNNING_WOKEN)) return;
+                } else return;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,116 @@
+package io.github.hds.pemu.processor;
+
+import io.github.hds.pemu.memory.IMemory;
+import io.github.hds.pemu.memory.Memory;
+import io.github.hds.pemu.memory.flags.BasicFlag;
+import io.github.hds.pemu.memory.flags.IFlag;
+import io.github.hds.pemu.memory.registers.BasicRegister;
+import io.github.hds.pemu.memory.registers.IRegister;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A copy of the Memory, Registers and Flags of an {@link IProcessor} taken at a single point in time,
+ * it should be used by other Threads to look at the state of a running {@link IProcessor}
+ */
+public final class ProcessorSnapshot {
+
+    private final @NotNull IMemory MEMORY;
+    private final int MEMORY_START;
+    private final int MEMORY_SIZE;
+    private final @NotNull IRegister[] REGISTERS;
+    private final @NotNull IFlag[] FLAGS;
+    private final long TIMESTAMP;
+
+    /**
+     * Copies the state of the specified {@link IProcessor}, this must be called
+     * when the {@link IProcessor} can't be modified (e.g. from its Thread or while it's not running)
+     * @param processor The {@link IProcessor} to copy the state of
+     */
+    public ProcessorSnapshot(@NotNull IProcessor processor) {
+        this(processor, 0, processor.getMemory().getSize());
+    }
+
+    /**
+     * Copies the state of the specified {@link IProcessor} but only the specified range of its Memory,
+     * the range is clamped to the bounds of Memory. Like {@link ProcessorSnapshot#ProcessorSnapshot(IProcessor)}
+     * this must be called when the {@link IProcessor} can't be modified
+     * @param processor The {@link IProcessor} to copy the state of
+     * @param start The first address to copy
+     * @param length How many addresses to copy
+     */
+    public ProcessorSnapshot(@NotNull IProcessor processor, int start, int length) {
+        IMemory memory = processor.getMemory();
+        MEMORY_SIZE = memory.getSize();
+        MEMORY_START = Math.max(0, Math.min(start, MEMORY_SIZE));
+        int end = (int) Math.max(MEMORY_START, Math.min((long) start + length, MEMORY_SIZE));
+
+        MEMORY = Memory.getMemory(end - MEMORY_START, memory.getWord());
+        if (MEMORY.getSize() > 0)
+            MEMORY.setValuesAt(0, memory.getValuesAt(MEMORY_START, MEMORY.getSize()));
+
+        IRegister[] registers = processor.getRegisters();
+        REGISTERS = new IRegister[registers.length];
+        for (int i = 0; i < registers.length; i++) {
+            IRegister register = registers[i];
+            REGISTERS[i] = new BasicRegister(register.getValue(), register.getFullName(), register.getShortName());
+        }
+
+        IFlag[] flags = processor.getFlags();
+        FLAGS = new IFlag[flags.length];
+        for (int i = 0; i < flags.length; i++) {
+            IFlag flag = flags[i];
+            FLAGS[i] = new BasicFlag(flag.getValue(), flag.getFullName(), flag.getShortName());
+        }
+
+        TIMESTAMP = System.currentTimeMillis();
+    }
+
+    /**
+     * Returns a copy of the range of the {@link IProcessor}'s Memory that was copied, changing it won't affect
+     * the {@link IProcessor}. Its address 0 is {@link ProcessorSnapshot#getMemoryStart()} in the {@link IProcessor}'s Memory
+     * @return A copy of the copied range of the {@link IProcessor}'s Memory
+     */
+    public @NotNull IMemory getMemory() {
+        return MEMORY;
+    }
+
+    /**
+     * Returns the address of the {@link IProcessor}'s Memory at which the copied range starts
+     * @return The first address that was copied
+     */
+    public int getMemoryStart() {
+        return MEMORY_START;
+    }
+
+    /**
+     * Returns the size of the whole {@link IProcessor}'s Memory, even if only a range of it was copied
+     * @return The size of the {@link IProcessor}'s Memory
+     */
+    public int getMemorySize() {
+        return MEMORY_SIZE;
+    }
+
+    /**
+     * Returns copies of the {@link IProcessor}'s {@link IRegister}s
+     * @return Copies of the {@link IProcessor}'s {@link IRegister}s
+     */
+    public @NotNull IRegister[] getRegisters() {
+        return REGISTERS;
+    }
+
+    /**
+     * Returns copies of the {@link IProcessor}'s {@link IFlag}s
+     * @return Copies of the {@link IProcessor}'s {@link IFlag}s
+     */
+    public @NotNull IFlag[] getFlags() {
+        return FLAGS;
+    }
+
+    /**
+     * Returns the time (in ms since the epoch) at which this snapshot was taken
+     * @return The time at which this snapshot was taken
+     */
+    public long getTimestamp() {
+        return TIMESTAMP;
+    }
+}
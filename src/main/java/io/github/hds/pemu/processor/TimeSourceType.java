@@ -0,0 +1,16 @@
+package io.github.hds.pemu.processor;
+
+/**
+ * The {@link ITimeSource}s a {@link Processor} can use
+ */
+public enum TimeSourceType {
+    /**
+     * Time is measured with the host's wall clock (See {@link WallTimeSource})
+     */
+    WALL,
+    /**
+     * Time is derived from how many cycles were executed and the frequency of the Clock,
+     * so it doesn't depend on how fast the host is (See {@link VirtualTimeSource})
+     */
+    VIRTUAL
+}
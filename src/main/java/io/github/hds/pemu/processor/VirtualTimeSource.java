@@ -0,0 +1,100 @@
+package io.github.hds.pemu.processor;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.LongSupplier;
+
+/**
+ * An {@link ITimeSource} which derives time from how many cycles were executed and the frequency of a {@link Clock},
+ * each cycle lasts exactly one period of the Clock. So time only depends on the program and not on how fast the host is
+ * (e.g. waiting for 500ms at 1MHz always takes 500k cycles). If the Clock is unlimited, {@link Clock#MAX_FREQUENCY} is used
+ */
+public final class VirtualTimeSource implements ITimeSource {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final @NotNull Clock CLOCK;
+    private final @NotNull LongSupplier CYCLES;
+
+    // When the frequency of the Clock changes time is re-based, so that cycles executed before keep their duration
+    private int frequency;
+    private long baseCycles;
+    private long baseNanos;
+
+    /**
+     * @param clock The {@link Clock} whose frequency is used to get the duration of a cycle
+     * @param cycles Supplies how many cycles were executed, it should never decrease
+     */
+    public VirtualTimeSource(@NotNull Clock clock, @NotNull LongSupplier cycles) {
+        CLOCK = clock;
+        CYCLES = cycles;
+        start();
+    }
+
+    private int getFrequency() {
+        return CLOCK.isUnlimited() ? Clock.MAX_FREQUENCY : CLOCK.getFrequency();
+    }
+
+    // Split in two so that it doesn't overflow, cycles % frequency is less than 1 billion
+    private static long getNanos(long cycles, int frequency) {
+        return cycles / frequency * NANOS_PER_SECOND + cycles % frequency * NANOS_PER_SECOND / frequency;
+    }
+
+    @Override
+    public synchronized void start() {
+        frequency = getFrequency();
+        baseCycles = CYCLES.getAsLong();
+        baseNanos = 0;
+    }
+
+    @Override
+    public synchronized long getTime() {
+        long cycles = CYCLES.getAsLong();
+        int currentFrequency = getFrequency();
+        if (currentFrequency != frequency) {
+            baseNanos += getNanos(cycles - baseCycles, frequency);
+            baseCycles = cycles;
+            frequency = currentFrequency;
+        }
+
+        return (baseNanos + getNanos(cycles - baseCycles, frequency)) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public synchronized void setTime(long ms) {
+        frequency = getFrequency();
+        baseCycles = CYCLES.getAsLong();
+        baseNanos = ms * NANOS_PER_MILLI;
+    }
+
+    /**
+     * Returns how many cycles last at least the specified amount of milliseconds at the current frequency,
+     * adding them to the executed cycles moves time forward while keeping it consistent with them
+     * @param ms How many milliseconds the cycles must last
+     * @return How many cycles last at least the specified amount of milliseconds
+     */
+    public synchronized long getCycles(long ms) {
+        int currentFrequency = getFrequency();
+        // Split in two like getNanos, times this long won't be reached anyway
+        long seconds = ms / 1000;
+        if (seconds >= Long.MAX_VALUE / 2 / currentFrequency) return Long.MAX_VALUE / 2;
+        return seconds * currentFrequency + (ms % 1000 * currentFrequency + 999) / 1000;
+    }
+
+    /**
+     * Moves time forward without counting cycles, so time won't match the executed cycles anymore.
+     * {@link Processor}s add the cycles returned by {@link VirtualTimeSource#getCycles(long)} instead
+     * @param ms How many milliseconds to move time forward by
+     */
+    @Override
+    public synchronized void skip(long ms) {
+        baseNanos += ms * NANOS_PER_MILLI;
+    }
+
+    @Override
+    public boolean isRealTime() {
+        return false;
+    }
+
+}
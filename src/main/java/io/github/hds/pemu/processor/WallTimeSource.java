@@ -0,0 +1,36 @@
+package io.github.hds.pemu.processor;
+
+/**
+ * An {@link ITimeSource} which measures the time of the host's wall clock
+ */
+public final class WallTimeSource implements ITimeSource {
+
+    // It's moved back when time is skipped
+    private volatile long startTimestamp = System.currentTimeMillis();
+
+    @Override
+    public void start() {
+        startTimestamp = System.currentTimeMillis();
+    }
+
+    @Override
+    public long getTime() {
+        return System.currentTimeMillis() - startTimestamp;
+    }
+
+    @Override
+    public void setTime(long ms) {
+        startTimestamp = System.currentTimeMillis() - ms;
+    }
+
+    @Override
+    public void skip(long ms) {
+        startTimestamp -= ms;
+    }
+
+    @Override
+    public boolean isRealTime() {
+        return true;
+    }
+
+}
@@ -0,0 +1,45 @@
+package io.github.hds.pemu.processor;
+
+/**
+ * A range of addresses whose reads and/or writes pause the {@link IProcessor} after the Instruction
+ * that accessed them is executed (See {@link Debugger#addWatchpoint(Watchpoint)})
+ */
+public final class Watchpoint {
+
+    private final int START;
+    private final int END;
+    private final boolean WATCH_READS;
+    private final boolean WATCH_WRITES;
+
+    /**
+     * @param start The first watched address
+     * @param end The address after the last watched one
+     * @param watchReads Whether or not reads are watched
+     * @param watchWrites Whether or not writes are watched
+     */
+    public Watchpoint(int start, int end, boolean watchReads, boolean watchWrites) {
+        if (start < 0 || end < start)
+            throw new IllegalArgumentException("Invalid Watchpoint range [" + start + ", " + end + ").");
+        START = start;
+        END = end;
+        WATCH_READS = watchReads;
+        WATCH_WRITES = watchWrites;
+    }
+
+    public int getStart() {
+        return START;
+    }
+
+    public int getEnd() {
+        return END;
+    }
+
+    public boolean isWatchingReads() {
+        return WATCH_READS;
+    }
+
+    public boolean isWatchingWrites() {
+        return WATCH_WRITES;
+    }
+
+}
@@ -23,6 +23,16 @@ public final class MathUtils {
         return Math.round(val / (float) divisor) * divisor;
     }
 
+    /**
+     * Returns whether or not the specified bit of number is set
+     * @param number The number to get the bit from
+     * @param bit The index of the bit to get (0 is the least significant bit)
+     * @return Whether or not the specified bit is set
+     */
+    public static boolean getBit(int number, int bit) {
+        return (number & (1 << bit)) != 0;
+    }
+
     /**
      * Puts into bits the first bits.length bits of number
      * @param number The number to get the first bits.length bits from